@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import edu.ncsu.csc.iTrust2.config.SchemaValidateIntegrator;
 
@@ -14,6 +15,7 @@ import edu.ncsu.csc.iTrust2.config.SchemaValidateIntegrator;
  *
  */
 @SpringBootApplication ( scanBasePackages = { "edu.ncsu.csc.iTrust2" } )
+@EnableScheduling
 public class ITrust2Application {
 
     /**
@@ -28,7 +30,8 @@ public class ITrust2Application {
 
     /**
      * Used to register a Schema Validator to make sure the database is
-     * up-to-date
+     * up-to-date, and to let Hibernate group inserts (such as batches of
+     * LogEntries from the AuditLogWriter) into JDBC batches
      *
      * @param schemaValidateIntegrator
      *            Schema Validator to register
@@ -39,6 +42,8 @@ public class ITrust2Application {
             final SchemaValidateIntegrator schemaValidateIntegrator ) {
         return ( prop -> {
             prop.put( "hibernate.integrator_provider", schemaValidateIntegrator );
+            prop.put( "hibernate.jdbc.batch_size", 50 );
+            prop.put( "hibernate.order_inserts", true );
         } );
     }
 }
@@ -0,0 +1,55 @@
+package edu.ncsu.csc.iTrust2.adapters;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generates the IDs of every entity with a generated ID. Each entity has a row
+ * of its own in the `id_generator` table, keyed by the entity's table, and IDs
+ * are reserved from it a block at a time and handed out from memory. So an
+ * insert only touches `id_generator` once every BLOCK_SIZE rows, and inserts
+ * of different entities never wait on each other for an ID, as they did when
+ * every entity shared the one `hibernate_sequence` row.
+ *
+ * IDs are still unique within each table, but are no longer unique across
+ * tables, and a restart skips whatever was left of each block. The rows are
+ * seeded from the existing data by SchemaMigrations.
+ *
+ * It is declared once, in the models package's package-info, so use it on an
+ * ID as:
+ *
+ * <pre>
+ * &#64;GeneratedValue ( generator = PooledIdGenerator.NAME )
+ * </pre>
+ */
+public class PooledIdGenerator extends TableGenerator {
+
+    /** Name of the generator, to use in @GeneratedValue */
+    public static final String NAME       = "pooled";
+
+    /** Strategy to give @GenericGenerator; the name of this class */
+    public static final String STRATEGY   = "edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator";
+
+    /** Table the next free ID of each entity is kept in */
+    public static final String TABLE_NAME = "id_generator";
+
+    /** Number of IDs reserved at a time */
+    public static final int    BLOCK_SIZE = 1000;
+
+    @Override
+    public void configure ( final Type type, final Properties params, final ServiceRegistry serviceRegistry )
+            throws MappingException {
+        params.putIfAbsent( TABLE_PARAM, TABLE_NAME );
+        params.putIfAbsent( CONFIG_PREFER_SEGMENT_PER_ENTITY, "true" );
+        params.putIfAbsent( INCREMENT_PARAM, String.valueOf( BLOCK_SIZE ) );
+        // The row holds the first ID of the next block
+        params.putIfAbsent( OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName() );
+        super.configure( type, params, serviceRegistry );
+    }
+
+}
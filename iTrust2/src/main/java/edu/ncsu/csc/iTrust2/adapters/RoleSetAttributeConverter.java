@@ -0,0 +1,42 @@
+package edu.ncsu.csc.iTrust2.adapters;
+
+import java.util.Set;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+
+/**
+ * Role set converter for database storage. Stores a User's Roles as a single
+ * bitmask column on the user row (see Role.getMask()), so that loading a User
+ * doesn't need a second query for its Roles.
+ */
+@Converter
+public class RoleSetAttributeConverter implements AttributeConverter<Set<Role>, Integer> {
+
+    /**
+     * Converts the Roles to a database field.
+     *
+     * @param roles
+     *            The Roles to convert.
+     * @return The Roles as a bitmask.
+     */
+    @Override
+    public Integer convertToDatabaseColumn ( final Set<Role> roles ) {
+        return roles == null ? 0 : Role.toMask( roles );
+    }
+
+    /**
+     * Converts the database bitmask to a set of Roles.
+     *
+     * @param mask
+     *            The bitmask to convert.
+     * @return The bitmask as an EnumSet of Roles.
+     */
+    @Override
+    public Set<Role> convertToEntityAttribute ( final Integer mask ) {
+        return Role.fromMask( mask == null ? 0 : mask );
+    }
+
+}
@@ -4,15 +4,20 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.services.security.HttpRequestCounter;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
- * Interceptor to log HTTP requests to the API endpoint
+ * Interceptor to log HTTP requests to the API endpoint. By default requests
+ * are not logged individually; they are counted per endpoint by the
+ * HttpRequestCounter, which writes one summary entry per minute.
  *
  * @author Kai Presler-Marshall
  *
@@ -22,7 +27,15 @@ public class AuditLogInterceptor extends HandlerInterceptorAdapter {
 
     /** LoggerUtil instance for logging events to the database */
     @Autowired
-    private LoggerUtil loggerUtil;
+    private LoggerUtil         loggerUtil;
+
+    /** Counter that requests are aggregated into */
+    @Autowired
+    private HttpRequestCounter counter;
+
+    /** Whether requests are aggregated, or each one is logged separately */
+    @Value ( "${itrust2.audit.http.aggregate:true}" )
+    private boolean            aggregate;
 
     @Override
     public boolean preHandle ( final HttpServletRequest request, final HttpServletResponse response,
@@ -39,6 +52,12 @@ public class AuditLogInterceptor extends HandlerInterceptorAdapter {
     public void postHandle ( final HttpServletRequest request, final HttpServletResponse response, final Object handler,
             final ModelAndView modelAndView ) throws Exception {
 
+        if ( aggregate ) {
+            final Object pattern = request.getAttribute( HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE );
+            counter.count( request.getRemoteUser() + ":" + request.getRemoteAddr(), request.getMethod(),
+                    null != pattern ? pattern.toString() : request.getRequestURI(), response.getStatus() );
+            return;
+        }
         loggerUtil.log( TransactionType.HTTP_REQUEST, request.getRemoteUser() + ":" + request.getRemoteAddr(),
                 "Request " + request.getMethod() + " " + request.getRequestURI() + ", response code: "
                         + response.getStatus() );
@@ -0,0 +1,144 @@
+package edu.ncsu.csc.iTrust2.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * BCrypt PasswordEncoder that hashes on a small, dedicated pool of threads
+ * rather than on the calling (servlet) thread. When many users log in at once,
+ * the checks queue up on this pool instead of occupying every servlet thread,
+ * so the rest of the application stays responsive.
+ *
+ * The pool's queue is bounded, and a caller only waits so long for its check;
+ * if the queue is full or the wait runs out, the login fails with an
+ * AuthenticationServiceException (rather than as a wrong password). Time spent
+ * waiting in the queue is published as a metric.
+ *
+ * upgradeEncoding() reports hashes made with a lower cost than the configured
+ * one, so that they are rehashed when their owner next logs in.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    /** Does the actual hashing */
+    private final BCryptPasswordEncoder delegate;
+
+    /** Pool that hashing runs on */
+    private final ThreadPoolExecutor    executor;
+
+    /** How long a caller waits for its hash, in ms */
+    private final long                  timeoutMs;
+
+    /** Time each check spends waiting for a thread */
+    private final Timer                 queueWait;
+
+    /**
+     * Creates a BoundedPasswordEncoder
+     *
+     * @param strength
+     *            BCrypt cost (log rounds) of new hashes
+     * @param threads
+     *            Number of threads that hash
+     * @param queueCapacity
+     *            Number of checks that can wait for a thread
+     * @param timeoutMs
+     *            How long a caller waits for its check, in ms
+     * @param meterRegistry
+     *            Registry that the metrics are published to
+     */
+    public BoundedPasswordEncoder ( final int strength, final int threads, final int queueCapacity,
+            final long timeoutMs, final MeterRegistry meterRegistry ) {
+        this.delegate = new BCryptPasswordEncoder( strength );
+        this.timeoutMs = timeoutMs;
+
+        final AtomicInteger count = new AtomicInteger();
+        final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<Runnable>( queueCapacity );
+        this.executor = new ThreadPoolExecutor( threads, threads, 0, TimeUnit.MILLISECONDS, queue, r -> {
+            final Thread thread = new Thread( r, "password-hash-" + count.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+
+        this.queueWait = Timer.builder( "itrust2.password.queue.wait" )
+                .description( "Time password checks spend waiting for a thread" ).register( meterRegistry );
+        meterRegistry.gauge( "itrust2.password.queue.depth", queue, BlockingQueue::size );
+    }
+
+    @Override
+    public String encode ( final CharSequence rawPassword ) {
+        return run( () -> delegate.encode( rawPassword ) );
+    }
+
+    @Override
+    public boolean matches ( final CharSequence rawPassword, final String encodedPassword ) {
+        return run( () -> delegate.matches( rawPassword, encodedPassword ) );
+    }
+
+    @Override
+    public boolean upgradeEncoding ( final String encodedPassword ) {
+        return delegate.upgradeEncoding( encodedPassword );
+    }
+
+    /**
+     * Runs some hashing on the pool and waits for the result
+     *
+     * @param <T>
+     *            Type of the result
+     * @param work
+     *            The hashing to do
+     * @return Its result
+     */
+    private <T> T run ( final Callable<T> work ) {
+        final long queued = System.nanoTime();
+        final Future<T> future;
+        try {
+            future = executor.submit( () -> {
+                queueWait.record( System.nanoTime() - queued, TimeUnit.NANOSECONDS );
+                return work.call();
+            } );
+        }
+        catch ( final RejectedExecutionException e ) {
+            throw new AuthenticationServiceException( "Too many password checks waiting", e );
+        }
+
+        try {
+            return future.get( timeoutMs, TimeUnit.MILLISECONDS );
+        }
+        catch ( final TimeoutException e ) {
+            future.cancel( true );
+            throw new AuthenticationServiceException( "Timed out waiting for password check", e );
+        }
+        catch ( final InterruptedException e ) {
+            future.cancel( true );
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException( "Interrupted waiting for password check", e );
+        }
+        catch ( final ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AuthenticationServiceException( "Password check failed", e.getCause() );
+        }
+    }
+
+    @Override
+    public void destroy () {
+        executor.shutdownNow();
+    }
+
+}
@@ -16,11 +16,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
-import edu.ncsu.csc.iTrust2.models.security.LoginAttempt;
 import edu.ncsu.csc.iTrust2.models.security.LoginBan;
 import edu.ncsu.csc.iTrust2.models.security.LoginLockout;
 import edu.ncsu.csc.iTrust2.services.UserService;
-import edu.ncsu.csc.iTrust2.services.security.LoginAttemptService;
+import edu.ncsu.csc.iTrust2.services.security.IPDecisionCache;
+import edu.ncsu.csc.iTrust2.services.security.LoginAttemptCounter;
 import edu.ncsu.csc.iTrust2.services.security.LoginBanService;
 import edu.ncsu.csc.iTrust2.services.security.LoginLockoutService;
 import edu.ncsu.csc.iTrust2.utils.EmailUtil;
@@ -56,14 +56,18 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
     @Autowired
     private LoginLockoutService loginLockoutService;
 
-    /** LoginAttempt service */
+    /** Counts recent failed logins */
     @Autowired
-    private LoginAttemptService loginAttemptService;
+    private LoginAttemptCounter loginAttempts;
 
     /** UserService */
     @Autowired
     private UserService<User>   userService;
 
+    /** Cache of IP ban and lockout decisions, used by the IPFilter */
+    @Autowired
+    private IPDecisionCache     ipDecisions;
+
     @Override
     public void onAuthenticationFailure ( final HttpServletRequest request, final HttpServletResponse response,
             final AuthenticationException ae ) throws IOException, ServletException {
@@ -74,17 +78,15 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
          */
         final String username = request
                 .getParameter( UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY );
-        User user = null;
         final String addr = request.getRemoteAddr();
 
-        if ( username != null ) {
-            user = userService.findByName( username );
-        }
+        // Looked up once, and used by every branch below
+        final User user = null != username ? userService.findByName( username ) : null;
 
         if ( ae instanceof BadCredentialsException ) {
             // need to lockout IP
-            if ( loginAttemptService.countByIP( addr ) >= 5 ) {
-                loginAttemptService.clearIP( addr );
+            if ( loginAttempts.countByIP( addr ) >= 5 ) {
+                loginAttempts.clearIP( addr );
                 // Check if need to ban IP
                 if ( loginLockoutService.getRecentIPLockouts( addr ) >= 2 ) {
                     // BAN
@@ -94,6 +96,7 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
                     loginBanService.save( ban );
 
                     loginLockoutService.clearIP( addr );
+                    ipDecisions.banned( addr );
                     loggerUtil.log( TransactionType.IP_BANNED, addr, null, addr + " has been banned." );
                     this.getRedirectStrategy().sendRedirect( request, response, "/login?ipbanned" );
                 }
@@ -103,30 +106,24 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
                     lockout.setIp( addr );
                     lockout.setTime( ZonedDateTime.now() );
                     loginLockoutService.save( lockout );
+                    ipDecisions.locked( addr, lockout.getTime().plusSeconds( LoginLockoutService.LOCKOUT_SECONDS ) );
                     loggerUtil.log( TransactionType.IP_LOCKOUT, addr, null, addr + " has been locked out for 1 hour." );
                     this.getRedirectStrategy().sendRedirect( request, response, "/login?iplocked" );
 
-                    sendEmail( username );
+                    sendEmail( user );
                 }
                 return;
             }
             else {
                 // fail for IP
-                final LoginAttempt attempt = new LoginAttempt();
-                attempt.setTime( ZonedDateTime.now() );
-                attempt.setIp( addr );
-                loginAttemptService.save( attempt );
-            }
-
-            // check username
-            if ( username != null ) {
-                user = userService.findByName( username );
+                loginAttempts.recordIP( addr );
             }
 
+            // check username (already looked up above)
             if ( user != null ) {
                 // check if need to lockout username
-                if ( loginAttemptService.countByUser( user ) >= 2 ) {
-                    loginAttemptService.clearUser( user );
+                if ( loginAttempts.countByUser( user.getUsername() ) >= 2 ) {
+                    ipDecisions.userLocked( user.getUsername() );
                     // check if need to ban user
                     if ( loginLockoutService.getRecentUserLockouts( user ) >= 2 ) {
                         loginLockoutService.clearUser( user );
@@ -137,7 +134,7 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
                         loggerUtil.log( TransactionType.USER_BANNED, username, null, username + " has been banned." );
                         this.getRedirectStrategy().sendRedirect( request, response, "/login?banned" );
 
-                        sendEmail( username );
+                        sendEmail( user );
 
                     }
                     else {
@@ -150,24 +147,18 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
                                 username + " has been locked out for 1 hour." );
                         this.getRedirectStrategy().sendRedirect( request, response, "/login?locked" );
 
-                        sendEmail( username );
+                        sendEmail( user );
                     }
                     return;
                 }
                 else {
                     // fail for username
-                    final LoginAttempt attempt = new LoginAttempt();
-                    attempt.setTime( ZonedDateTime.now() );
-                    attempt.setUser( user );
-                    loginAttemptService.save( attempt );
+                    loginAttempts.recordUser( user.getUsername() );
                 }
             }
 
         }
         else if ( ae instanceof DisabledException ) {
-            if ( username != null ) {
-                user = userService.findByName( username );
-            }
             if ( user != null ) {
                 // redirect to user lockout or user ban
                 if ( loginBanService.isUserBanned( user ) ) {
@@ -187,12 +178,11 @@ public class FailureHandler extends SimpleUrlAuthenticationFailureHandler {
         this.getRedirectStrategy().sendRedirect( request, response, "/login?error" );
     }
 
-    private void sendEmail ( final String username ) {
-        final User user = userService.findByName( username );
+    private void sendEmail ( final User user ) {
         if ( null != user ) {
             emailUtil.sendEmail( user, "iTrust2: Your account has beeen locked out",
                     "Your iTrust2 account has been locked out due to too many failed log in attempts." );
-            loggerUtil.log( TransactionType.CREATE_LOCKOUT_EMAIL, username );
+            loggerUtil.log( TransactionType.CREATE_LOCKOUT_EMAIL, user.getUsername() );
 
         }
         else {
@@ -11,12 +11,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
-import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
-import edu.ncsu.csc.iTrust2.services.UserService;
-import edu.ncsu.csc.iTrust2.services.security.LoginAttemptService;
-import edu.ncsu.csc.iTrust2.services.security.LoginBanService;
-import edu.ncsu.csc.iTrust2.services.security.LoginLockoutService;
+import edu.ncsu.csc.iTrust2.services.security.IPDecisionCache;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -31,23 +27,11 @@ public class LoginAuditingListener implements ApplicationListener<ApplicationEve
 
     /** LoggerUtil */
     @Autowired
-    private LoggerUtil          util;
+    private LoggerUtil      util;
 
-    /** LoginAttempt service */
+    /** Cache of IP ban and lockout decisions, which also clears failed logins */
     @Autowired
-    private LoginAttemptService loginAttemptService;
-
-    /** LoginBan service */
-    @Autowired
-    private LoginBanService     loginBanService;
-
-    /** User service */
-    @Autowired
-    private UserService<User>   userService;
-
-    /** LoginLockout service */
-    @Autowired
-    private LoginLockoutService loginLockoutService;
+    private IPDecisionCache ipDecisions;
 
     @Override
     public void onApplicationEvent ( final ApplicationEvent event ) {
@@ -64,9 +48,9 @@ public class LoginAuditingListener implements ApplicationListener<ApplicationEve
             // invalidates the credentials if they happen to be correct (and
             // bypassed the lockout page via a direct API call).
             final String addr = det.getRemoteAddress();
-            if ( !loginLockoutService.isIPLocked( addr ) && !loginBanService.isIPBanned( addr ) ) {
-                loginAttemptService.clearIP( addr );
-                loginAttemptService.clearUser( userService.findByName( details.getUsername() ) );
+            if ( !ipDecisions.isIPLocked( addr ) && !ipDecisions.isIPBanned( addr ) ) {
+                ipDecisions.cleared( addr );
+                ipDecisions.userCleared( details.getUsername() );
                 util.log( TransactionType.LOGIN_SUCCESS, details.getUsername() );
             }
 
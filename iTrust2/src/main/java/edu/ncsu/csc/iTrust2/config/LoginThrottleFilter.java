@@ -0,0 +1,208 @@
+package edu.ncsu.csc.iTrust2.config;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Throttles login attempts before they reach the username/password filter, so
+ * that a flood of attempts is turned away before any password is hashed or
+ * any user is looked up. Each remote address, and each username that logins
+ * are attempted for, has a token bucket; an attempt takes a token from both,
+ * and is rejected with a 429 if either is empty.
+ *
+ * Buckets are kept as a single AtomicLong each (the time at which the bucket
+ * will next be full, as in the generic cell rate algorithm), so taking a token
+ * never blocks.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    /**
+     * A set of token buckets, one per key
+     */
+    private static final class Buckets {
+
+        /** Time taken to earn back one token, in ns */
+        private final long                              interval;
+
+        /** How far ahead of now a bucket can be drawn down, in ns */
+        private final long                              tolerance;
+
+        /**
+         * For each key, the time (System.nanoTime()) at which its bucket will
+         * be full again. A bucket that is earlier than now is full.
+         */
+        private final ConcurrentMap<String, AtomicLong> full = new ConcurrentHashMap<String, AtomicLong>();
+
+        /**
+         * Creates a set of buckets
+         *
+         * @param perMinute
+         *            Rate at which tokens are earned back
+         * @param burst
+         *            Number of tokens in a full bucket
+         */
+        private Buckets ( final double perMinute, final int burst ) {
+            this.interval = (long) ( TimeUnit.MINUTES.toNanos( 1 ) / perMinute );
+            this.tolerance = interval * burst;
+        }
+
+        /**
+         * Takes a token from a key's bucket, if it has one
+         *
+         * @param key
+         *            The key
+         * @return true if a token was taken; false if the bucket is empty
+         */
+        private boolean take ( final String key ) {
+            final AtomicLong bucket = full.computeIfAbsent( key, k -> new AtomicLong( System.nanoTime() ) );
+            while ( true ) {
+                final long now = System.nanoTime();
+                final long current = bucket.get();
+                final long from = current - now < 0 ? now : current;
+                final long next = from + interval;
+                if ( next - now > tolerance ) {
+                    return false;
+                }
+                if ( bucket.compareAndSet( current, next ) ) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Drops the buckets that are full, as they're no different to a bucket
+         * that doesn't exist yet
+         */
+        private void sweep () {
+            final long now = System.nanoTime();
+            full.values().removeIf( bucket -> bucket.get() - now < 0 );
+        }
+    }
+
+    /** Registry that admitted and rejected attempts are counted in */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Whether login attempts are throttled at all */
+    @Value ( "${itrust2.login-throttle.enabled:true}" )
+    private boolean       enabled;
+
+    /** Rate at which each address earns back attempts, per minute */
+    @Value ( "${itrust2.login-throttle.ip.per-minute:60}" )
+    private double        ipPerMinute;
+
+    /** Number of attempts an address can make at once */
+    @Value ( "${itrust2.login-throttle.ip.burst:30}" )
+    private int           ipBurst;
+
+    /** Rate at which each username earns back attempts, per minute */
+    @Value ( "${itrust2.login-throttle.user.per-minute:10}" )
+    private double        userPerMinute;
+
+    /** Number of attempts that can be made at once for one username */
+    @Value ( "${itrust2.login-throttle.user.burst:10}" )
+    private int           userBurst;
+
+    /** Buckets by remote address */
+    private Buckets       byIP;
+
+    /** Buckets by username */
+    private Buckets       byUser;
+
+    /** Attempts let through */
+    private Counter       admitted;
+
+    /** Attempts turned away because their address was over the limit */
+    private Counter       rejectedByIP;
+
+    /** Attempts turned away because their username was over the limit */
+    private Counter       rejectedByUser;
+
+    @Override
+    protected void initFilterBean () {
+        byIP = new Buckets( ipPerMinute, ipBurst );
+        byUser = new Buckets( userPerMinute, userBurst );
+        admitted = Counter.builder( "itrust2.login.throttle" ).tag( "outcome", "admitted" )
+                .description( "Login attempts checked by the throttle" ).register( meterRegistry );
+        rejectedByIP = Counter.builder( "itrust2.login.throttle" ).tag( "outcome", "rejected-ip" )
+                .description( "Login attempts checked by the throttle" ).register( meterRegistry );
+        rejectedByUser = Counter.builder( "itrust2.login.throttle" ).tag( "outcome", "rejected-user" )
+                .description( "Login attempts checked by the throttle" ).register( meterRegistry );
+    }
+
+    /**
+     * Only login attempts (POSTs to /login) are throttled
+     */
+    @Override
+    protected boolean shouldNotFilter ( final HttpServletRequest request ) {
+        final String relative = request.getRequestURI().substring( request.getContextPath().length() );
+        return !enabled || !"POST".equals( request.getMethod() ) || !relative.equals( "/login" );
+    }
+
+    @Override
+    protected void doFilterInternal ( final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain chain ) throws ServletException, IOException {
+        if ( !byIP.take( request.getRemoteAddr() ) ) {
+            rejectedByIP.increment();
+            reject( response, byIP );
+            return;
+        }
+        final String username = request
+                .getParameter( UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY );
+        if ( null != username && !byUser.take( username ) ) {
+            rejectedByUser.increment();
+            reject( response, byUser );
+            return;
+        }
+        admitted.increment();
+        chain.doFilter( request, response );
+    }
+
+    /**
+     * Forgets buckets that have filled back up, so that addresses and users
+     * that have stopped trying don't take up space
+     */
+    @Scheduled ( fixedDelayString = "${itrust2.login-throttle.sweep-interval-ms:60000}" )
+    public void sweep () {
+        if ( null != byIP ) {
+            byIP.sweep();
+            byUser.sweep();
+        }
+    }
+
+    /**
+     * Turns away a login attempt
+     *
+     * @param response
+     *            Response to the attempt
+     * @param buckets
+     *            The buckets that were empty, which decide when to try again
+     * @throws IOException
+     *             If the response can't be sent
+     */
+    private static void reject ( final HttpServletResponse response, final Buckets buckets ) throws IOException {
+        response.setHeader( HttpHeaders.RETRY_AFTER,
+                String.valueOf( Math.max( 1, TimeUnit.NANOSECONDS.toSeconds( buckets.interval ) ) ) );
+        response.sendError( HttpStatus.TOO_MANY_REQUESTS.value(), "Too many login attempts" );
+    }
+
+}
@@ -0,0 +1,41 @@
+package edu.ncsu.csc.iTrust2.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.web.PageableHandlerMethodArgumentResolverCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Configures how list endpoints that take a Pageable read it from the `page`,
+ * `size` and `sort` request parameters. A request without them gets the first
+ * page at the default size, and a request for a page bigger than the maximum
+ * size gets one of the maximum size, so no request can make an endpoint return
+ * a whole table. The UI follows the X-Has-Next header through every page of
+ * the lists it shows in full.
+ */
+@Configuration
+public class PagingConfiguration {
+
+    /** Number of records in a page when the request doesn't say */
+    @Value ( "${itrust2.paging.default-size:100}" )
+    private int defaultSize;
+
+    /** Most records in any page */
+    @Value ( "${itrust2.paging.max-size:1000}" )
+    private int maxSize;
+
+    /**
+     * Applies the default and maximum page sizes to the Pageable resolver
+     *
+     * @return The customizer
+     */
+    @Bean
+    public PageableHandlerMethodArgumentResolverCustomizer listPageableCustomizer () {
+        return resolver -> {
+            resolver.setMaxPageSize( maxSize );
+            resolver.setFallbackPageable( PageRequest.of( 0, Math.min( defaultSize, maxSize ) ) );
+        };
+    }
+
+}
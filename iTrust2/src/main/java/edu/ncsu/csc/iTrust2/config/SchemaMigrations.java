@@ -0,0 +1,320 @@
+package edu.ncsu.csc.iTrust2.config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.RootClass;
+import org.hibernate.mapping.SimpleValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+
+/**
+ * Brings an existing database up to date with changes to the schema that
+ * Hibernate can't make on its own without losing data. The
+ * SchemaValidateIntegrator runs these before it validates the schema, as a
+ * database it finds invalid is dropped and recreated.
+ *
+ * Every migration checks whether it is needed first, so they are all safe to
+ * run on every startup, and against a new (empty) database.
+ */
+public class SchemaMigrations {
+
+    /** Logger, to report on the migrations that are run */
+    private static final Logger LOG = LoggerFactory.getLogger( SchemaMigrations.class );
+
+    /** Connection to the database being migrated */
+    private final Connection    conn;
+
+    /** Mapping of the entities, as the database is about to be validated */
+    private final Metadata      metadata;
+
+    /**
+     * Creates a SchemaMigrations for a database
+     *
+     * @param conn
+     *            Connection to the database
+     * @param metadata
+     *            Mapping of the entities
+     */
+    public SchemaMigrations ( final Connection conn, final Metadata metadata ) {
+        this.conn = conn;
+        this.metadata = metadata;
+    }
+
+    /**
+     * Runs every migration that the database needs
+     *
+     * @throws SQLException
+     *             If a migration fails
+     */
+    public void migrate () throws SQLException {
+        migrateRoleMask();
+        migrateArchiveTables();
+        migratePooledIds();
+        migrateSecurityEvents();
+    }
+
+    /**
+     * User roles used to be kept in a `user_roles` table, with a row per user
+     * and role. They are now a bitmask in `user.role_mask`; this adds that
+     * column and fills it in from `user_roles`. Once every row of `user_roles`
+     * is checked to be in the bitmask, the table is dropped. Nothing maps it
+     * any more, so its foreign key to `user` would otherwise stop any migrated
+     * user from being deleted; if the check fails (or the column was added by
+     * an earlier run), only the foreign keys are dropped and the rows are kept
+     * to be looked at.
+     *
+     * Public so that it can be tested on its own, as it needs no Metadata.
+     *
+     * @throws SQLException
+     *             If the migration fails
+     */
+    public void migrateRoleMask () throws SQLException {
+        if ( !hasTable( "user" ) ) {
+            return;
+        }
+        final boolean migrating = !hasColumn( "user", "role_mask" );
+        if ( !migrating && !hasTable( "user_roles" ) ) {
+            return;
+        }
+        final StringBuilder bits = new StringBuilder( "CASE r.roles" );
+        for ( final Role role : Role.values() ) {
+            bits.append( " WHEN '" ).append( role.name() ).append( "' THEN " ).append( role.getMask() );
+        }
+        bits.append( " ELSE 0 END" );
+
+        try ( Statement st = conn.createStatement() ) {
+            if ( migrating ) {
+                LOG.info( "Migrating user roles to user.role_mask" );
+                st.executeUpdate( "ALTER TABLE user ADD COLUMN role_mask INT NOT NULL DEFAULT 0" );
+            }
+            if ( !hasTable( "user_roles" ) ) {
+                return;
+            }
+            if ( migrating ) {
+                final int migrated = st.executeUpdate( "UPDATE user u SET u.role_mask = (SELECT COALESCE(BIT_OR("
+                        + bits + "), 0) FROM user_roles r WHERE r.user_username = u.username)" );
+                LOG.info( "Migrated roles of " + migrated + " users" );
+
+                // Any role that didn't make it into its user's bitmask
+                final long missed;
+                try ( ResultSet rs = st.executeQuery( "SELECT COUNT(*) FROM user_roles r JOIN user u "
+                        + "ON u.username = r.user_username WHERE u.role_mask & (" + bits + ") = 0" ) ) {
+                    rs.next();
+                    missed = rs.getLong( 1 );
+                }
+                if ( 0 == missed ) {
+                    st.executeUpdate( "DROP TABLE user_roles" );
+                    LOG.info( "Dropped user_roles" );
+                    return;
+                }
+                LOG.warn( missed + " rows of user_roles are not in user.role_mask; keeping them" );
+            }
+            for ( final String fk : foreignKeys( "user_roles" ) ) {
+                st.executeUpdate( "ALTER TABLE user_roles DROP FOREIGN KEY " + fk );
+                LOG.info( "Dropped foreign key " + fk + " of user_roles" );
+            }
+        }
+    }
+
+    /**
+     * The audit log's archive (ArchivedLogEntry) and the leases on scheduled
+     * jobs (JobLock) are kept in tables of their own. This creates them, with
+     * their indexes, on a database from before they were added; otherwise the
+     * schema would fail validation, and the whole database would be dropped.
+     *
+     * @throws SQLException
+     *             If the migration fails
+     */
+    private void migrateArchiveTables () throws SQLException {
+        createTable( "archived_log_entry", "id BIGINT NOT NULL, log_code INTEGER NOT NULL, "
+                + "primary_user VARCHAR(255) NOT NULL, time DATETIME NOT NULL, secondary_user VARCHAR(255), "
+                + "message VARCHAR(255), PRIMARY KEY (id), "
+                + "INDEX idx_archived_log_entry_primary_user_time (primary_user, time), "
+                + "INDEX idx_archived_log_entry_secondary_user_time (secondary_user, time), "
+                + "INDEX idx_archived_log_entry_time (time)" );
+        createTable( "job_lock",
+                "name VARCHAR(255) NOT NULL, owner VARCHAR(255), locked_until DATETIME, PRIMARY KEY (name)" );
+    }
+
+    /**
+     * IDs used to come from the one `hibernate_sequence` row that every entity
+     * shared. They now come from a row per entity in the PooledIdGenerator's
+     * table; this creates that table, and a row for each entity that already
+     * has data. Each row starts after the entity's largest ID, and after
+     * anything `hibernate_sequence` has handed out, so no ID is ever reused.
+     * Entities without a row get one from the generator when first saved.
+     *
+     * @throws SQLException
+     *             If the migration fails
+     */
+    private void migratePooledIds () throws SQLException {
+        final String idTable = PooledIdGenerator.TABLE_NAME;
+        try ( Statement st = conn.createStatement() ) {
+            if ( !hasTable( idTable ) ) {
+                LOG.info( "Creating " + idTable );
+                st.executeUpdate( "CREATE TABLE " + idTable
+                        + " (sequence_name VARCHAR(255) NOT NULL, next_val BIGINT, PRIMARY KEY (sequence_name))" );
+            }
+
+            long floor = 1;
+            if ( hasTable( "hibernate_sequence" ) ) {
+                try ( ResultSet rs = st.executeQuery( "SELECT MAX(next_val) FROM hibernate_sequence" ) ) {
+                    if ( rs.next() ) {
+                        floor = Math.max( floor, rs.getLong( 1 ) );
+                    }
+                }
+            }
+
+            for ( final PersistentClass entity : metadata.getEntityBindings() ) {
+                if ( ! ( entity instanceof RootClass ) || ! ( entity.getIdentifier() instanceof SimpleValue )
+                        || !PooledIdGenerator.STRATEGY.equals(
+                                ( (SimpleValue) entity.getIdentifier() ).getIdentifierGeneratorStrategy() ) ) {
+                    continue;
+                }
+                final String table = entity.getTable().getName();
+                if ( !hasTable( table ) || hasIdRow( table ) ) {
+                    continue;
+                }
+                final String id = ( (Column) entity.getIdentifier().getColumnIterator().next() ).getName();
+                try ( PreparedStatement ps = conn.prepareStatement( "INSERT INTO " + idTable
+                        + " (sequence_name, next_val) SELECT ?, GREATEST(COALESCE(MAX(" + id + "), 0) + 1, ?) FROM "
+                        + table ) ) {
+                    ps.setString( 1, table );
+                    ps.setLong( 2, floor );
+                    ps.executeUpdate();
+                }
+                LOG.info( "Seeded IDs of " + table );
+            }
+        }
+    }
+
+    /**
+     * SecurityEvents are kept in a table of their own. This creates it, with
+     * its index, on a database from before it was added. They used to only
+     * record changes to IP addresses; they now record changes to users too, in
+     * `security_event.username`, so on a database from before that, this adds
+     * the column, which is empty for the existing events.
+     *
+     * @throws SQLException
+     *             If the migration fails
+     */
+    private void migrateSecurityEvents () throws SQLException {
+        createTable( "security_event", "id BIGINT NOT NULL, type VARCHAR(255), ip VARCHAR(255), "
+                + "username VARCHAR(255), locked_until DATETIME, time DATETIME, PRIMARY KEY (id), "
+                + "INDEX idx_security_event_time (time)" );
+        if ( hasColumn( "security_event", "username" ) ) {
+            return;
+        }
+        LOG.info( "Adding security_event.username" );
+        try ( Statement st = conn.createStatement() ) {
+            st.executeUpdate( "ALTER TABLE security_event ADD COLUMN username VARCHAR(255)" );
+        }
+    }
+
+    /**
+     * Creates a table, unless it already exists
+     *
+     * @param table
+     *            Name of the table
+     * @param definition
+     *            Its columns, keys and indexes
+     * @throws SQLException
+     *             If the table can't be created
+     */
+    private void createTable ( final String table, final String definition ) throws SQLException {
+        if ( hasTable( table ) ) {
+            return;
+        }
+        LOG.info( "Creating " + table );
+        try ( Statement st = conn.createStatement() ) {
+            st.executeUpdate( "CREATE TABLE IF NOT EXISTS " + table + " (" + definition + ")" );
+        }
+    }
+
+    /**
+     * Checks whether the PooledIdGenerator's table has a row for a table
+     *
+     * @param table
+     *            Name of the table
+     * @return Whether there is a row
+     * @throws SQLException
+     *             If the database can't be checked
+     */
+    private boolean hasIdRow ( final String table ) throws SQLException {
+        try ( PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM " + PooledIdGenerator.TABLE_NAME + " WHERE sequence_name = ?" ) ) {
+            ps.setString( 1, table );
+            try ( ResultSet rs = ps.executeQuery() ) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Finds the names of a table's foreign keys
+     *
+     * @param table
+     *            Name of the table
+     * @return Names of its foreign keys
+     * @throws SQLException
+     *             If the database can't be checked
+     */
+    private Set<String> foreignKeys ( final String table ) throws SQLException {
+        final Set<String> names = new LinkedHashSet<String>();
+        final DatabaseMetaData metaData = conn.getMetaData();
+        try ( ResultSet keys = metaData.getImportedKeys( conn.getCatalog(), null, table ) ) {
+            while ( keys.next() ) {
+                names.add( keys.getString( "FK_NAME" ) );
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Checks whether a table exists
+     *
+     * @param table
+     *            Name of the table
+     * @return Whether the table exists
+     * @throws SQLException
+     *             If the database can't be checked
+     */
+    private boolean hasTable ( final String table ) throws SQLException {
+        final DatabaseMetaData metaData = conn.getMetaData();
+        try ( ResultSet tables = metaData.getTables( conn.getCatalog(), null, table, new String[] { "TABLE" } ) ) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Checks whether a table has a column
+     *
+     * @param table
+     *            Name of the table
+     * @param column
+     *            Name of the column
+     * @return Whether the column exists
+     * @throws SQLException
+     *             If the database can't be checked
+     */
+    private boolean hasColumn ( final String table, final String column ) throws SQLException {
+        final DatabaseMetaData metaData = conn.getMetaData();
+        try ( ResultSet columns = metaData.getColumns( conn.getCatalog(), null, table, column ) ) {
+            return columns.next();
+        }
+    }
+
+}
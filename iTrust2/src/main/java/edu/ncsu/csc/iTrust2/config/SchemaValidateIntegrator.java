@@ -1,9 +1,12 @@
 package edu.ncsu.csc.iTrust2.config;
 
+import java.sql.Connection;
 import java.util.EnumSet;
 import java.util.List;
 
 import org.hibernate.boot.Metadata;
+import org.hibernate.engine.jdbc.connections.spi.JdbcConnectionAccess;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.integrator.spi.Integrator;
 import org.hibernate.jpa.boot.spi.IntegratorProvider;
@@ -17,7 +20,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Class that validates the validity of the schema, and drops/recreates if it
- * has found any issue.
+ * has found any issue. Any SchemaMigrations are run first, so that changes
+ * they know how to make don't cost the existing data.
  * 
  * @author bvolpat
  */
@@ -25,7 +29,13 @@ import org.springframework.stereotype.Component;
 public class SchemaValidateIntegrator implements Integrator, IntegratorProvider {
 
     /** Logger, to print status messages to the console on validation */
-    private static final Logger LOG = LoggerFactory.getLogger( SchemaValidateIntegrator.class );
+    private static final Logger  LOG = LoggerFactory.getLogger( SchemaValidateIntegrator.class );
+
+    /** Mapping of the entities, kept from startup */
+    private Metadata             metadata;
+
+    /** Access to the database, kept from startup */
+    private JdbcConnectionAccess access;
 
     @Override
     public List<Integrator> getIntegrators () {
@@ -35,6 +45,29 @@ public class SchemaValidateIntegrator implements Integrator, IntegratorProvider
     @Override
     public void integrate ( final Metadata metadata, final SessionFactoryImplementor sessionFactory,
             final SessionFactoryServiceRegistry serviceRegistry ) {
+        this.metadata = metadata;
+        this.access = serviceRegistry.getService( JdbcServices.class ).getBootstrapJdbcConnectionAccess();
+        migrateAndValidate();
+    }
+
+    /**
+     * Runs the SchemaMigrations and then validates the schema, dropping and
+     * recreating the database if it is still invalid. Run on startup; public
+     * so that tests can run it again against an older schema.
+     */
+    public void migrateAndValidate () {
+        try {
+            final Connection conn = access.obtainConnection();
+            try {
+                new SchemaMigrations( conn, metadata ).migrate();
+            }
+            finally {
+                access.releaseConnection( conn );
+            }
+        }
+        catch ( final Exception e ) {
+            LOG.error( "Could not migrate schema", e );
+        }
 
         try {
             LOG.info( "Validating schema..." );
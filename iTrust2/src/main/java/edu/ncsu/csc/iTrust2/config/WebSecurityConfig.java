@@ -1,25 +1,28 @@
 package edu.ncsu.csc.iTrust2.config;
 
 import javax.servlet.Filter;
-import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.config.annotation.authentication.configurers.provisioning.JdbcUserDetailsManagerConfigurer;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.access.channel.ChannelProcessingFilter;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
+import edu.ncsu.csc.iTrust2.services.security.LoginUserDetailsService;
+import edu.ncsu.csc.iTrust2.services.security.PasswordUpgradeService;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Configures Spring security. Tells Spring how to find users in the system,
  * which API routes (don't) require authentication, and configures a few other
@@ -34,10 +37,47 @@ import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
     /**
-     * DataSource used for connecting to and interacting with the database.
+     * Looks up the users that log in, and their roles
+     */
+    @Autowired
+    LoginUserDetailsService loginUserDetailsService;
+
+    /**
+     * Saves passwords that are rehashed on login
+     */
+    @Autowired
+    PasswordUpgradeService  passwordUpgradeService;
+
+    /**
+     * Registry that the password encoder's metrics are published to
      */
     @Autowired
-    DataSource dataSource;
+    MeterRegistry           meterRegistry;
+
+    /**
+     * BCrypt cost (log rounds) of new password hashes. Existing hashes with a
+     * lower cost are rehashed when their owner next logs in.
+     */
+    @Value ( "${itrust2.password.strength:10}" )
+    int                     passwordStrength;
+
+    /**
+     * Number of threads that check passwords
+     */
+    @Value ( "${itrust2.password.threads:4}" )
+    int                     passwordThreads;
+
+    /**
+     * Number of password checks that can wait for a thread
+     */
+    @Value ( "${itrust2.password.queue-capacity:200}" )
+    int                     passwordQueueCapacity;
+
+    /**
+     * How long a login waits for its password check, in ms
+     */
+    @Value ( "${itrust2.password.timeout-ms:10000}" )
+    long                    passwordTimeoutMs;
 
     /**
      * Login configuration for iTrust2.
@@ -50,18 +90,10 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
      */
     @Autowired
     public void configureGlobal ( final AuthenticationManagerBuilder auth ) throws Exception {
-        final JdbcUserDetailsManagerConfigurer<AuthenticationManagerBuilder> dbManager = auth.jdbcAuthentication();
-
-        // User query enabled flag also checks for locked or banned users. The
-        // FailureHandler then
-        // determines if the DisabledUser Exception was due to ban, lockout, or
-        // true disable.
-        // POSSIBLE FUTURE CHANGE: Refactor the UserSource here along the lines
-        // of this:
-        // http://websystique.com/springmvc/spring-mvc-4-and-spring-security-4-integration-example/
-        dbManager.dataSource( dataSource ).passwordEncoder( passwordEncoder() )
-                .usersByUsernameQuery( "select username,password,enabled from user WHERE username = ?;" )
-                .authoritiesByUsernameQuery( "select user_username, roles from user_roles where user_username=?" );
+        // The FailureHandler determines if a DisabledException was due to a
+        // ban, a lockout, or a true disable.
+        auth.userDetailsService( loginUserDetailsService ).passwordEncoder( passwordEncoder() )
+                .userDetailsPasswordManager( passwordUpgradeService );
         auth.authenticationEventPublisher( defaultAuthenticationEventPublisher() );
 
     }
@@ -84,6 +116,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
          * absolute first Filter.
          */
         http.addFilterBefore( ipBlockFilter(), ChannelProcessingFilter.class );
+        // Turn away floods of login attempts before any password is checked
+        http.addFilterBefore( loginThrottleFilter(), UsernamePasswordAuthenticationFilter.class );
 
         http.authorizeRequests().antMatchers( patterns ).anonymous().anyRequest().authenticated().and().formLogin()
                 .loginPage( "/login" ).failureHandler( failureHandler() ).defaultSuccessUrl( "/" ).and().csrf()
@@ -111,13 +145,15 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
     /**
      * Bean used to generate a PasswordEncoder to hash the user-provided
-     * password.
+     * password. Hashing runs on a bounded pool of its own rather than on the
+     * servlet thread.
      *
      * @return The password encoder.
      */
     @Bean
     public PasswordEncoder passwordEncoder () {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder( passwordStrength, passwordThreads, passwordQueueCapacity,
+                passwordTimeoutMs, meterRegistry );
     }
 
     /**
@@ -151,4 +187,14 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     public Filter ipBlockFilter () {
         return new IPFilter();
     }
+
+    /**
+     * Servlet Filter used to rate limit login attempts by IP and by username
+     *
+     * @return The login throttle Filter
+     */
+    @Bean
+    public Filter loginThrottleFilter () {
+        return new LoginThrottleFilter();
+    }
 }
@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,7 +25,7 @@ import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.models.enums.Status;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.services.AppointmentRequestService;
-import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -47,24 +50,29 @@ public class APIAppointmentRequestController extends APIController {
     @Autowired
     private LoggerUtil                loggerUtil;
 
-    /** User service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User>         userService;
+    private CurrentUserProvider       currentUser;
 
     /**
      * Retrieves a list of all AppointmentRequests in the database
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of appointment requests
      */
     @GetMapping ( BASE_PATH + "/appointmentrequests" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP')" )
-    public List<AppointmentRequest> getAppointmentRequests () {
-        final List<AppointmentRequest> requests = service.findAll();
+    public ResponseEntity<List<AppointmentRequest>> getAppointmentRequests (
+            @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id", "date" );
+        final Slice<AppointmentRequest> requests = service.findAll( pageable );
 
-        requests.stream().map( AppointmentRequest::getPatient ).distinct().forEach( e -> loggerUtil
-                .log( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(), e.getUsername() ) );
+        loggerUtil.logAll( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(),
+                requests.stream().map( AppointmentRequest::getPatient ).map( User::getUsername ).distinct()
+                        .collect( Collectors.toList() ) );
 
-        return requests;
+        return pageResponse( requests );
     }
 
     /**
@@ -76,7 +84,7 @@ public class APIAppointmentRequestController extends APIController {
     @GetMapping ( BASE_PATH + "/appointmentrequest" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
     public List<AppointmentRequest> getAppointmentRequestsForPatient () {
-        final User patient = userService.findByName( LoggerUtil.currentUser() );
+        final User patient = currentUser.get();
         return service.findByPatient( patient ).stream().filter( e -> e.getStatus().equals( Status.PENDING ) )
                 .collect( Collectors.toList() );
     }
@@ -90,7 +98,7 @@ public class APIAppointmentRequestController extends APIController {
     @GetMapping ( BASE_PATH + "/appointmentrequest/approved" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
     public List<AppointmentRequest> getApprovedAppointmentRequestsForPatient () {
-        final User patient = userService.findByName( LoggerUtil.currentUser() );
+        final User patient = currentUser.get();
         return service.findByPatient( patient ).stream().filter( e -> e.getStatus().equals( Status.APPROVED ) )
                 .collect( Collectors.toList() );
     }
@@ -104,7 +112,7 @@ public class APIAppointmentRequestController extends APIController {
     @PreAuthorize ( "hasAnyRole('ROLE_HCP')" )
     public List<AppointmentRequest> getAppointmentRequestsForHCP () {
 
-        final User hcp = userService.findByName( LoggerUtil.currentUser() );
+        final User hcp = currentUser.get();
 
         return service.findByHcp( hcp ).stream().filter( e -> e.getStatus().equals( Status.PENDING ) )
                 .collect( Collectors.toList() );
@@ -122,20 +130,15 @@ public class APIAppointmentRequestController extends APIController {
     @GetMapping ( BASE_PATH + "/appointmentrequests/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT')" )
     public ResponseEntity getAppointmentRequest ( @PathVariable ( "id" ) final Long id ) {
-        final AppointmentRequest request = service.findById( id );
-        if ( null != request ) {
-            loggerUtil.log( TransactionType.APPOINTMENT_REQUEST_VIEWED, request.getPatient(), request.getHcp() );
-
-            /* Patient can't look at anyone else's requests */
-            final User self = userService.findByName( LoggerUtil.currentUser() );
-            if ( self.getRoles().contains( Role.ROLE_PATIENT ) && !request.getPatient().equals( self ) ) {
-                return new ResponseEntity( HttpStatus.UNAUTHORIZED );
-            }
+        /* Patient can't look at anyone else's requests */
+        final AppointmentRequest request = service.findVisibleTo( id, currentUser.get() );
+        if ( null == request ) {
+            return service.existsById( id ) ? new ResponseEntity( HttpStatus.UNAUTHORIZED )
+                    : new ResponseEntity( errorResponse( "No AppointmentRequest found for id " + id ),
+                            HttpStatus.NOT_FOUND );
         }
-        return null == request
-                ? new ResponseEntity( errorResponse( "No AppointmentRequest found for id " + id ),
-                        HttpStatus.NOT_FOUND )
-                : new ResponseEntity( request, HttpStatus.OK );
+        loggerUtil.log( TransactionType.APPOINTMENT_REQUEST_VIEWED, request.getPatient(), request.getHcp() );
+        return new ResponseEntity( request, HttpStatus.OK );
     }
 
     /**
@@ -183,16 +186,12 @@ public class APIAppointmentRequestController extends APIController {
     @DeleteMapping ( BASE_PATH + "/appointmentrequests/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT')" )
     public ResponseEntity deleteAppointmentRequest ( @PathVariable final Long id ) {
-        final AppointmentRequest request = service.findById( id );
+        /* Patient can't delete anyone else's requests */
+        final AppointmentRequest request = service.findVisibleTo( id, currentUser.get() );
         if ( null == request ) {
-            return new ResponseEntity( errorResponse( "No AppointmentRequest found for id " + id ),
-                    HttpStatus.NOT_FOUND );
-        }
-
-        /* Patient can't look at anyone else's requests */
-        final User self = userService.findByName( LoggerUtil.currentUser() );
-        if ( self.getRoles().contains( Role.ROLE_PATIENT ) && !request.getPatient().equals( self ) ) {
-            return new ResponseEntity( HttpStatus.UNAUTHORIZED );
+            return service.existsById( id ) ? new ResponseEntity( HttpStatus.UNAUTHORIZED )
+                    : new ResponseEntity( errorResponse( "No AppointmentRequest found for id " + id ),
+                            HttpStatus.NOT_FOUND );
         }
         try {
             service.delete( request );
@@ -236,7 +235,7 @@ public class APIAppointmentRequestController extends APIController {
             }
 
             /* Patient can't look at anyone else's requests */
-            final User self = userService.findByName( LoggerUtil.currentUser() );
+            final User self = currentUser.get();
             if ( self.getRoles().contains( Role.ROLE_PATIENT ) && !request.getPatient().equals( self ) ) {
                 return new ResponseEntity( HttpStatus.UNAUTHORIZED );
             }
@@ -276,13 +275,14 @@ public class APIAppointmentRequestController extends APIController {
     @GetMapping ( BASE_PATH + "/viewAppointments" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP')" )
     public List<AppointmentRequest> upcomingAppointments () {
-        final User hcp = userService.findByName( LoggerUtil.currentUser() );
+        final User hcp = currentUser.get();
 
         final List<AppointmentRequest> appointment = service.findByHcp( hcp ).stream()
                 .filter( e -> e.getStatus().equals( Status.APPROVED ) ).collect( Collectors.toList() );
         /* Log the event */
-        appointment.stream().map( AppointmentRequest::getPatient ).distinct().forEach( e -> loggerUtil
-                .log( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(), e.getUsername() ) );
+        loggerUtil.logAll( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(),
+                appointment.stream().map( AppointmentRequest::getPatient ).map( User::getUsername ).distinct()
+                        .collect( Collectors.toList() ) );
         return appointment;
     }
 
@@ -14,8 +14,7 @@ import edu.ncsu.csc.iTrust2.models.Patient;
 import edu.ncsu.csc.iTrust2.models.enums.BillStatus;
 import edu.ncsu.csc.iTrust2.services.BillService;
 import edu.ncsu.csc.iTrust2.services.CPTCodeService;
-import edu.ncsu.csc.iTrust2.services.PatientService;
-import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 
 /**
  * Class that provides REST API endpoints for the Bill Certification model.
@@ -26,17 +25,17 @@ import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 @SuppressWarnings ( { "rawtypes" } )
 public class APIBillCertificateController extends APIController {
 
-    /** Patient Service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private PatientService userService;
+    private CurrentUserProvider currentUser;
 
     /** Bill Service */
     @Autowired
-    private BillService    billService;
+    private BillService         billService;
 
     /** CPT Code Service */
     @Autowired
-    private CPTCodeService cptCodeService;
+    private CPTCodeService      cptCodeService;
 
     /**
      * Gets the vaccination certificate for a patient
@@ -46,8 +45,8 @@ public class APIBillCertificateController extends APIController {
     @GetMapping ( BASE_PATH + "/billcertificate" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
     public Certificate getBillCertificate () {
-        final Patient self = (Patient) userService.findByName( LoggerUtil.currentUser() );
-        final List<Bill> bills = billService.findByPatient( self );
+        final Patient self = (Patient) currentUser.get();
+        final List<Bill> bills = billService.findForCertificate( self );
 
         final List<CertificateElement> celist = new ArrayList<CertificateElement>();
         // CertificateElement ce = new CertificateElement( null, null, null,
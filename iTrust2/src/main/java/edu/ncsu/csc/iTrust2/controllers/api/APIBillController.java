@@ -3,6 +3,8 @@ package edu.ncsu.csc.iTrust2.controllers.api;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,11 +16,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import edu.ncsu.csc.iTrust2.forms.BillForm;
+import edu.ncsu.csc.iTrust2.forms.display.BillSummary;
 import edu.ncsu.csc.iTrust2.models.Bill;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.services.BillService;
-import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -34,39 +37,43 @@ public class APIBillController extends APIController {
 
     /** LoggerUtil */
     @Autowired
-    private LoggerUtil        loggerUtil;
+    private LoggerUtil          loggerUtil;
 
     /** Personnel Service */
     @Autowired
-    private BillService       billService;
+    private BillService         billService;
 
-    /** User service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User> userService;
+    private CurrentUserProvider currentUser;
 
     /**
      * Retrieves a list of all bills in the database
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of bills
      */
     @GetMapping ( BASE_PATH + "/bills" )
     @PreAuthorize ( "hasAnyRole('ROLE_BILL_SPEC')" )
-    public List<Bill> getBillsList () {
+    public ResponseEntity<List<Bill>> getBillsList ( @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id", "date" );
         loggerUtil.log( TransactionType.BILL_SPEC_VIEW_BILLS_LIST, LoggerUtil.currentUser() );
-        return billService.findAll();
+        return pageResponse( billService.findAll( pageable ) );
     }
 
     /**
-     * Retrieves a list of all bills in the database for the patient
+     * Retrieves summaries of all bills in the database for the patient. The
+     * whole of a bill is retrieved from /bills/mybills/{id}.
      *
      * @return list of bills
      */
     @GetMapping ( BASE_PATH + "/bills/mybills" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
-    public List<Bill> getMyBillsList () {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
+    public List<BillSummary> getMyBillsList () {
+        final User self = currentUser.get();
         loggerUtil.log( TransactionType.PATIENT_VIEW_BILLS_LIST, self );
-        return billService.findByPatient( self );
+        return billService.findSummariesByPatient( self );
     }
 
     /**
@@ -80,7 +87,7 @@ public class APIBillController extends APIController {
     @GetMapping ( BASE_PATH + "/bills/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_BILL_SPEC')" )
     public ResponseEntity getBill ( @PathVariable final Long id ) {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
+        final User self = currentUser.get();
         loggerUtil.log( TransactionType.BILL_SPEC_VIEW_BILL, self );
         if ( !billService.existsById( id ) ) {
             return new ResponseEntity( HttpStatus.NOT_FOUND );
@@ -99,12 +106,14 @@ public class APIBillController extends APIController {
     @GetMapping ( BASE_PATH + "/bills/mybills/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
     public ResponseEntity getMyBillsList ( @PathVariable final Long id ) {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
-        loggerUtil.log( TransactionType.PATIENT_VIEW_BILL, self );
-        if ( !billService.existsById( id ) ) {
-            return new ResponseEntity( HttpStatus.NOT_FOUND );
+        final User self = currentUser.get();
+        /* Patient can't look at anyone else's bills */
+        final Bill bill = billService.findByIdAndPatient( id, self );
+        if ( null == bill ) {
+            return new ResponseEntity( billService.existsById( id ) ? HttpStatus.UNAUTHORIZED : HttpStatus.NOT_FOUND );
         }
-        return new ResponseEntity( billService.findById( id ), HttpStatus.OK );
+        loggerUtil.log( TransactionType.PATIENT_VIEW_BILL, self );
+        return new ResponseEntity( bill, HttpStatus.OK );
     }
 
     /**
@@ -1,5 +1,15 @@
 package edu.ncsu.csc.iTrust2.controllers.api;
 
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
 import com.google.gson.Gson;
 
 /**
@@ -99,6 +109,79 @@ public abstract class APIController {
         return responseMessage( "success", message );
     }
 
+    /**
+     * Creates the response for one page of a list endpoint. The body is the
+     * records on the page, as a JSON array, just as the endpoint returned
+     * before it was paged; the page number and size, and whether there is a
+     * next page, are sent in the X-Page, X-Page-Size and X-Has-Next headers.
+     *
+     * @param <T>
+     *            Type of the records
+     * @param slice
+     *            The page
+     * @return The response
+     */
+    static final protected <T> ResponseEntity<List<T>> pageResponse ( final Slice<T> slice ) {
+        return ResponseEntity.ok().header( "X-Page", String.valueOf( slice.getNumber() ) )
+                .header( "X-Page-Size", String.valueOf( slice.getSize() ) )
+                .header( "X-Has-Next", String.valueOf( slice.hasNext() ) ).body( slice.getContent() );
+    }
+
+    /**
+     * Checks that a list endpoint is only asked to sort by properties it
+     * allows. Anything else would fail in the query (or sort a whole table by
+     * a column with no index), so it is answered with a 400 instead, by
+     * `invalidSort`.
+     *
+     * @param pageable
+     *            The page asked for
+     * @param allowed
+     *            Properties the endpoint can sort by
+     * @throws InvalidSortException
+     *             If the page is sorted by any other property
+     */
+    static final protected void checkSort ( final Pageable pageable, final String... allowed ) {
+        final Set<String> properties = Set.of( allowed );
+        for ( final Sort.Order order : pageable.getSort() ) {
+            if ( !properties.contains( order.getProperty() ) ) {
+                throw new InvalidSortException( "Cannot sort by " + order.getProperty() + "; sort by one of "
+                        + String.join( ", ", allowed ) );
+            }
+        }
+    }
+
+    /**
+     * Answers a request to sort a list endpoint by a property it doesn't allow
+     *
+     * @param e
+     *            The rejected sort
+     * @return A 400 response saying which properties are allowed
+     */
+    @ExceptionHandler ( InvalidSortException.class )
+    protected ResponseEntity<String> invalidSort ( final InvalidSortException e ) {
+        return new ResponseEntity<String>( errorResponse( e.getMessage() ), HttpStatus.BAD_REQUEST );
+    }
+
+    /**
+     * Thrown by `checkSort` when a list endpoint is asked to sort by a
+     * property it doesn't allow
+     */
+    static protected class InvalidSortException extends RuntimeException {
+
+        /** For serialization */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates an InvalidSortException
+         *
+         * @param message
+         *            Which property was rejected, and which are allowed
+         */
+        public InvalidSortException ( final String message ) {
+            super( message );
+        }
+    }
+
     /**
      * Small class used for creating simple success/error messages to return via
      * the REST API. Contains a status of the action and an message.
@@ -1,9 +1,9 @@
 package edu.ncsu.csc.iTrust2.controllers.api;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,7 +17,7 @@ import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.services.DiagnosisService;
 import edu.ncsu.csc.iTrust2.services.OfficeVisitService;
-import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -37,19 +37,19 @@ public class APIDiagnosisController extends APIController {
      * LoggerUtil
      */
     @Autowired
-    private LoggerUtil         loggerUtil;
+    private LoggerUtil          loggerUtil;
 
     /** Diagnosis Service */
     @Autowired
-    private DiagnosisService   diagnosisService;
+    private DiagnosisService    diagnosisService;
 
     /** OfficeVisit service */
     @Autowired
-    private OfficeVisitService officeVisitService;
+    private OfficeVisitService  officeVisitService;
 
-    /** User service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User>  userService;
+    private CurrentUserProvider currentUser;
 
     /**
      * Returns the Diagnosis with the specified ID.
@@ -91,21 +91,22 @@ public class APIDiagnosisController extends APIController {
     }
 
     /**
-     * Returns a list of diagnoses for the logged in patient
+     * Returns a list of diagnoses for the logged in patient, newest first
      *
+     * @param pageable
+     *            Page to return, from the page and size parameters
      * @return List of Diagnoses for the patient
      */
     @GetMapping ( BASE_PATH + "/diagnoses" )
-    public List<DiagnosisListForm> getDiagnosis () {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
+    public ResponseEntity<List<DiagnosisListForm>> getDiagnosis ( final Pageable pageable ) {
+        final User self = currentUser.get();
         if ( self == null ) {
             return null;
         }
         loggerUtil.log( TransactionType.DIAGNOSIS_PATIENT_VIEW_ALL, self.getUsername(),
                 self.getUsername() + " viewed their diagnoses" );
 
-        return diagnosisService.findByPatient( self ).stream().map( DiagnosisListForm::new )
-                .collect( Collectors.toList() );
+        return pageResponse( diagnosisService.findListByPatient( self, pageable ) );
     }
 
 }
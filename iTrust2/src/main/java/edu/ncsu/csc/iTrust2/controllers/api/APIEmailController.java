@@ -3,6 +3,9 @@ package edu.ncsu.csc.iTrust2.controllers.api;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,11 +30,14 @@ public class APIEmailController extends APIController {
      * a MASSIVE security vulnerability to not only make everything available,
      * but without authentication. Don't do this!
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return Emails
      */
     @GetMapping ( BASE_PATH + "emails" )
-    public List<Email> getEmails () {
-        return service.findAll();
+    public ResponseEntity<List<Email>> getEmails ( @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id" );
+        return pageResponse( service.findAll( pageable ) );
     }
 
 }
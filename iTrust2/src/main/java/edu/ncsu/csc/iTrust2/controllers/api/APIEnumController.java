@@ -23,8 +23,7 @@ import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.models.enums.State;
 import edu.ncsu.csc.iTrust2.models.enums.Status;
 import edu.ncsu.csc.iTrust2.models.enums.VaccinationStatus;
-import edu.ncsu.csc.iTrust2.services.UserService;
-import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 
 /**
  * This class provides GET endpoints for all of the Enums, so that they can be
@@ -35,9 +34,9 @@ import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 @RestController
 public class APIEnumController extends APIController {
 
-    /** User service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User> userService;
+    private CurrentUserProvider currentUser;
 
     /**
      * Gets vaccination statuses
@@ -96,7 +95,7 @@ public class APIEnumController extends APIController {
      */
     @GetMapping ( BASE_PATH + "/appointmenttype" )
     public List<AppointmentType> getAppointmentTypes () {
-        final User user = userService.findByName( LoggerUtil.currentUser() );
+        final User user = currentUser.get();
         final Collection<Role> role = user.getRoles();
         if ( role.contains( Role.ROLE_OD ) ) {
             return List.of( AppointmentType.GENERAL_CHECKUP, AppointmentType.GENERAL_OPHTHALMOLOGY );
@@ -1,28 +1,48 @@
 package edu.ncsu.csc.iTrust2.controllers.api;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import edu.ncsu.csc.iTrust2.controllers.api.comm.LogEntryPage;
 import edu.ncsu.csc.iTrust2.controllers.api.comm.LogEntryRequestBody;
 import edu.ncsu.csc.iTrust2.controllers.api.comm.LogEntryTableRow;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.security.LogEntry;
-import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.UserRoleResolver;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.services.security.LogEntryService;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
@@ -43,19 +63,39 @@ public class APILogEntryController extends APIController {
      * LogEntry service
      */
     @Autowired
-    private LogEntryService   leservice;
+    private LogEntryService     leservice;
 
-    /** UserService */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User> userService;
+    private CurrentUserProvider currentUser;
 
     /** LoggerUtil */
     @Autowired
-    private LoggerUtil        loggerUtil;
+    private LoggerUtil          loggerUtil;
+
+    /** Looks up the roles of the users on each page */
+    @Autowired
+    private UserRoleResolver    roleResolver;
+
+    /**
+     * The types of LogEntry that a patient is allowed to see in their own log
+     */
+    private static final Collection<TransactionType> PATIENT_VIEWABLE   = EnumSet.allOf( TransactionType.class )
+            .stream().filter( TransactionType::isPatientViewable )
+            .collect( Collectors.toCollection( () -> EnumSet.noneOf( TransactionType.class ) ) );
+
+    /**
+     * Separates the time from the ID in a cursor. The time is the full ISO-8601
+     * instant, so that entries less than a millisecond apart aren't skipped or
+     * repeated between pages.
+     */
+    private static final char                        CURSOR_SEPARATOR = '|';
 
     /**
      * Handles GET requests for the current user's log entries when searching by
-     * date and using a page system.
+     * date and using a page system. This loads every matching entry to find
+     * the requested page; prefer `/logentries/range/cursor`, which is used by
+     * the log view.
      *
      * @param body
      *            the request body of the GET request
@@ -73,21 +113,8 @@ public class APILogEntryController extends APIController {
 
             // Parse in start/end dates as ZonedDateTimes
             // from ISO date/time or ISO date strings
-            ZonedDateTime start;
-            try {
-                start = ZonedDateTime.parse( body.getStartDate() );
-            }
-            catch ( final DateTimeParseException ex ) {
-                start = LocalDate.parse( body.getStartDate() ).atStartOfDay( ZoneId.systemDefault() );
-            }
-
-            ZonedDateTime end;
-            try {
-                end = ZonedDateTime.parse( body.getEndDate() ).plusDays( 1 );
-            }
-            catch ( final DateTimeParseException ex ) {
-                end = LocalDate.parse( body.getEndDate() ).atStartOfDay( ZoneId.systemDefault() ).plusDays( 1 );
-            }
+            final ZonedDateTime start = parseDate( body.getStartDate() );
+            final ZonedDateTime end = parseDate( body.getEndDate() ).plusDays( 1 );
 
             if ( start.isAfter( end ) ) {
                 return new ResponseEntity( errorResponse( "Start Date is after End Date" ), HttpStatus.NOT_ACCEPTABLE );
@@ -106,8 +133,8 @@ public class APILogEntryController extends APIController {
 
         // Use only log entries that are viewable by the user
         List<LogEntry> visible;
-        final User user = userService.findByName( LoggerUtil.currentUser() );
-        if ( user == null || user.getRoles() == null || user.getRoles().contains( Role.ROLE_PATIENT ) ) {
+        final User user = currentUser.get();
+        if ( isPatient( user ) ) {
             visible = new ArrayList<LogEntry>();
 
             for ( int i = 0; i < entries.size(); i++ ) {
@@ -137,9 +164,206 @@ public class APILogEntryController extends APIController {
 
         // Turn these log entries into proper table rows for the application to
         // display
+        final List<LogEntryTableRow> table = toTableRows( page, isPatient( user ) );
+        table.forEach( row -> row.setNumPages( numPages ) );
+
+        // Create a log entry as long as the user is on the first page
+        if ( body.page == 1 ) {
+            loggerUtil.log( TransactionType.VIEW_USER_LOG, LoggerUtil.currentUser() );
+        }
+        return new ResponseEntity( table, HttpStatus.OK );
+    }
+
+    /**
+     * Handles requests for one page of the current user's log entries, newest
+     * first, when searching by date. Pages are found by cursor rather than by
+     * number: the response includes an opaque `next` cursor which is sent back
+     * to fetch the following page. Entries that a patient is not allowed to see
+     * are filtered out by the database, and a total count is only computed (as
+     * an estimate) when asked for, so every page costs the same to fetch.
+     *
+     * @param body
+     *            the request body, with the date range, page length, and the
+     *            cursor from the previous page (if any)
+     * @return ResponseEntity with an error or a LogEntryPage
+     */
+    @PostMapping ( BASE_PATH + "/logentries/range/cursor" )
+    public ResponseEntity getEntryPageByDateRange ( @RequestBody final LogEntryRequestBody body ) {
+        if ( body.getPageLength() <= 0 ) {
+            return new ResponseEntity( errorResponse( "Page length must be positive" ), HttpStatus.BAD_REQUEST );
+        }
+
+        ZonedDateTime start;
+        ZonedDateTime end;
+        try {
+            if ( null == body.getStartDate() || null == body.getEndDate() || body.getStartDate().equals( "" )
+                    || body.getEndDate().equals( "" ) ) {
+                throw new ParseException( "Date", 1 );
+            }
+            start = parseDate( body.getStartDate() );
+            end = parseDate( body.getEndDate() ).plusDays( 1 );
+        }
+        catch ( final ParseException ex ) {
+            // No date range given, so search everything
+            start = Instant.EPOCH.atZone( ZoneId.systemDefault() );
+            end = ZonedDateTime.now().plusDays( 1 );
+        }
+        if ( start.isAfter( end ) ) {
+            return new ResponseEntity( errorResponse( "Start Date is after End Date" ), HttpStatus.NOT_ACCEPTABLE );
+        }
+
+        // Start just after the last entry of the previous page, or at the end
+        // of the range for the first page
+        ZonedDateTime beforeTime = end;
+        Long beforeId = Long.MAX_VALUE;
+        final boolean firstPage = null == body.getCursor() || body.getCursor().equals( "" );
+        if ( !firstPage ) {
+            try {
+                final String cursor = new String( Base64.getUrlDecoder().decode( body.getCursor() ),
+                        StandardCharsets.UTF_8 );
+                // The instant is ISO-8601, which has colons of its own
+                final int split = cursor.lastIndexOf( CURSOR_SEPARATOR );
+                beforeTime = Instant.parse( cursor.substring( 0, split ) ).atZone( ZoneId.systemDefault() );
+                beforeId = Long.parseLong( cursor.substring( split + 1 ) );
+            }
+            catch ( final IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex ) {
+                return new ResponseEntity( errorResponse( "Invalid cursor" ), HttpStatus.BAD_REQUEST );
+            }
+        }
+
+        final String self = LoggerUtil.currentUser();
+        final boolean patient = isPatient( currentUser.get() );
+        final Collection<TransactionType> codes = patient ? PATIENT_VIEWABLE : EnumSet.allOf( TransactionType.class );
+
+        // Ask for one extra entry to find out if there is a next page
+        final List<LogEntry> entries = leservice.findPageForUser( self, codes, start, beforeTime, beforeId,
+                body.getPageLength() + 1 );
+
+        final LogEntryPage page = new LogEntryPage();
+        page.setPatient( patient );
+        if ( entries.size() > body.getPageLength() ) {
+            entries.remove( entries.size() - 1 );
+            final LogEntry last = entries.get( entries.size() - 1 );
+            page.setNext( Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    ( last.getTime().toInstant() + CURSOR_SEPARATOR + last.getId() )
+                            .getBytes( StandardCharsets.UTF_8 ) ) );
+        }
+        page.setEntries( toTableRows( entries, patient ) );
+        if ( body.isIncludeTotal() ) {
+            page.setTotal( leservice.estimateCountByDateRange( self, start, end ) );
+        }
+
+        // Create a log entry as long as the user is on the first page
+        if ( firstPage ) {
+            loggerUtil.log( TransactionType.VIEW_USER_LOG, self );
+        }
+        return new ResponseEntity( page, HttpStatus.OK );
+    }
+
+    /**
+     * Exports every log entry, for every user, within a date range as
+     * newline-delimited JSON (one LogEntry per line), oldest first. Entries
+     * are streamed from the database straight to the response, so exports of
+     * any size can be taken without loading them into memory. Admin only.
+     *
+     * @param startDate
+     *            Start of the range, as an ISO date or date/time. Defaults to
+     *            the earliest entry.
+     * @param endDate
+     *            End of the range (inclusive), as an ISO date or date/time.
+     *            Defaults to now.
+     * @param response
+     *            Response that the entries are written to
+     * @throws IOException
+     *             If the entries can't be written to the response
+     */
+    @GetMapping ( BASE_PATH + "/logentries/export" )
+    @PreAuthorize ( "hasRole('ROLE_ADMIN')" )
+    public void exportEntries ( @RequestParam ( required = false ) final String startDate,
+            @RequestParam ( required = false ) final String endDate, final HttpServletResponse response )
+            throws IOException {
+        final ZonedDateTime start;
+        final ZonedDateTime end;
+        try {
+            start = null == startDate || startDate.equals( "" ) ? Instant.EPOCH.atZone( ZoneId.systemDefault() )
+                    : parseDate( startDate );
+            end = null == endDate || endDate.equals( "" ) ? ZonedDateTime.now()
+                    : parseDate( endDate ).plusDays( 1 ).minusNanos( 1 );
+        }
+        catch ( final DateTimeParseException ex ) {
+            response.sendError( HttpServletResponse.SC_BAD_REQUEST, "Invalid date" );
+            return;
+        }
+        if ( start.isAfter( end ) ) {
+            response.sendError( HttpServletResponse.SC_NOT_ACCEPTABLE, "Start Date is after End Date" );
+            return;
+        }
+
+        loggerUtil.log( TransactionType.EXPORT_AUDIT_LOG, LoggerUtil.currentUser(),
+                "Exported log entries from " + start + " to " + end );
+
+        response.setContentType( "application/x-ndjson" );
+        response.setCharacterEncoding( StandardCharsets.UTF_8.name() );
+        response.setHeader( HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"log-entries.ndjson\"" );
+        final Writer out = new BufferedWriter(
+                new OutputStreamWriter( response.getOutputStream(), StandardCharsets.UTF_8 ) );
+        leservice.export( start, end, out );
+    }
+
+    /**
+     * Parses a date from the Log Entry view, which may be given either as an
+     * ISO date/time or an ISO date (in which case the start of that day is
+     * used)
+     *
+     * @param date
+     *            The date to parse
+     * @return The parsed date
+     */
+    private static ZonedDateTime parseDate ( final String date ) {
+        try {
+            return ZonedDateTime.parse( date );
+        }
+        catch ( final DateTimeParseException ex ) {
+            return LocalDate.parse( date ).atStartOfDay( ZoneId.systemDefault() );
+        }
+    }
+
+    /**
+     * Checks whether a user should be shown the patient's view of their log
+     *
+     * @param user
+     *            The user viewing their log
+     * @return true if the user is (or can't be confirmed not to be) a patient
+     */
+    private static boolean isPatient ( final User user ) {
+        return user == null || user.getRoles() == null || user.getRoles().contains( Role.ROLE_PATIENT );
+    }
+
+    /**
+     * Turns log entries into table rows for the application to display
+     *
+     * @param entries
+     *            The entries to display
+     * @param patient
+     *            Whether the entries are being viewed by a patient, who is
+     *            also shown the role of the other user on each entry
+     * @return The table rows
+     */
+    private List<LogEntryTableRow> toTableRows ( final List<LogEntry> entries, final boolean patient ) {
+        final String self = LoggerUtil.currentUser();
+
+        // Look up the roles of everyone the patient has interacted with on
+        // this page at once, rather than one user per row
+        Map<String, Set<Role>> roles = Collections.emptyMap();
+        if ( patient ) {
+            roles = roleResolver.resolve( entries.stream()
+                    .map( le -> self.equals( le.getPrimaryUser() ) ? le.getSecondaryUser() : le.getPrimaryUser() )
+                    .collect( Collectors.toSet() ) );
+        }
+
         final List<LogEntryTableRow> table = new ArrayList<LogEntryTableRow>();
-        for ( int i = 0; i < page.size(); i++ ) {
-            final LogEntry le = page.get( i );
+        for ( int i = 0; i < entries.size(); i++ ) {
+            final LogEntry le = entries.get( i );
             final LogEntryTableRow row = new LogEntryTableRow();
 
             row.setPrimary( le.getPrimaryUser() );
@@ -149,31 +373,19 @@ public class APILogEntryController extends APIController {
             // text-based timezone is not included
             row.setDateTime( le.getTime().toOffsetDateTime().toString() );
             row.setTransactionType( le.getLogCode().getDescription() );
-            row.setNumPages( numPages );
 
-            if ( user == null || user.getRoles() == null || user.getRoles().contains( Role.ROLE_PATIENT ) ) {
+            if ( patient ) {
                 row.setPatient( true );
 
-                if ( le.getPrimaryUser().equals( LoggerUtil.currentUser() ) ) {
-                    final User secondary = userService.findByName( le.getSecondaryUser() );
-                    if ( secondary != null ) {
-                        row.setRole( secondary.getRoles().toString() );
-                    }
-                }
-                else {
-                    final User primary = userService.findByName( le.getPrimaryUser() );
-                    row.setRole( primary.getRoles().toString() );
+                final String other = self.equals( le.getPrimaryUser() ) ? le.getSecondaryUser() : le.getPrimaryUser();
+                if ( roles.containsKey( other ) ) {
+                    row.setRole( roles.get( other ).toString() );
                 }
             }
 
             table.add( row );
         }
-
-        // Create a log entry as long as the user is on the first page
-        if ( body.page == 1 ) {
-            loggerUtil.log( TransactionType.VIEW_USER_LOG, LoggerUtil.currentUser() );
-        }
-        return new ResponseEntity( table, HttpStatus.OK );
+        return table;
     }
 
 }
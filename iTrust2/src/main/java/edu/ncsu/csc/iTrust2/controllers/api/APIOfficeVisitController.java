@@ -3,6 +3,8 @@ package edu.ncsu.csc.iTrust2.controllers.api;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,13 +17,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import edu.ncsu.csc.iTrust2.forms.OfficeVisitForm;
+import edu.ncsu.csc.iTrust2.forms.display.OfficeVisitSummary;
 import edu.ncsu.csc.iTrust2.models.CPTCode;
 import edu.ncsu.csc.iTrust2.models.OfficeVisit;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.services.CPTCodeService;
 import edu.ncsu.csc.iTrust2.services.OfficeVisitService;
-import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -38,58 +41,82 @@ public class APIOfficeVisitController extends APIController {
 
     /** OfficeVisit service */
     @Autowired
-    private OfficeVisitService officeVisitService;
+    private OfficeVisitService  officeVisitService;
 
     /** CPT Code service */
     @Autowired
-    private CPTCodeService     cptCodeService;
+    private CPTCodeService      cptCodeService;
 
-    /** User service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User>  userService;
+    private CurrentUserProvider currentUser;
 
     /** LoggerUtil */
     @Autowired
-    private LoggerUtil         loggerUtil;
+    private LoggerUtil          loggerUtil;
 
     /**
      * Retrieves a list of all OfficeVisits in the database
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of office visits
      */
     @GetMapping ( BASE_PATH + "/officevisits" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP')" )
-    public List<OfficeVisit> getOfficeVisits () {
+    public ResponseEntity<List<OfficeVisit>> getOfficeVisits ( @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id", "date" );
         loggerUtil.log( TransactionType.VIEW_ALL_OFFICE_VISITS, LoggerUtil.currentUser() );
-        return officeVisitService.findAll();
+        return pageResponse( officeVisitService.findAll( pageable ) );
     }
 
     /**
-     * Retrieves all of the office visits for the current HCP.
+     * Retrieves summaries of all of the office visits for the current HCP.
+     * The whole of a visit is retrieved with getOfficeVisit().
      *
      * @return all of the office visits for the current HCP.
      */
     @GetMapping ( BASE_PATH + "/officevisits/HCP" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP')" )
-    public List<OfficeVisit> getOfficeVisitsForHCP () {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
+    public List<OfficeVisitSummary> getOfficeVisitsForHCP () {
+        final User self = currentUser.get();
         loggerUtil.log( TransactionType.VIEW_ALL_OFFICE_VISITS, self );
-        final List<OfficeVisit> visits = officeVisitService.findByHcp( self );
-        return visits;
+        return officeVisitService.findSummariesByHcp( self );
     }
 
     /**
-     * Retrieves a list of all OfficeVisits in the database for the current
-     * patient
+     * Retrieves summaries of all OfficeVisits in the database for the current
+     * patient. The whole of a visit is retrieved with getMyOfficeVisit().
      *
      * @return list of office visits
      */
     @GetMapping ( BASE_PATH + "/officevisits/myofficevisits" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
-    public List<OfficeVisit> getMyOfficeVisits () {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
+    public List<OfficeVisitSummary> getMyOfficeVisits () {
+        final User self = currentUser.get();
         loggerUtil.log( TransactionType.VIEW_ALL_OFFICE_VISITS, self );
-        return officeVisitService.findByPatient( self );
+        return officeVisitService.findSummariesByPatient( self );
+    }
+
+    /**
+     * Retrieves a specific OfficeVisit of the current patient
+     *
+     * @param id
+     *            ID of the office visit to retrieve
+     * @return The office visit
+     */
+    @GetMapping ( BASE_PATH + "/officevisits/myofficevisits/{id}" )
+    @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
+    public ResponseEntity getMyOfficeVisit ( @PathVariable final Long id ) {
+        final User self = currentUser.get();
+        /* Patient can't look at anyone else's visits */
+        final OfficeVisit visit = officeVisitService.findByIdAndPatient( id, self );
+        if ( null == visit ) {
+            return new ResponseEntity(
+                    officeVisitService.existsById( id ) ? HttpStatus.UNAUTHORIZED : HttpStatus.NOT_FOUND );
+        }
+        loggerUtil.log( TransactionType.GENERAL_CHECKUP_PATIENT_VIEW, self, visit.getHcp() );
+        return new ResponseEntity( visit, HttpStatus.OK );
     }
 
     /**
@@ -102,7 +129,7 @@ public class APIOfficeVisitController extends APIController {
     @GetMapping ( BASE_PATH + "/officevisits/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP')" )
     public ResponseEntity getOfficeVisit ( @PathVariable final Long id ) {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
+        final User self = currentUser.get();
         loggerUtil.log( TransactionType.GENERAL_CHECKUP_HCP_VIEW, self );
         if ( !officeVisitService.existsById( id ) ) {
             return new ResponseEntity( HttpStatus.NOT_FOUND );
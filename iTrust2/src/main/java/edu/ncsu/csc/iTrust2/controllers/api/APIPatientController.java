@@ -3,6 +3,8 @@ package edu.ncsu.csc.iTrust2.controllers.api;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,8 +24,8 @@ import edu.ncsu.csc.iTrust2.models.VaccineType;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.enums.VaccinationStatus;
 import edu.ncsu.csc.iTrust2.services.PatientService;
-import edu.ncsu.csc.iTrust2.services.UserService;
 import edu.ncsu.csc.iTrust2.services.VaccineTypeService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -41,35 +43,37 @@ public class APIPatientController extends APIController {
      * Patient service
      */
     @Autowired
-    private PatientService     patientService;
+    private PatientService      patientService;
 
     /**
-     * User Service
+     * Provides the User that is currently logged in
      */
     @Autowired
-    private UserService        userService;
+    private CurrentUserProvider currentUser;
 
     /**
      * Vaccine Service
      */
     @Autowired
-    private VaccineTypeService vaccService;
+    private VaccineTypeService  vaccService;
 
     /**
      * LoggerUtil
      */
     @Autowired
-    private LoggerUtil         loggerUtil;
+    private LoggerUtil          loggerUtil;
 
     /**
      * Retrieves and returns a list of all Patients stored in the system
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of patients
      */
     @GetMapping ( BASE_PATH + "/patients" )
-    public List<Patient> getPatients () {
-        final List<Patient> patients = patientService.findAll();
-        return patients;
+    public ResponseEntity<List<Patient>> getPatients ( @SortDefault ( "username" ) final Pageable pageable ) {
+        checkSort( pageable, "username", "firstName", "lastName" );
+        return pageResponse( patientService.findAll( pageable ) );
     }
 
     /**
@@ -82,8 +86,8 @@ public class APIPatientController extends APIController {
     @GetMapping ( BASE_PATH + "/patient" )
     @PreAuthorize ( "hasRole('ROLE_PATIENT')" )
     public ResponseEntity getPatient () {
-        final User self = userService.findByName( LoggerUtil.currentUser() );
-        final Patient patient = (Patient) patientService.findByName( self.getUsername() );
+        final User self = currentUser.get();
+        final Patient patient = self instanceof Patient ? (Patient) self : null;
         if ( patient == null ) {
             return new ResponseEntity( errorResponse( "Could not find a patient entry for you, " + self.getUsername() ),
                     HttpStatus.NOT_FOUND );
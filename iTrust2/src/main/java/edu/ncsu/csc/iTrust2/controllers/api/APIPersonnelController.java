@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -48,12 +50,15 @@ public class APIPersonnelController extends APIController {
     /**
      * Retrieves and returns a list of all Personnel stored in the system
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of personnel
      */
     @GetMapping ( BASE_PATH + "/personnel" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_ADMIN')" )
-    public List<Personnel> getPersonnel () {
-        return service.findAll();
+    public ResponseEntity<List<Personnel>> getPersonnel ( @SortDefault ( "username" ) final Pageable pageable ) {
+        checkSort( pageable, "username", "firstName", "lastName" );
+        return pageResponse( service.findAll( pageable ) );
     }
 
     /**
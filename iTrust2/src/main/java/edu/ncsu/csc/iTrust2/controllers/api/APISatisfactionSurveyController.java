@@ -3,6 +3,8 @@ package edu.ncsu.csc.iTrust2.controllers.api;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -56,12 +58,16 @@ public class APISatisfactionSurveyController extends APIController {
     /**
      * Retrieves a list of all the satisfaction surveys
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return a list of all the satisfaction surveys
      */
     @GetMapping ( BASE_PATH + "/surveys/" )
     @PreAuthorize ( "hasRole('ROLE_ADMIN')" )
-    public List<SatisfactionSurvey> getSatisfactionSurveys () {
-        return satisfactionSurveyService.findAll();
+    public ResponseEntity<List<SatisfactionSurvey>> getSatisfactionSurveys (
+            @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id" );
+        return pageResponse( satisfactionSurveyService.findAll( pageable ) );
     }
 
     /**
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +27,7 @@ import edu.ncsu.csc.iTrust2.models.Personnel;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.services.UserRoleResolver;
 import edu.ncsu.csc.iTrust2.services.UserService;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
@@ -82,17 +85,24 @@ public class APIUserController extends APIController {
     @Autowired
     private UserService               userService;
 
+    /** Cache of user roles, which must forget any user that changes */
+    @Autowired
+    private UserRoleResolver          roleResolver;
+
     /**
      * Retrieves and returns a list of all Users in the system, regardless of
      * their classification (including all Patients, all Personnel, and all
      * users who do not have a further status specified)
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of users
      */
     @GetMapping ( BASE_PATH + "/users" )
-    public List<User> getUsers () {
+    public ResponseEntity<List<User>> getUsers ( @SortDefault ( "username" ) final Pageable pageable ) {
+        checkSort( pageable, "username" );
         loggerUtil.log( TransactionType.VIEW_USERS, LoggerUtil.currentUser() );
-        return userService.findAll();
+        return pageResponse( userService.findAll( pageable ) );
     }
 
     /**
@@ -137,6 +147,7 @@ public class APIUserController extends APIController {
             }
 
             userService.save( user );
+            roleResolver.evict( user.getUsername() );
             loggerUtil.log( TransactionType.CREATE_USER, LoggerUtil.currentUser(), user.getUsername(), null );
             return new ResponseEntity( user, HttpStatus.OK );
         }
@@ -183,6 +194,7 @@ public class APIUserController extends APIController {
             }
 
             userService.save( user ); /* Will overwrite existing user */
+            roleResolver.evict( id );
             loggerUtil.log( TransactionType.UPDATE_USER, LoggerUtil.currentUser() );
             return new ResponseEntity( user, HttpStatus.OK );
         }
@@ -210,6 +222,7 @@ public class APIUserController extends APIController {
                 return new ResponseEntity( errorResponse( "No user found for id " + id ), HttpStatus.NOT_FOUND );
             }
             userService.delete( user );
+            roleResolver.evict( id );
             loggerUtil.log( TransactionType.DELETE_USER, LoggerUtil.currentUser() );
             return new ResponseEntity( id, HttpStatus.OK );
         }
@@ -10,9 +10,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import edu.ncsu.csc.iTrust2.models.Patient;
 import edu.ncsu.csc.iTrust2.models.VaccineVisit;
-import edu.ncsu.csc.iTrust2.services.PatientService;
 import edu.ncsu.csc.iTrust2.services.VaccineVisitService;
-import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 
 /**
  * Class that provides REST API endpoints for the Vaccination Certification
@@ -24,9 +23,9 @@ import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 @SuppressWarnings ( { "rawtypes" } )
 public class APIVaccinationCertificateController extends APIController {
 
-    /** Patient Service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private PatientService      userService;
+    private CurrentUserProvider currentUser;
 
     /** Vaccine Visit Service */
     @Autowired
@@ -40,7 +39,7 @@ public class APIVaccinationCertificateController extends APIController {
     @GetMapping ( BASE_PATH + "/vaccinationcertificate" )
     @PreAuthorize ( "hasAnyRole('ROLE_PATIENT')" )
     public Certificate getVaccinationCertificate () {
-        final Patient self = (Patient) userService.findByName( LoggerUtil.currentUser() );
+        final Patient self = (Patient) currentUser.get();
         final List<VaccineVisit> visits = visitService.findByPatient( self );
 
         final List<CertificateElement> celist = new ArrayList<CertificateElement>();
@@ -6,6 +6,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,11 +23,11 @@ import org.springframework.web.bind.annotation.RestController;
 import edu.ncsu.csc.iTrust2.forms.VaccineAppointmentRequestForm;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.VaccineAppointmentRequest;
-import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.models.enums.Status;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.services.UserService;
 import edu.ncsu.csc.iTrust2.services.VaccineAppointmentRequestService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -52,6 +55,10 @@ public class APIVaccineAppointmentRequestController extends APIController {
     @Autowired
     private UserService<User>                userService;
 
+    /** Provides the User that is currently logged in */
+    @Autowired
+    private CurrentUserProvider              currentUser;
+
     /**
      * Parses a VARF and create a VaccineAppointmentRequest.
      *
@@ -90,7 +97,7 @@ public class APIVaccineAppointmentRequestController extends APIController {
     @GetMapping ( BASE_PATH + "/vaccineappointments/currentuser" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT', 'ROLE_VACCINATOR')" )
     public List<VaccineAppointmentRequest> getVaccineAppointmentRequestForPatient () {
-        final User patient = userService.findByName( LoggerUtil.currentUser() );
+        final User patient = currentUser.get();
         loggerUtil.log( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(),
                 LoggerUtil.currentUser() );
         return service.findByPatient( patient ).stream().filter( e -> e.getStatus().equals( Status.APPROVED ) )
@@ -107,15 +114,12 @@ public class APIVaccineAppointmentRequestController extends APIController {
     @DeleteMapping ( BASE_PATH + "/vaccineappointments/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT', 'ROLE_VACCINATOR')" )
     public ResponseEntity deleteVaccinationAppointmentRequest ( @PathVariable final Long id ) {
-        final VaccineAppointmentRequest request = service.findById( id );
+        /* Patient can't delete anyone else's requests */
+        final VaccineAppointmentRequest request = service.findVisibleTo( id, currentUser.get() );
         if ( null == request ) {
-            return new ResponseEntity( errorResponse( "No VaccineAppointmentRequest found for id " + id ),
-                    HttpStatus.NOT_FOUND );
-        }
-
-        final User self = userService.findByName( LoggerUtil.currentUser() );
-        if ( self.getRoles().contains( Role.ROLE_PATIENT ) && !request.getPatient().equals( self ) ) {
-            return new ResponseEntity( HttpStatus.UNAUTHORIZED );
+            return service.existsById( id ) ? new ResponseEntity( HttpStatus.UNAUTHORIZED )
+                    : new ResponseEntity( errorResponse( "No VaccineAppointmentRequest found for id " + id ),
+                            HttpStatus.NOT_FOUND );
         }
 
         try {
@@ -133,16 +137,21 @@ public class APIVaccineAppointmentRequestController extends APIController {
     /**
      * View all vaccine appointment requests.
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of vaccine appointment requests
      */
     @GetMapping ( BASE_PATH + "/vaccineappointments" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_VACCINATOR')" )
-    public List<VaccineAppointmentRequest> viewAllAppointmentRequests () {
-        final List<VaccineAppointmentRequest> requests = service.findAll();
-
-        requests.stream().map( VaccineAppointmentRequest::getPatient ).distinct().forEach( e -> loggerUtil
-                .log( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(), e.getUsername() ) );
-        return requests;
+    public ResponseEntity<List<VaccineAppointmentRequest>> viewAllAppointmentRequests (
+            @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id", "date" );
+        final Slice<VaccineAppointmentRequest> requests = service.findAll( pageable );
+
+        loggerUtil.logAll( TransactionType.APPOINTMENT_REQUEST_VIEWED, LoggerUtil.currentUser(),
+                requests.stream().map( VaccineAppointmentRequest::getPatient ).map( User::getUsername ).distinct()
+                        .collect( Collectors.toList() ) );
+        return pageResponse( requests );
     }
 
     /**
@@ -155,20 +164,15 @@ public class APIVaccineAppointmentRequestController extends APIController {
     @GetMapping ( BASE_PATH + "/vaccineappointments/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT', 'ROLE_VACCINATOR')" )
     public ResponseEntity getVaccineAppointmentRequestId ( @PathVariable ( "id" ) final Long id ) {
-        final VaccineAppointmentRequest request = service.findById( id );
-        if ( null != request ) {
-            loggerUtil.log( TransactionType.APPOINTMENT_REQUEST_VIEWED, request.getPatient(), request.getHcp() );
-
-            /* Patient can't look at anyone else's requests */
-            final User self = userService.findByName( LoggerUtil.currentUser() );
-            if ( self.getRoles().contains( Role.ROLE_PATIENT ) && !request.getPatient().equals( self ) ) {
-                return new ResponseEntity( HttpStatus.UNAUTHORIZED );
-            }
+        /* Patient can't look at anyone else's requests */
+        final VaccineAppointmentRequest request = service.findVisibleTo( id, currentUser.get() );
+        if ( null == request ) {
+            return service.existsById( id ) ? new ResponseEntity( HttpStatus.UNAUTHORIZED )
+                    : new ResponseEntity( errorResponse( "No VaccineAppointmentRequest found for id " + id ),
+                            HttpStatus.NOT_FOUND );
         }
-        return null == request
-                ? new ResponseEntity( errorResponse( "No VaccineAppointmentRequest found for id " + id ),
-                        HttpStatus.NOT_FOUND )
-                : new ResponseEntity( request, HttpStatus.OK );
+        loggerUtil.log( TransactionType.APPOINTMENT_REQUEST_VIEWED, request.getPatient(), request.getHcp() );
+        return new ResponseEntity( request, HttpStatus.OK );
     }
 
     /**
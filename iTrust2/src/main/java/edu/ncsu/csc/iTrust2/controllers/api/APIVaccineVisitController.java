@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,10 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 import edu.ncsu.csc.iTrust2.forms.VaccineVisitForm;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.VaccineVisit;
-import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
-import edu.ncsu.csc.iTrust2.services.UserService;
 import edu.ncsu.csc.iTrust2.services.VaccineVisitService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
 
 /**
@@ -42,9 +44,9 @@ public class APIVaccineVisitController extends APIController {
     @Autowired
     private LoggerUtil          loggerUtil;
 
-    /** User service */
+    /** Provides the User that is currently logged in */
     @Autowired
-    private UserService<User>   userService;
+    private CurrentUserProvider currentUser;
 
     /**
      * Parses a VVF and creates a VaccineVisit within the database.
@@ -106,16 +108,20 @@ public class APIVaccineVisitController extends APIController {
     /**
      * View all Vaccine Visits. Used only by personell (hcp, vaccinators).
      *
+     * @param pageable
+     *            Page to return, from the page, size and sort parameters
      * @return list of visits
      */
     @GetMapping ( BASE_PATH + "vaccinevisits/all" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_VACCINATOR')" )
-    public List<VaccineVisit> viewAllVaccineVisits () {
-        final List<VaccineVisit> requests = service.findAll();
-
-        requests.stream().map( VaccineVisit::getPatient ).distinct().forEach(
-                e -> loggerUtil.log( TransactionType.OFFICE_VISIT_VIEWED, LoggerUtil.currentUser(), e.getUsername() ) );
-        return requests;
+    public ResponseEntity<List<VaccineVisit>> viewAllVaccineVisits ( @SortDefault ( "id" ) final Pageable pageable ) {
+        checkSort( pageable, "id", "date" );
+        final Slice<VaccineVisit> requests = service.findAll( pageable );
+
+        loggerUtil.logAll( TransactionType.OFFICE_VISIT_VIEWED, LoggerUtil.currentUser(),
+                requests.stream().map( VaccineVisit::getPatient ).map( User::getUsername ).distinct()
+                        .collect( Collectors.toList() ) );
+        return pageResponse( requests );
     }
 
     /**
@@ -128,20 +134,15 @@ public class APIVaccineVisitController extends APIController {
     @GetMapping ( BASE_PATH + "/vaccinevisits/{id}" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT', 'ROLE_VACCINATOR')" )
     public ResponseEntity getVaccineVisitId ( @PathVariable ( "id" ) final Long id ) {
-        final VaccineVisit request = service.findById( id );
-        if ( null != request ) {
-            loggerUtil.log( TransactionType.OFFICE_VISIT_VIEWED, request.getPatient(), request.getVaccinator() );
-
-            /* Patient can't look at anyone else's requests */
-            final User self = userService.findByName( LoggerUtil.currentUser() );
-            if ( self.getRoles().contains( Role.ROLE_PATIENT ) && !request.getPatient().equals( self ) ) {
-                return new ResponseEntity( HttpStatus.UNAUTHORIZED );
-            }
+        /* Patient can't look at anyone else's visits */
+        final VaccineVisit request = service.findVisibleTo( id, currentUser.get() );
+        if ( null == request ) {
+            return service.existsById( id ) ? new ResponseEntity( HttpStatus.UNAUTHORIZED )
+                    : new ResponseEntity( errorResponse( "No VaccineAppointmentRequest found for id " + id ),
+                            HttpStatus.NOT_FOUND );
         }
-        return null == request
-                ? new ResponseEntity( errorResponse( "No VaccineAppointmentRequest found for id " + id ),
-                        HttpStatus.NOT_FOUND )
-                : new ResponseEntity( request, HttpStatus.OK );
+        loggerUtil.log( TransactionType.OFFICE_VISIT_VIEWED, request.getPatient(), request.getVaccinator() );
+        return new ResponseEntity( request, HttpStatus.OK );
     }
 
     /**
@@ -154,7 +155,7 @@ public class APIVaccineVisitController extends APIController {
     @GetMapping ( BASE_PATH + "/vaccinevisits" )
     @PreAuthorize ( "hasAnyRole('ROLE_HCP', 'ROLE_PATIENT', 'ROLE_VACCINATOR')" )
     public List<VaccineVisit> getVaccineVisitsForPatient ( @PathVariable final Long id ) {
-        final User patient = userService.findByName( LoggerUtil.currentUser() );
+        final User patient = currentUser.get();
         loggerUtil.log( TransactionType.OFFICE_VISIT_VIEWED, LoggerUtil.currentUser(), LoggerUtil.currentUser() );
         return service.findByPatient( patient ).stream().collect( Collectors.toList() );
     }
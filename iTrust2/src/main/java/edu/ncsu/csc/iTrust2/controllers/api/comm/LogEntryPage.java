@@ -0,0 +1,108 @@
+package edu.ncsu.csc.iTrust2.controllers.api.comm;
+
+import java.util.List;
+
+/**
+ * A single page of the Log Entry view, as returned when paging by cursor. Holds
+ * the rows on the page, along with a cursor that can be sent back to fetch the
+ * next page.
+ */
+public class LogEntryPage {
+
+    /** Rows on this page */
+    private List<LogEntryTableRow> entries;
+
+    /** Cursor for the next page, or null if this is the last page */
+    private String                 next;
+
+    /** Approximate total number of entries, if it was requested */
+    private Long                   total;
+
+    /** boolean for whether or not being viewed by patient */
+    private boolean                isPatient = false;
+
+    /**
+     * Empty constructor so that Spring is able to use this class for
+     * communicating over http
+     */
+    public LogEntryPage () {
+        // Empty Constructor
+    }
+
+    /**
+     * Returns the rows on this page
+     *
+     * @return rows on the page
+     */
+    public List<LogEntryTableRow> getEntries () {
+        return entries;
+    }
+
+    /**
+     * Sets the rows on this page
+     *
+     * @param entries
+     *            rows on the page
+     */
+    public void setEntries ( final List<LogEntryTableRow> entries ) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the cursor for the next page
+     *
+     * @return next page cursor, or null if there are no more entries
+     */
+    public String getNext () {
+        return next;
+    }
+
+    /**
+     * Sets the cursor for the next page
+     *
+     * @param next
+     *            next page cursor
+     */
+    public void setNext ( final String next ) {
+        this.next = next;
+    }
+
+    /**
+     * Returns the approximate total number of entries
+     *
+     * @return approximate total, or null if it was not requested
+     */
+    public Long getTotal () {
+        return total;
+    }
+
+    /**
+     * Sets the approximate total number of entries
+     *
+     * @param total
+     *            approximate total
+     */
+    public void setTotal ( final Long total ) {
+        this.total = total;
+    }
+
+    /**
+     * Returns whether or not this page is being viewed by a patient
+     *
+     * @return is/isnt viewed by patient
+     */
+    public boolean isPatient () {
+        return isPatient;
+    }
+
+    /**
+     * Sets whether or not this page is being viewed by a patient
+     *
+     * @param isPatient
+     *            is/isnt viewed by patient
+     */
+    public void setPatient ( final boolean isPatient ) {
+        this.isPatient = isPatient;
+    }
+
+}
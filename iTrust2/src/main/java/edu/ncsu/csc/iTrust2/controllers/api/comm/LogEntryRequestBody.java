@@ -20,6 +20,15 @@ public class LogEntryRequestBody {
     /** Number of items per page */
     public int    pageLength;
 
+    /**
+     * Opaque cursor returned with the previous page, when paging by cursor.
+     * Empty for the first page.
+     */
+    public String cursor;
+
+    /** Whether an (approximate) total count should be returned */
+    public boolean includeTotal;
+
     /**
      * Empty Constructor required for spring to use this as a RequestBody
      */
@@ -103,4 +112,42 @@ public class LogEntryRequestBody {
         this.pageLength = pageLength;
     }
 
+    /**
+     * Gets the cursor marking where the requested page starts.
+     *
+     * @return cursor returned with the previous page, if any
+     */
+    public String getCursor () {
+        return cursor;
+    }
+
+    /**
+     * Sets the cursor marking where the requested page starts.
+     *
+     * @param cursor
+     *            cursor returned with the previous page
+     */
+    public void setCursor ( final String cursor ) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Gets whether an approximate total count has been requested.
+     *
+     * @return whether to include the total
+     */
+    public boolean isIncludeTotal () {
+        return includeTotal;
+    }
+
+    /**
+     * Sets whether an approximate total count should be returned.
+     *
+     * @param includeTotal
+     *            whether to include the total
+     */
+    public void setIncludeTotal ( final boolean includeTotal ) {
+        this.includeTotal = includeTotal;
+    }
+
 }
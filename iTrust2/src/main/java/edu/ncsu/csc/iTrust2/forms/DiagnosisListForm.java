@@ -48,6 +48,30 @@ public class DiagnosisListForm implements Serializable {
         this.code = diag.getCode();
     }
 
+    /**
+     * Constructor used by the query that lists a patient's diagnoses, so that
+     * neither the Diagnosis nor its visit have to be loaded
+     *
+     * @param id
+     *            ID of the diagnosis
+     * @param visitDate
+     *            Time of the visit the diagnosis was made at
+     * @param hcp
+     *            HCP who made the diagnosis
+     * @param note
+     *            Note for the diagnosis
+     * @param code
+     *            Associated code for the diagnosis
+     */
+    public DiagnosisListForm ( final Long id, final ZonedDateTime visitDate, final User hcp, final String note,
+            final ICDCode code ) {
+        this.id = id;
+        this.visitDate = visitDate;
+        this.hcp = hcp;
+        this.note = note;
+        this.code = code;
+    }
+
     /**
      * Time of the Diagnosis/visit
      *
@@ -0,0 +1,117 @@
+package edu.ncsu.csc.iTrust2.forms.display;
+
+import java.time.ZonedDateTime;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
+import edu.ncsu.csc.iTrust2.models.enums.BillStatus;
+
+/**
+ * The columns of a Bill that a list of bills shows. It is read straight from
+ * the bill's row by BillRepository, so listing bills doesn't load the
+ * patient, HCP, CPT codes and payments of every one of them; the whole bill
+ * is only loaded when one is opened.
+ */
+public class BillSummary {
+
+    /** ID of the bill */
+    private final Long          id;
+
+    /** When the bill was issued */
+    @JsonAdapter ( ZonedDateTimeAdapter.class )
+    private final ZonedDateTime date;
+
+    /** Whether the bill is paid */
+    private final BillStatus    status;
+
+    /** Total cost of the bill */
+    private final int           cost;
+
+    /** Amount still owed */
+    private final int           amountOwed;
+
+    /** Username of the HCP the bill is for */
+    private final String        attendingHCP;
+
+    /**
+     * Creates a summary of a bill. Called from the query that selects it.
+     *
+     * @param id
+     *            ID of the bill
+     * @param date
+     *            When the bill was issued
+     * @param status
+     *            Whether the bill is paid
+     * @param cost
+     *            Total cost
+     * @param amountOwed
+     *            Amount still owed
+     * @param attendingHCP
+     *            Username of the HCP
+     */
+    public BillSummary ( final Long id, final ZonedDateTime date, final BillStatus status, final int cost,
+            final int amountOwed, final String attendingHCP ) {
+        this.id = id;
+        this.date = date;
+        this.status = status;
+        this.cost = cost;
+        this.amountOwed = amountOwed;
+        this.attendingHCP = attendingHCP;
+    }
+
+    /**
+     * Returns the ID of the bill
+     *
+     * @return ID
+     */
+    public Long getId () {
+        return id;
+    }
+
+    /**
+     * Returns when the bill was issued
+     *
+     * @return Date issued
+     */
+    public ZonedDateTime getDate () {
+        return date;
+    }
+
+    /**
+     * Returns whether the bill is paid
+     *
+     * @return Status
+     */
+    public BillStatus getStatus () {
+        return status;
+    }
+
+    /**
+     * Returns the total cost of the bill
+     *
+     * @return Cost
+     */
+    public int getCost () {
+        return cost;
+    }
+
+    /**
+     * Returns the amount still owed
+     *
+     * @return Amount owed
+     */
+    public int getAmountOwed () {
+        return amountOwed;
+    }
+
+    /**
+     * Returns the username of the HCP the bill is for
+     *
+     * @return HCP's username
+     */
+    public String getAttendingHCP () {
+        return attendingHCP;
+    }
+
+}
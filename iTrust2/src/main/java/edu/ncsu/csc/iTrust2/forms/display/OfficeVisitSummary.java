@@ -0,0 +1,137 @@
+package edu.ncsu.csc.iTrust2.forms.display;
+
+import java.time.ZonedDateTime;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
+import edu.ncsu.csc.iTrust2.models.enums.AppointmentType;
+
+/**
+ * The columns of an OfficeVisit that a list of visits shows. It is read
+ * straight from the visit's row by OfficeVisitRepository, so listing visits
+ * doesn't load the patient, HCP, metrics, diagnoses, prescriptions or CPT
+ * codes of every one of them; the whole visit is only loaded when one is
+ * opened.
+ */
+public class OfficeVisitSummary {
+
+    /** ID of the visit */
+    private final Long            id;
+
+    /** When the visit took place */
+    @JsonAdapter ( ZonedDateTimeAdapter.class )
+    private final ZonedDateTime   date;
+
+    /** Type of the visit */
+    private final AppointmentType type;
+
+    /** Username of the HCP who saw the patient */
+    private final String          hcp;
+
+    /** Username of the patient */
+    private final String          patient;
+
+    /** Name of the hospital the visit took place at */
+    private final String          hospital;
+
+    /**
+     * How satisfied the patient was with the visit, or null if they haven't
+     * filled in a survey for it
+     */
+    private final Integer         visitSatisfaction;
+
+    /**
+     * Creates a summary of a visit. Called from the query that selects it.
+     *
+     * @param id
+     *            ID of the visit
+     * @param date
+     *            When the visit took place
+     * @param type
+     *            Type of the visit
+     * @param hcp
+     *            Username of the HCP
+     * @param patient
+     *            Username of the patient
+     * @param hospital
+     *            Name of the hospital
+     * @param visitSatisfaction
+     *            Satisfaction from the patient's survey, or null if there is
+     *            none
+     */
+    public OfficeVisitSummary ( final Long id, final ZonedDateTime date, final AppointmentType type,
+            final String hcp, final String patient, final String hospital, final Integer visitSatisfaction ) {
+        this.id = id;
+        this.date = date;
+        this.type = type;
+        this.hcp = hcp;
+        this.patient = patient;
+        this.hospital = hospital;
+        this.visitSatisfaction = visitSatisfaction;
+    }
+
+    /**
+     * Returns the ID of the visit
+     *
+     * @return ID
+     */
+    public Long getId () {
+        return id;
+    }
+
+    /**
+     * Returns when the visit took place
+     *
+     * @return Date of the visit
+     */
+    public ZonedDateTime getDate () {
+        return date;
+    }
+
+    /**
+     * Returns the type of the visit
+     *
+     * @return Type
+     */
+    public AppointmentType getType () {
+        return type;
+    }
+
+    /**
+     * Returns the username of the HCP who saw the patient
+     *
+     * @return HCP's username
+     */
+    public String getHcp () {
+        return hcp;
+    }
+
+    /**
+     * Returns the username of the patient
+     *
+     * @return Patient's username
+     */
+    public String getPatient () {
+        return patient;
+    }
+
+    /**
+     * Returns the name of the hospital the visit took place at
+     *
+     * @return Hospital name
+     */
+    public String getHospital () {
+        return hospital;
+    }
+
+    /**
+     * Returns how satisfied the patient was with the visit
+     *
+     * @return Satisfaction, or null if there is no survey for the visit
+     */
+    public Integer getVisitSatisfaction () {
+        return visitSatisfaction;
+    }
+
+}
@@ -11,43 +11,76 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
 import javax.validation.constraints.NotNull;
 
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.BatchSize;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.google.gson.annotations.JsonAdapter;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
 import edu.ncsu.csc.iTrust2.forms.BillForm;
 import edu.ncsu.csc.iTrust2.models.enums.BillStatus;
 
 @Entity
+@NamedEntityGraphs ( {
+        @NamedEntityGraph ( name = Bill.LIST_GRAPH, attributeNodes = { @NamedAttributeNode ( "patient" ),
+                @NamedAttributeNode ( "attendingHCP" ) } ),
+        @NamedEntityGraph ( name = Bill.DETAIL_GRAPH, attributeNodes = { @NamedAttributeNode ( "patient" ),
+                @NamedAttributeNode ( "attendingHCP" ), @NamedAttributeNode ( "cptCodes" ) } ),
+        @NamedEntityGraph ( name = Bill.CERTIFICATE_GRAPH, attributeNodes = { @NamedAttributeNode ( "patient" ),
+                @NamedAttributeNode ( "cptCodes" ) } ) } )
 public class Bill extends DomainObject {
 
+    /**
+     * Entity graph for loading a list of bills: the patient and HCP are
+     * joined into the one query
+     */
+    public static final String LIST_GRAPH        = "Bill.list";
+
+    /**
+     * Entity graph for loading a single bill to show all of it: the patient,
+     * HCP and CPT codes are joined in, and payments loaded in a batch
+     */
+    public static final String DETAIL_GRAPH      = "Bill.detail";
+
+    /**
+     * Entity graph for loading a patient's bills for their certificate, which
+     * shows each bill's CPT codes but not its HCP or payments
+     */
+    public static final String CERTIFICATE_GRAPH = "Bill.certificate";
+
+    /**
+     * Number of bills whose CPT codes or payments are loaded together, when
+     * they're loaded lazily
+     */
+    static final int           BATCH_SIZE        = 100;
+
     /** ID of this bill */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
-    private Long          id;
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
+    private Long               id;
 
     /** name of the bill */
     @NotNull
     @ManyToOne
     @JoinColumn ( name = "patient_id", columnDefinition = "varchar(100)" )
-    private User          patient;
+    private User               patient;
 
     /** total cost of the bill */
-    private int           cost;
+    private int                cost;
 
     /** total amount currently owed */
-    private int           amountOwed;
+    private int                amountOwed;
 
     /** date the bill was issued */
     @NotNull
@@ -55,29 +88,29 @@ public class Bill extends DomainObject {
     // Allows the field to show up nicely in the database
     @Convert ( converter = ZonedDateTimeAttributeConverter.class )
     @JsonAdapter ( ZonedDateTimeAdapter.class )
-    private ZonedDateTime date;
+    private ZonedDateTime      date;
 
     @Enumerated ( EnumType.STRING )
     /** status of paid, unpaid, or delinquent */
-    private BillStatus    status;
+    private BillStatus         status;
 
     /** HCP attending to the bill */
     @NotNull
     @ManyToOne
     @JoinColumn ( name = "hcp_id", columnDefinition = "varchar(100)" )
-    private User          attendingHCP;
+    private User               attendingHCP;
 
     /** cpt codes provided for the bill */
     @ManyToMany ( cascade = CascadeType.MERGE )
-    @LazyCollection ( LazyCollectionOption.FALSE )
     @JsonManagedReference
-    private List<CPTCode> cptCodes;
+    @BatchSize ( size = BATCH_SIZE )
+    private List<CPTCode>      cptCodes;
 
     /** payments currently associated with the bill */
     @ManyToMany ( cascade = CascadeType.MERGE )
-    @LazyCollection ( LazyCollectionOption.FALSE )
     @JsonManagedReference
-    private List<Payment> payments;
+    @BatchSize ( size = BATCH_SIZE )
+    private List<Payment>      payments;
 
     /**
      * Empty constructor for Hibernate
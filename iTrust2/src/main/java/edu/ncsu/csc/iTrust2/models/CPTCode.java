@@ -7,6 +7,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.validation.constraints.Min;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.forms.CPTCodeForm;
 
 /**
@@ -19,7 +20,7 @@ public class CPTCode extends DomainObject {
 
     /* The ID number of the CPT Code */
     @Id
-    @GeneratedValue
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long   id;
 
     /* The CPT Code number */
@@ -2,7 +2,6 @@ package edu.ncsu.csc.iTrust2.models;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -11,6 +10,8 @@ import javax.validation.constraints.NotNull;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+
 /**
  * Class to represent a Diagnosis made by an HCP as part of an Office Visit
  *
@@ -40,7 +41,7 @@ public class Diagnosis extends DomainObject {
      * ID of this Diagnosis
      */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long        id;
 
     /** Associated ICDCode for this diagnosis */
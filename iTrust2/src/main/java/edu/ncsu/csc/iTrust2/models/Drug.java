@@ -2,7 +2,6 @@ package edu.ncsu.csc.iTrust2.models;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -10,6 +9,7 @@ import javax.validation.constraints.Pattern;
 
 import org.hibernate.validator.constraints.Length;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.forms.DrugForm;
 
 /**
@@ -42,7 +42,7 @@ public class Drug extends DomainObject {
      * ID of this drug
      */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long   id;
 
     /**
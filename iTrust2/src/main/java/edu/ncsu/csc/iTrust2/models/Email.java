@@ -2,12 +2,13 @@ package edu.ncsu.csc.iTrust2.models;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.validation.constraints.NotNull;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+
 /**
  * Represents an Email stored by the iTrust2 system (and not sent through
  * official email systems)
@@ -22,7 +23,7 @@ public class Email extends DomainObject {
      * ID of this email
      */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long   id;
 
     /**
@@ -0,0 +1,63 @@
+package edu.ncsu.csc.iTrust2.models;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.Basic;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
+
+/**
+ * Lease on a scheduled job, so that when several nodes share a database only
+ * one of them runs the job at a time. A node holds the lease until
+ * `lockedUntil`, and may renew it while it is working; once it runs out, any
+ * node may take it. See JobLockService.
+ */
+@Entity
+public class JobLock extends DomainObject {
+
+    /** Name of the job */
+    @Id
+    private String        name;
+
+    /** Node holding the lease, if any */
+    private String        owner;
+
+    /** When the lease runs out */
+    @Basic
+    // Allows the field to show up nicely in the database
+    @Convert ( converter = ZonedDateTimeAttributeConverter.class )
+    private ZonedDateTime lockedUntil;
+
+    /**
+     * For Hibernate
+     */
+    public JobLock () {
+    }
+
+    @Override
+    public String getId () {
+        return name;
+    }
+
+    /**
+     * Returns the node holding the lease
+     *
+     * @return The node, or null if the lease has never been taken
+     */
+    public String getOwner () {
+        return owner;
+    }
+
+    /**
+     * Returns when the lease runs out
+     *
+     * @return End of the lease, or null if it has never been taken
+     */
+    public ZonedDateTime getLockedUntil () {
+        return lockedUntil;
+    }
+
+}
@@ -10,18 +10,25 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.google.gson.annotations.JsonAdapter;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
 import edu.ncsu.csc.iTrust2.models.enums.AppointmentType;
@@ -35,8 +42,41 @@ import edu.ncsu.csc.iTrust2.utils.ValidationUtil;
  *
  */
 @Entity
+@NamedEntityGraphs ( {
+        @NamedEntityGraph ( name = OfficeVisit.LIST_GRAPH, attributeNodes = { @NamedAttributeNode ( "patient" ),
+                @NamedAttributeNode ( "hcp" ), @NamedAttributeNode ( "hospital" ),
+                @NamedAttributeNode ( "appointment" ), @NamedAttributeNode ( "satisfactionSurvey" ),
+                @NamedAttributeNode ( "basicHealthMetrics" ), @NamedAttributeNode ( "ophthalmologyMetrics" ) } ),
+        @NamedEntityGraph ( name = OfficeVisit.DETAIL_GRAPH, attributeNodes = { @NamedAttributeNode ( "patient" ),
+                @NamedAttributeNode ( "hcp" ), @NamedAttributeNode ( "hospital" ),
+                @NamedAttributeNode ( "appointment" ), @NamedAttributeNode ( "satisfactionSurvey" ),
+                @NamedAttributeNode ( "basicHealthMetrics" ), @NamedAttributeNode ( "ophthalmologyMetrics" ),
+                @NamedAttributeNode ( "diagnoses" ) } ) } )
+@Table ( indexes = @Index ( name = "idx_office_visit_patient_date", columnList = "patient_id, date" ) )
 public class OfficeVisit extends DomainObject {
 
+    /**
+     * Entity graph for loading a list of visits: the users, hospital,
+     * appointment, survey and metrics are joined into the one query; the
+     * metrics are eager, so they would otherwise cost a select of their own
+     * for every visit. Diagnoses, prescriptions and CPT codes are left to be
+     * loaded in batches, if they're used at all.
+     */
+    public static final String   LIST_GRAPH   = "OfficeVisit.list";
+
+    /**
+     * Entity graph for loading a single visit to show all of it: everything
+     * in the list graph, plus its diagnoses. Only one collection can be joined
+     * in; prescriptions and CPT codes are loaded in batches.
+     */
+    public static final String   DETAIL_GRAPH = "OfficeVisit.detail";
+
+    /**
+     * Number of visits whose diagnoses, prescriptions or CPT codes are loaded
+     * together, when they're loaded lazily
+     */
+    static final int             BATCH_SIZE   = 100;
+
     /**
      * The patient of this office visit
      */
@@ -81,7 +121,7 @@ public class OfficeVisit extends DomainObject {
      * The id of this office visit
      */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long                 id;
 
     /**
@@ -106,6 +146,7 @@ public class OfficeVisit extends DomainObject {
      */
     @OneToMany ( cascade = CascadeType.ALL )
     @JsonManagedReference
+    @BatchSize ( size = BATCH_SIZE )
     private List<Diagnosis>      diagnoses;
 
     /**
@@ -125,6 +166,7 @@ public class OfficeVisit extends DomainObject {
      */
     @OneToMany ( cascade = CascadeType.ALL )
     @JsonManagedReference
+    @BatchSize ( size = BATCH_SIZE )
     private List<Prescription>   prescriptions;
 
     /**
@@ -138,6 +180,7 @@ public class OfficeVisit extends DomainObject {
     @ManyToMany ( cascade = CascadeType.MERGE )
     @JsonManagedReference
     // @JoinColumn ( name = "cpt_codes" )
+    @BatchSize ( size = BATCH_SIZE )
     private List<CPTCode>        cptCodes;
 
     /** For Hibernate/Thymeleaf _must_ be an empty constructor */
@@ -5,11 +5,12 @@ import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+
 /**
  * Object persisted in the database that represents the Ophthalmology Metrics of
  * a patient's office visit.
@@ -24,7 +25,7 @@ public class OphthalmologyMetrics extends DomainObject {
      * ID of the OphthalmologyMetrics
      */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long    id;
 
     /**
@@ -4,9 +4,9 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.forms.PaymentForm;
 import edu.ncsu.csc.iTrust2.models.enums.PaymentMethod;
 
@@ -22,7 +22,7 @@ public class Payment extends DomainObject {
 
     /** ID of this payment */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long          id;
 
     /** amount paid with this payment */
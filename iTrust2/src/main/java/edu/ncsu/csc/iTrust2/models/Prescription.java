@@ -7,7 +7,6 @@ import javax.persistence.CascadeType;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -19,6 +18,7 @@ import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters.LocalDa
 import com.google.gson.annotations.JsonAdapter;
 
 import edu.ncsu.csc.iTrust2.adapters.LocalDateAdapter;
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 
 /**
  * Represents a prescription in the system. Each prescription is associated with
@@ -32,7 +32,7 @@ public class Prescription extends DomainObject {
 
     /** ID of this Prescription */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long      id;
 
     /** Drug prescribed with this Prescription */
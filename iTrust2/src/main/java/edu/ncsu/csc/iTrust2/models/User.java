@@ -1,16 +1,15 @@
 package edu.ncsu.csc.iTrust2.models;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.persistence.ElementCollection;
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
-import javax.persistence.FetchType;
 import javax.persistence.Id;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
@@ -21,6 +20,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import edu.ncsu.csc.iTrust2.adapters.RoleSetAttributeConverter;
 import edu.ncsu.csc.iTrust2.forms.UserForm;
 import edu.ncsu.csc.iTrust2.models.enums.Role;
 
@@ -103,10 +103,11 @@ public class User extends DomainObject {
     private Integer   enabled;
 
     /**
-     * The role of the user
+     * The roles of the user. Stored as a bitmask on the user row, and never
+     * changed in place (only replaced) so that Hibernate notices changes.
      */
-    @ElementCollection ( targetClass = Role.class, fetch = FetchType.EAGER )
-    @Enumerated ( EnumType.STRING )
+    @Convert ( converter = RoleSetAttributeConverter.class )
+    @Column ( name = "role_mask", nullable = false )
     private Set<Role> roles;
 
     /**
@@ -175,7 +176,7 @@ public class User extends DomainObject {
      * @return the role of this user
      */
     public Collection<Role> getRoles () {
-        return roles;
+        return null == roles ? null : Collections.unmodifiableSet( roles );
     }
 
     /**
@@ -199,7 +200,7 @@ public class User extends DomainObject {
             throw new IllegalArgumentException( "Cannot create Billing Specialist with HCP secondary role." );
         }
 
-        this.roles = roles;
+        this.roles = roles.isEmpty() ? EnumSet.noneOf( Role.class ) : EnumSet.copyOf( roles );
     }
 
     /**
@@ -212,7 +213,7 @@ public class User extends DomainObject {
      */
     public void addRole ( final Role role ) {
         if ( null == this.roles ) {
-            this.roles = new HashSet<Role>();
+            this.roles = EnumSet.noneOf( Role.class );
         }
         if ( role.equals( Role.ROLE_ADMIN ) || role.equals( Role.ROLE_PATIENT ) ) {
             throw new IllegalArgumentException( "Admin and Patient roles cannot be added" );
@@ -220,7 +221,9 @@ public class User extends DomainObject {
         if ( this.roles.contains( Role.ROLE_ADMIN ) || this.roles.contains( Role.ROLE_PATIENT ) ) {
             throw new IllegalArgumentException( "Admins and Patients cannot have additional roles added" );
         }
-        this.roles.add( role );
+        final EnumSet<Role> added = EnumSet.of( role );
+        added.addAll( this.roles );
+        this.roles = added;
     }
 
     @Override
@@ -1,5 +1,8 @@
 package edu.ncsu.csc.iTrust2.models.enums;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
 /**
  * For keeping track of various types of users that are known to the system.
  * Different users have different functionality.
@@ -92,4 +95,47 @@ public enum Role {
         return this.landingPage;
     }
 
+    /**
+     * Gets the bit that stands for this Role in a bitmask of Roles. The bit is
+     * derived from the Role's code rather than its position, so that Roles can
+     * be reordered without changing what stored masks mean.
+     *
+     * @return Bit for this Role
+     */
+    public int getMask () {
+        return 1 << ( this.code - 1 );
+    }
+
+    /**
+     * Packs a set of Roles into a bitmask
+     *
+     * @param roles
+     *            Roles to pack
+     * @return Bitmask with the bit of each Role set
+     */
+    public static int toMask ( final Collection<Role> roles ) {
+        int mask = 0;
+        for ( final Role role : roles ) {
+            mask |= role.getMask();
+        }
+        return mask;
+    }
+
+    /**
+     * Unpacks a bitmask into the Roles it holds
+     *
+     * @param mask
+     *            Bitmask to unpack
+     * @return Roles whose bits are set
+     */
+    public static EnumSet<Role> fromMask ( final int mask ) {
+        final EnumSet<Role> roles = EnumSet.noneOf( Role.class );
+        for ( final Role role : values() ) {
+            if ( 0 != ( mask & role.getMask() ) ) {
+                roles.add( role );
+            }
+        }
+        return roles;
+    }
+
 }
@@ -436,7 +436,12 @@ public enum TransactionType {
     /**
      * Billing specialist updated the status for a bill.
      */
-    BILL_SPEC_UPDATE_BILL_STATUS ( 2402, "Billing Specialist updated status for bill", true );
+    BILL_SPEC_UPDATE_BILL_STATUS ( 2402, "Billing Specialist updated status for bill", true ),
+
+    /**
+     * Admin exports the audit log
+     */
+    EXPORT_AUDIT_LOG ( 1202, "Audit log exported", false );
 
     /**
      * Creates a TransactionType for logging events
@@ -0,0 +1,15 @@
+/**
+ * Declares the PooledIdGenerator once, for every entity in iTrust2 (including
+ * those in the subpackages). Generator names are global in Hibernate, so an
+ * entity uses it with just:
+ *
+ * <pre>
+ * &#64;GeneratedValue ( generator = PooledIdGenerator.NAME )
+ * </pre>
+ */
+@GenericGenerator ( name = PooledIdGenerator.NAME, strategy = PooledIdGenerator.STRATEGY )
+package edu.ncsu.csc.iTrust2.models;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
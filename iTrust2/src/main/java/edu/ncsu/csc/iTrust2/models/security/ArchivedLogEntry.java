@@ -0,0 +1,125 @@
+package edu.ncsu.csc.iTrust2.models.security;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.Basic;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
+import edu.ncsu.csc.iTrust2.models.DomainObject;
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+
+/**
+ * A LogEntry that has aged out of the log_entry table (see LogEntryArchive).
+ * Its columns are the same as LogEntry's, and it keeps the ID it had there, so
+ * that moving an entry is a copy of its row followed by a delete in the same
+ * transaction.
+ *
+ * Archived entries are looked up the same way as those still in the log, by
+ * one user over a window of time, so they have the same indexes; the export
+ * reads them by time alone.
+ */
+@Entity
+@Table ( indexes = { @Index ( name = "idx_archived_log_entry_primary_user_time", columnList = "primaryUser, time" ),
+        @Index ( name = "idx_archived_log_entry_secondary_user_time", columnList = "secondaryUser, time" ),
+        @Index ( name = "idx_archived_log_entry_time", columnList = "time" ) } )
+public class ArchivedLogEntry extends DomainObject {
+
+    /** ID the entry had in the log */
+    @Id
+    private Long            id;
+
+    /** Type of event that was logged */
+    @NotNull
+    private TransactionType logCode;
+
+    /** The primary user for the event */
+    @NotNull
+    private String          primaryUser;
+
+    /** When the event occurred */
+    @NotNull
+    @Basic
+    // Allows the field to show up nicely in the database
+    @Convert ( converter = ZonedDateTimeAttributeConverter.class )
+    private ZonedDateTime   time;
+
+    /** The secondary user for the event, if any */
+    private String          secondaryUser;
+
+    /** Message about the event, if any */
+    private String          message;
+
+    /**
+     * Creates an empty ArchivedLogEntry. Used by Hibernate; entries are only
+     * ever archived by copying their rows.
+     */
+    public ArchivedLogEntry () {
+    }
+
+    @Override
+    public Long getId () {
+        return id;
+    }
+
+    /**
+     * Returns the type of event that was logged
+     *
+     * @return The type
+     */
+    public TransactionType getLogCode () {
+        return logCode;
+    }
+
+    /**
+     * Returns the primary user for the event
+     *
+     * @return The primary user
+     */
+    public String getPrimaryUser () {
+        return primaryUser;
+    }
+
+    /**
+     * Returns when the event occurred
+     *
+     * @return Time
+     */
+    public ZonedDateTime getTime () {
+        return time;
+    }
+
+    /**
+     * Returns the secondary user for the event
+     *
+     * @return The secondary user, or null if there is none
+     */
+    public String getSecondaryUser () {
+        return secondaryUser;
+    }
+
+    /**
+     * Returns the message about the event
+     *
+     * @return The message, or null if there is none
+     */
+    public String getMessage () {
+        return message;
+    }
+
+    /**
+     * Returns a copy of this entry as a LogEntry, with the ID it had in the
+     * log
+     *
+     * @return The LogEntry
+     */
+    public LogEntry toLogEntry () {
+        return new LogEntry( this );
+    }
+
+}
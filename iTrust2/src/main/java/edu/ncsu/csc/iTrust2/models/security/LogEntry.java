@@ -6,12 +6,14 @@ import javax.persistence.Basic;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
 import com.google.gson.annotations.JsonAdapter;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
 import edu.ncsu.csc.iTrust2.models.DomainObject;
@@ -23,10 +25,15 @@ import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
  * happened), a username, and a time when the event occurred. Has support for an
  * optional secondary user and message for further elaboration
  *
+ * Entries are almost always looked up by one user over a window of time, so
+ * both user columns are indexed together with the timestamp.
+ *
  * @author Kai Presler-Marshall
  *
  */
 @Entity
+@Table ( indexes = { @Index ( name = "idx_log_entry_primary_user_time", columnList = "primaryUser, time" ),
+        @Index ( name = "idx_log_entry_secondary_user_time", columnList = "secondaryUser, time" ) } )
 public class LogEntry extends DomainObject {
 
     /**
@@ -66,7 +73,7 @@ public class LogEntry extends DomainObject {
      * ID of the LogEntry
      */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long            id;
 
     /**
@@ -96,6 +103,22 @@ public class LogEntry extends DomainObject {
     public LogEntry () {
     }
 
+    /**
+     * Creates a copy of an archived LogEntry, with the same ID, so that it can
+     * be returned alongside entries that are still in the database.
+     *
+     * @param archived
+     *            The archived entry
+     */
+    LogEntry ( final ArchivedLogEntry archived ) {
+        this.id = archived.getId();
+        this.logCode = archived.getLogCode();
+        this.primaryUser = archived.getPrimaryUser();
+        this.secondaryUser = archived.getSecondaryUser();
+        this.message = archived.getMessage();
+        this.time = archived.getTime();
+    }
+
     /**
      * Retrieves the ID of the LogEntry
      *
@@ -6,13 +6,15 @@ import javax.persistence.Basic;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 
 import com.google.gson.annotations.JsonAdapter;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
 import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
 import edu.ncsu.csc.iTrust2.models.DomainObject;
@@ -24,16 +26,22 @@ import edu.ncsu.csc.iTrust2.models.User;
  * result in a LoginBan. Upon the elevation to a LoginBan, all associated
  * LoginLockout objects are deleted.
  *
+ * Lockouts are only ever looked up by IP or user within a recent window of
+ * time, or by age when expired lockouts are purged, so those are indexed.
+ *
  * @author Thomas
  * @author Kai Presler-Marshall
  *
  */
 @Entity
+@Table ( indexes = { @Index ( name = "idx_login_lockout_ip_time", columnList = "ip, time" ),
+        @Index ( name = "idx_login_lockout_user_time", columnList = "user_id, time" ),
+        @Index ( name = "idx_login_lockout_time", columnList = "time" ) } )
 public class LoginLockout extends DomainObject {
 
     /** ID of the LoginLockout */
     @Id
-    @GeneratedValue ( strategy = GenerationType.AUTO )
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
     private Long          id;
 
     /** IP address for the LoginLockout */
@@ -0,0 +1,201 @@
+package edu.ncsu.csc.iTrust2.models.security;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.Basic;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAdapter;
+import edu.ncsu.csc.iTrust2.adapters.ZonedDateTimeAttributeConverter;
+import edu.ncsu.csc.iTrust2.models.DomainObject;
+
+/**
+ * A change to the ban or lockout state of an IP address or user. Each node
+ * keeps that state in memory (see IPDecisionCache and LoginAttemptCounter);
+ * when one node bans, locks out or clears an address or user, it records a
+ * SecurityEvent, and every node applies the events that it finds when it polls
+ * for recent ones. This keeps the nodes in
+ * agreement, to within the polling interval, without any of them having to
+ * check the database on each request.
+ *
+ * Events are only looked up by the time they were recorded, so that is
+ * indexed.
+ */
+@Entity
+@Table ( indexes = @Index ( name = "idx_security_event_time", columnList = "time" ) )
+public class SecurityEvent extends DomainObject {
+
+    /**
+     * The kinds of change that are recorded
+     */
+    public enum Type {
+        /** An IP address was banned */
+        IP_BANNED,
+        /** An IP address was locked out */
+        IP_LOCKED,
+        /**
+         * An IP address logged in successfully, so any ban or lockout on it was
+         * lifted and its failed logins no longer count
+         */
+        IP_CLEARED,
+        /** A user was locked out or banned, so their failed logins start over */
+        USER_LOCKED,
+        /** A user logged in successfully, so their failed logins no longer count */
+        USER_CLEARED
+    }
+
+    /** ID of the SecurityEvent */
+    @Id
+    @GeneratedValue ( generator = PooledIdGenerator.NAME )
+    private Long          id;
+
+    /** Kind of change */
+    @Enumerated ( EnumType.STRING )
+    private Type          type;
+
+    /** IP address that was changed, for an IP_ event */
+    private String        ip;
+
+    /** User that was changed, for a USER_ event */
+    private String        username;
+
+    /** When the lockout ends, for an IP_LOCKED event */
+    @Basic
+    // Allows the field to show up nicely in the database
+    @Convert ( converter = ZonedDateTimeAttributeConverter.class )
+    @JsonAdapter ( ZonedDateTimeAdapter.class )
+    private ZonedDateTime lockedUntil;
+
+    /** Time the event was recorded */
+    @Basic
+    // Allows the field to show up nicely in the database
+    @Convert ( converter = ZonedDateTimeAttributeConverter.class )
+    @JsonAdapter ( ZonedDateTimeAdapter.class )
+    private ZonedDateTime time;
+
+    /**
+     * Returns the ID of the SecurityEvent for hibernate.
+     *
+     * @return the id
+     */
+    @Override
+    public Long getId () {
+        return id;
+    }
+
+    /**
+     * Sets the ID. For hibernate
+     *
+     * @param id
+     *            the id to set
+     */
+    public void setId ( final Long id ) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the kind of change
+     *
+     * @return the type
+     */
+    public Type getType () {
+        return type;
+    }
+
+    /**
+     * Sets the kind of change
+     *
+     * @param type
+     *            the type to set
+     */
+    public void setType ( final Type type ) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the IP address that was changed
+     *
+     * @return the ip
+     */
+    public String getIp () {
+        return ip;
+    }
+
+    /**
+     * Sets the IP address that was changed
+     *
+     * @param ip
+     *            the ip to set
+     */
+    public void setIp ( final String ip ) {
+        this.ip = ip;
+    }
+
+    /**
+     * Returns the user that was changed
+     *
+     * @return the username, or null for an IP_ event
+     */
+    public String getUsername () {
+        return username;
+    }
+
+    /**
+     * Sets the user that was changed
+     *
+     * @param username
+     *            the username to set
+     */
+    public void setUsername ( final String username ) {
+        this.username = username;
+    }
+
+    /**
+     * Returns when the lockout ends, for an IP_LOCKED event
+     *
+     * @return the end of the lockout, or null for any other event
+     */
+    public ZonedDateTime getLockedUntil () {
+        return lockedUntil;
+    }
+
+    /**
+     * Sets when the lockout ends
+     *
+     * @param lockedUntil
+     *            the end of the lockout
+     */
+    public void setLockedUntil ( final ZonedDateTime lockedUntil ) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    /**
+     * Returns the time the event was recorded
+     *
+     * @return the time
+     */
+    public ZonedDateTime getTime () {
+        return time;
+    }
+
+    /**
+     * Sets the time the event was recorded
+     *
+     * @param time
+     *            the time to set
+     */
+    public void setTime ( final ZonedDateTime time ) {
+        this.time = time;
+    }
+
+}
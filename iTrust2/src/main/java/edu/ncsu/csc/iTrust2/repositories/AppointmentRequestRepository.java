@@ -2,8 +2,6 @@ package edu.ncsu.csc.iTrust2.repositories;
 
 import java.util.List;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-
 import edu.ncsu.csc.iTrust2.models.AppointmentRequest;
 import edu.ncsu.csc.iTrust2.models.User;
 
@@ -14,7 +12,7 @@ import edu.ncsu.csc.iTrust2.models.User;
  * @author Kai Presler-Marshall
  *
  */
-public interface AppointmentRequestRepository extends JpaRepository<AppointmentRequest, Long> {
+public interface AppointmentRequestRepository extends PatientOwnedRepository<AppointmentRequest> {
 
     /**
      * Find all AppointmentRequests for the provided Patient
@@ -1,13 +1,54 @@
 package edu.ncsu.csc.iTrust2.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 
+import edu.ncsu.csc.iTrust2.forms.display.BillSummary;
 import edu.ncsu.csc.iTrust2.models.Bill;
 import edu.ncsu.csc.iTrust2.models.User;
 
-public interface BillRepository extends JpaRepository<Bill, Long> {
+public interface BillRepository extends PatientOwnedRepository<Bill> {
+
+    /**
+     * Finds a bill, along with everything shown about it
+     *
+     * @param id
+     *            ID of the bill
+     * @return The bill, if there is one
+     */
+    @Override
+    @EntityGraph ( Bill.DETAIL_GRAPH )
+    public Optional<Bill> findById ( Long id );
+
+    /**
+     * Finds a patient's bill, along with everything shown about it
+     *
+     * @param id
+     *            ID of the bill
+     * @param username
+     *            Username of the patient
+     * @return The bill, or null if there is no such bill or it belongs to
+     *         someone else
+     */
+    @Override
+    @EntityGraph ( Bill.DETAIL_GRAPH )
+    public Bill findByIdAndPatientUsername ( Long id, String username );
+
+    /**
+     * Finds one page of bills, joining in what a list of them shows
+     *
+     * @param pageable
+     *            Page to find, and how to sort
+     * @return The page
+     */
+    @Override
+    @EntityGraph ( Bill.LIST_GRAPH )
+    public Slice<Bill> findAllBy ( Pageable pageable );
 
     /**
      * Find bills for a given patient
@@ -16,5 +57,29 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
      *            patient to search by
      * @return Matching bills
      */
+    @EntityGraph ( Bill.LIST_GRAPH )
     public List<Bill> findByPatient ( User patient );
+
+    /**
+     * Find bills for a given patient, along with their CPT codes, for the
+     * patient's bill certificate
+     *
+     * @param patient
+     *            patient to search by
+     * @return Matching bills, each once
+     */
+    @EntityGraph ( Bill.CERTIFICATE_GRAPH )
+    public List<Bill> findDistinctByPatient ( User patient );
+
+    /**
+     * Summarises the bills of a given patient, reading only the columns a
+     * list of bills shows
+     *
+     * @param patient
+     *            Username of the patient
+     * @return Summaries of matching bills
+     */
+    @Query ( "SELECT new edu.ncsu.csc.iTrust2.forms.display.BillSummary( b.id, b.date, b.status, b.cost, "
+            + "b.amountOwed, b.attendingHCP.username ) FROM Bill b WHERE b.patient.username = ?1" )
+    public List<BillSummary> findSummariesByPatientUsername ( String patient );
 }
@@ -2,10 +2,16 @@ package edu.ncsu.csc.iTrust2.repositories;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import edu.ncsu.csc.iTrust2.forms.DiagnosisListForm;
 import edu.ncsu.csc.iTrust2.models.Diagnosis;
 import edu.ncsu.csc.iTrust2.models.OfficeVisit;
+import edu.ncsu.csc.iTrust2.models.User;
 
 /**
  * Repository for interacting with Diagnosis model. Method implementations
@@ -16,6 +22,16 @@ import edu.ncsu.csc.iTrust2.models.OfficeVisit;
  */
 public interface DiagnosisRepository extends JpaRepository<Diagnosis, Long> {
 
+    /**
+     * Selects a DiagnosisListForm of each of a patient's diagnoses, newest
+     * visit first, in one query from Diagnosis through OfficeVisit. The HCP
+     * and code are selected whole, since the list shows them, but the visit
+     * is only read for its date.
+     */
+    public static final String LIST_QUERY = "SELECT new edu.ncsu.csc.iTrust2.forms.DiagnosisListForm( d.id, "
+            + "ov.date, h, d.note, icd ) FROM Diagnosis d JOIN d.visit ov JOIN ov.hcp h JOIN d.code icd "
+            + "WHERE ov.patient.username = ?1 ORDER BY ov.date DESC, d.id DESC";
+
     /**
      * Find Diagnoses for a given OfficeVisit
      * 
@@ -25,4 +41,27 @@ public interface DiagnosisRepository extends JpaRepository<Diagnosis, Long> {
      */
     public List<Diagnosis> findByVisit ( OfficeVisit visit );
 
+    /**
+     * Find Diagnoses for a given patient, along with their visit and code
+     *
+     * @param patient
+     *            Patient to search by
+     * @return Matching Diagnoses
+     */
+    @EntityGraph ( attributePaths = { "visit", "code" } )
+    public List<Diagnosis> findByVisitPatient ( User patient );
+
+    /**
+     * Lists one page of the diagnoses of a given patient, for patients with
+     * long histories
+     *
+     * @param patient
+     *            Username of the patient
+     * @param pageable
+     *            Page to find; the order is fixed by the query
+     * @return The page of the patient's diagnoses, newest first
+     */
+    @Query ( LIST_QUERY )
+    public Slice<DiagnosisListForm> findListByPatientUsername ( String patient, Pageable pageable );
+
 }
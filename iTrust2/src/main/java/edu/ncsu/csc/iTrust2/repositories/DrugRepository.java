@@ -1,5 +1,8 @@
 package edu.ncsu.csc.iTrust2.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import edu.ncsu.csc.iTrust2.models.Drug;
@@ -31,4 +34,13 @@ public interface DrugRepository extends JpaRepository<Drug, Long> {
      */
     public Drug findByCode ( String code );
 
+    /**
+     * Finds every Drug with one of the given codes
+     *
+     * @param codes
+     *            Codes to search by
+     * @return Matching Drugs
+     */
+    public List<Drug> findByCodeIn ( Collection<String> codes );
+
 }
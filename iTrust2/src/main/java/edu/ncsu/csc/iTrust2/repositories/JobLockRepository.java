@@ -0,0 +1,64 @@
+package edu.ncsu.csc.iTrust2.repositories;
+
+import java.time.ZonedDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ncsu.csc.iTrust2.models.JobLock;
+
+/**
+ * Repository for interacting with JobLock model. Each update is a single
+ * conditional statement, so the database decides which node gets a lease.
+ * Method implementations generated by Spring
+ */
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * Creates the lock for a job, which nobody holds, unless it already exists
+     *
+     * @param name
+     *            Name of the job
+     * @return 1 if the lock was created, 0 if it already existed
+     */
+    @Transactional
+    @Modifying
+    @Query ( value = "INSERT IGNORE INTO job_lock ( name ) VALUES ( ?1 )", nativeQuery = true )
+    public int createIfAbsent ( String name );
+
+    /**
+     * Takes or renews the lease on a job, if nobody else holds it
+     *
+     * @param name
+     *            Name of the job
+     * @param owner
+     *            Node taking the lease
+     * @param until
+     *            When the lease should run out
+     * @param now
+     *            Current time; a lease that ran out before this is free
+     * @return 1 if the lease was taken, 0 if another node holds it
+     */
+    @Transactional
+    @Modifying
+    @Query ( "UPDATE JobLock j SET j.owner = ?2, j.lockedUntil = ?3 WHERE j.name = ?1 "
+            + "AND ( j.owner = ?2 OR j.lockedUntil IS NULL OR j.lockedUntil < ?4 )" )
+    public int acquire ( String name, String owner, ZonedDateTime until, ZonedDateTime now );
+
+    /**
+     * Gives up the lease on a job, if this node holds it
+     *
+     * @param name
+     *            Name of the job
+     * @param owner
+     *            Node giving up the lease
+     * @return 1 if the lease was given up, 0 if this node didn't hold it
+     */
+    @Transactional
+    @Modifying
+    @Query ( "UPDATE JobLock j SET j.owner = NULL, j.lockedUntil = NULL WHERE j.name = ?1 AND j.owner = ?2" )
+    public int release ( String name, String owner );
+
+}
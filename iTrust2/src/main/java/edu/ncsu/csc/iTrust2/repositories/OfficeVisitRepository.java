@@ -1,9 +1,14 @@
 package edu.ncsu.csc.iTrust2.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 
+import edu.ncsu.csc.iTrust2.forms.display.OfficeVisitSummary;
 import edu.ncsu.csc.iTrust2.models.OfficeVisit;
 import edu.ncsu.csc.iTrust2.models.User;
 
@@ -14,7 +19,52 @@ import edu.ncsu.csc.iTrust2.models.User;
  * @author Kai Presler-Marshall
  *
  */
-public interface OfficeVisitRepository extends JpaRepository<OfficeVisit, Long> {
+public interface OfficeVisitRepository extends PatientOwnedRepository<OfficeVisit> {
+
+    /**
+     * Selects an OfficeVisitSummary of each visit. The HCP, patient and
+     * hospital are read from the visit's own foreign keys, and the survey is
+     * the only join.
+     */
+    public static final String SUMMARY_QUERY = "SELECT new edu.ncsu.csc.iTrust2.forms.display.OfficeVisitSummary( "
+            + "ov.id, ov.date, ov.type, ov.hcp.username, ov.patient.username, ov.hospital.name, "
+            + "ss.visitSatisfaction ) FROM OfficeVisit ov LEFT JOIN ov.satisfactionSurvey ss ";
+
+    /**
+     * Finds an office visit, along with everything shown about it
+     *
+     * @param id
+     *            ID of the visit
+     * @return The visit, if there is one
+     */
+    @Override
+    @EntityGraph ( OfficeVisit.DETAIL_GRAPH )
+    public Optional<OfficeVisit> findById ( Long id );
+
+    /**
+     * Finds a patient's visit, along with everything shown about it
+     *
+     * @param id
+     *            ID of the visit
+     * @param username
+     *            Username of the patient
+     * @return The visit, or null if there is no such visit or it belongs to
+     *         someone else
+     */
+    @Override
+    @EntityGraph ( OfficeVisit.DETAIL_GRAPH )
+    public OfficeVisit findByIdAndPatientUsername ( Long id, String username );
+
+    /**
+     * Finds one page of visits, joining in what a list of them shows
+     *
+     * @param pageable
+     *            Page to find, and how to sort
+     * @return The page
+     */
+    @Override
+    @EntityGraph ( OfficeVisit.LIST_GRAPH )
+    public Slice<OfficeVisit> findAllBy ( Pageable pageable );
 
     /**
      * Find office visits for a given patient
@@ -23,6 +73,7 @@ public interface OfficeVisitRepository extends JpaRepository<OfficeVisit, Long>
      *            HCP to search by
      * @return Matching visits
      */
+    @EntityGraph ( OfficeVisit.LIST_GRAPH )
     public List<OfficeVisit> findByHcp ( User hcp );
 
     /**
@@ -32,6 +83,7 @@ public interface OfficeVisitRepository extends JpaRepository<OfficeVisit, Long>
      *            Patient to search by
      * @return Matching visits
      */
+    @EntityGraph ( OfficeVisit.LIST_GRAPH )
     public List<OfficeVisit> findByPatient ( User patient );
 
     /**
@@ -43,6 +95,29 @@ public interface OfficeVisitRepository extends JpaRepository<OfficeVisit, Long>
      *            Patient to search by
      * @return Matching visits
      */
+    @EntityGraph ( OfficeVisit.LIST_GRAPH )
     public List<OfficeVisit> findByHcpAndPatient ( User hcp, User patient );
 
+    /**
+     * Summarises the office visits of a given HCP, reading only the columns a
+     * list of visits shows
+     *
+     * @param hcp
+     *            Username of the HCP
+     * @return Summaries of matching visits
+     */
+    @Query ( SUMMARY_QUERY + "WHERE ov.hcp.username = ?1" )
+    public List<OfficeVisitSummary> findSummariesByHcpUsername ( String hcp );
+
+    /**
+     * Summarises the office visits of a given patient, reading only the
+     * columns a list of visits shows
+     *
+     * @param patient
+     *            Username of the patient
+     * @return Summaries of matching visits
+     */
+    @Query ( SUMMARY_QUERY + "WHERE ov.patient.username = ?1" )
+    public List<OfficeVisitSummary> findSummariesByPatientUsername ( String patient );
+
 }
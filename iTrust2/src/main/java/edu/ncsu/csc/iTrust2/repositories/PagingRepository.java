@@ -0,0 +1,31 @@
+package edu.ncsu.csc.iTrust2.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository for a model whose table is big enough that it is listed a page at
+ * a time. Adds a finder that returns a Slice, which (unlike the Page returned
+ * by `findAll( Pageable )`) doesn't have to count the whole table to say
+ * whether there is another page. Method implementations generated by Spring
+ *
+ * @param <T>
+ *            Type of the model
+ * @param <K>
+ *            Type of the key
+ */
+@NoRepositoryBean
+public interface PagingRepository <T, K> extends JpaRepository<T, K> {
+
+    /**
+     * Finds one page of every record
+     *
+     * @param pageable
+     *            Page to find, and how to sort
+     * @return The page
+     */
+    public Slice<T> findAllBy ( Pageable pageable );
+
+}
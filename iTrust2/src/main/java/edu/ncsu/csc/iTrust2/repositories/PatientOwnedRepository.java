@@ -0,0 +1,33 @@
+package edu.ncsu.csc.iTrust2.repositories;
+
+import org.springframework.data.repository.NoRepositoryBean;
+
+import edu.ncsu.csc.iTrust2.models.DomainObject;
+
+/**
+ * Repository for a model that belongs to a patient (it has a `patient`). Adds
+ * finders scoped to that patient, so that checking whether a patient may see
+ * a record is part of the query that looks it up. Method implementations
+ * generated by Spring
+ *
+ * @param <T>
+ *            Type of the model
+ */
+@NoRepositoryBean
+public interface PatientOwnedRepository <T extends DomainObject> extends PagingRepository<T, Long> {
+
+    /**
+     * Finds the record with the given ID, but only if it belongs to the
+     * patient with the given username. The patient's username is the foreign
+     * key itself, so this doesn't need to join on, or load, the patient.
+     *
+     * @param id
+     *            ID of the record
+     * @param username
+     *            Username of the patient
+     * @return The record, or null if there is no such record or it belongs to
+     *         someone else
+     */
+    public T findByIdAndPatientUsername ( Long id, String username );
+
+}
@@ -1,7 +1,5 @@
 package edu.ncsu.csc.iTrust2.repositories;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-
 import edu.ncsu.csc.iTrust2.models.Patient;
 import edu.ncsu.csc.iTrust2.models.User;
 
@@ -14,6 +12,6 @@ import edu.ncsu.csc.iTrust2.models.User;
  *            Type of User
  *
  */
-public interface PatientRepository <T extends User> extends JpaRepository<Patient, String> {
+public interface PatientRepository <T extends User> extends PagingRepository<Patient, String> {
 
 }
@@ -2,8 +2,6 @@ package edu.ncsu.csc.iTrust2.repositories;
 
 import java.util.List;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-
 import edu.ncsu.csc.iTrust2.models.SatisfactionSurvey;
 
 /**
@@ -13,7 +11,7 @@ import edu.ncsu.csc.iTrust2.models.SatisfactionSurvey;
  * @author Unascribed
  *
  */
-public interface SatisfactionSurveyRepository extends JpaRepository<SatisfactionSurvey, Long> {
+public interface SatisfactionSurveyRepository extends PagingRepository<SatisfactionSurvey, Long> {
 
     /**
      * Find all SatisfactionSurveys for the given HCP
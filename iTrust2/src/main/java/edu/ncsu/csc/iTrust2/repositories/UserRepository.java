@@ -1,6 +1,10 @@
 package edu.ncsu.csc.iTrust2.repositories;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import edu.ncsu.csc.iTrust2.models.User;
 
@@ -13,7 +17,7 @@ import edu.ncsu.csc.iTrust2.models.User;
  *            Type of User
  *
  */
-public interface UserRepository <T extends User> extends JpaRepository<T, String> {
+public interface UserRepository <T extends User> extends PagingRepository<T, String> {
 
     /**
      * Checks if a User with the given username exists
@@ -33,4 +37,30 @@ public interface UserRepository <T extends User> extends JpaRepository<T, String
      */
     public User findByUsername ( String username );
 
+    /**
+     * Finds the Roles of every User with one of the given usernames, in a
+     * single query. Each result is a pair of the username and the set of that
+     * user's Roles.
+     *
+     * @param usernames
+     *            Usernames to look up
+     * @return (username, Set of Roles) pairs
+     */
+    @Query ( "SELECT u.username, u.roles FROM User u WHERE u.username IN ?1" )
+    public List<Object[]> findRolesByUsernameIn ( Collection<String> usernames );
+
+    /**
+     * Replaces the (hashed) password of the User with the given username,
+     * without loading the User
+     *
+     * @param username
+     *            Username of the User to update
+     * @param password
+     *            The _already encoded_ new password
+     * @return Number of Users updated
+     */
+    @Modifying
+    @Query ( "UPDATE User u SET u.password = ?2 WHERE u.username = ?1" )
+    public int updatePassword ( String username, String password );
+
 }
@@ -2,8 +2,6 @@ package edu.ncsu.csc.iTrust2.repositories;
 
 import java.util.List;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.VaccineVisit;
 
@@ -14,7 +12,7 @@ import edu.ncsu.csc.iTrust2.models.VaccineVisit;
  * @author accline2
  * @author mjcheim
  */
-public interface VaccineVisitRepository extends JpaRepository<VaccineVisit, Long> {
+public interface VaccineVisitRepository extends PatientOwnedRepository<VaccineVisit> {
 
     /**
      * Find all VaccineVisits for provided patient
@@ -0,0 +1,211 @@
+package edu.ncsu.csc.iTrust2.repositories.security;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.models.security.ArchivedLogEntry;
+
+/**
+ * Repository for interacting with ArchivedLogEntry model. The lookups mirror
+ * those of LogEntryRepository, so that the archive can be searched the same
+ * way as the log. Method implementations generated by Spring
+ */
+public interface ArchivedLogEntryRepository extends JpaRepository<ArchivedLogEntry, Long> {
+
+    /**
+     * Copies the LogEntry records with the given IDs into the archive, keeping
+     * their IDs. Any that are already archived are skipped, so copying the
+     * same entries twice archives them once.
+     *
+     * @param ids
+     *            IDs of the LogEntry records to copy
+     * @return The number of records copied
+     */
+    @Modifying
+    @Query ( "INSERT INTO ArchivedLogEntry ( id, logCode, primaryUser, time, secondaryUser, message ) "
+            + "SELECT le.id, le.logCode, le.primaryUser, le.time, le.secondaryUser, le.message FROM LogEntry le "
+            + "WHERE le.id IN ?1 AND NOT EXISTS ( SELECT a.id FROM ArchivedLogEntry a WHERE a.id = le.id )" )
+    public int copyFromLog ( Collection<Long> ids );
+
+    /**
+     * Retrieves all archived records for a user where they are either the
+     * primary or secondary user.
+     *
+     * @param user
+     *            User to search on
+     * @return List of matching records
+     */
+    @Query ( "SELECT a FROM ArchivedLogEntry a WHERE a.primaryUser = ?1 OR a.secondaryUser = ?1" )
+    public List<ArchivedLogEntry> findByPrimaryUserOrSecondaryUser ( String user );
+
+    /**
+     * Retrieves the archived records between (inclusive) two dates where the
+     * given user is the primary user.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param fromDate
+     *            Starting date
+     * @param toDate
+     *            Ending date
+     * @return List of matching records
+     */
+    public List<ArchivedLogEntry> findByPrimaryUserAndTimeBetween ( String user, ZonedDateTime fromDate,
+            ZonedDateTime toDate );
+
+    /**
+     * Retrieves the archived records between (inclusive) two dates where the
+     * given user is the secondary user.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param fromDate
+     *            Starting date
+     * @param toDate
+     *            Ending date
+     * @return List of matching records
+     */
+    public List<ArchivedLogEntry> findBySecondaryUserAndTimeBetween ( String user, ZonedDateTime fromDate,
+            ZonedDateTime toDate );
+
+    /**
+     * Retrieves one page of archived records for a user as the primary user,
+     * newest first, starting just after the last entry of the previous page.
+     * See `LogEntryRepository.findPageByPrimaryUser`.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param codes
+     *            The types of entry to include
+     * @param fromDate
+     *            Oldest time (inclusive) to include
+     * @param beforeTime
+     *            Time of the last entry on the previous page
+     * @param beforeId
+     *            ID of the last entry on the previous page
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT a FROM ArchivedLogEntry a WHERE a.primaryUser = ?1 AND a.logCode IN ?2 AND a.time >= ?3 "
+            + "AND ( a.time < ?4 OR ( a.time = ?4 AND a.id < ?5 ) ) ORDER BY a.time DESC, a.id DESC" )
+    public List<ArchivedLogEntry> findPageByPrimaryUser ( String user, Collection<TransactionType> codes,
+            ZonedDateTime fromDate, ZonedDateTime beforeTime, Long beforeId, Pageable pageable );
+
+    /**
+     * Retrieves one page of archived records for a user as the secondary user,
+     * newest first. See `findPageByPrimaryUser`.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param codes
+     *            The types of entry to include
+     * @param fromDate
+     *            Oldest time (inclusive) to include
+     * @param beforeTime
+     *            Time of the last entry on the previous page
+     * @param beforeId
+     *            ID of the last entry on the previous page
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT a FROM ArchivedLogEntry a WHERE a.secondaryUser = ?1 AND a.logCode IN ?2 AND a.time >= ?3 "
+            + "AND ( a.time < ?4 OR ( a.time = ?4 AND a.id < ?5 ) ) ORDER BY a.time DESC, a.id DESC" )
+    public List<ArchivedLogEntry> findPageBySecondaryUser ( String user, Collection<TransactionType> codes,
+            ZonedDateTime fromDate, ZonedDateTime beforeTime, Long beforeId, Pageable pageable );
+
+    /**
+     * Retrieves the most recent archived records where the given user is the
+     * primary user, newest first. Use the Pageable to limit how many are
+     * returned.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    public List<ArchivedLogEntry> findByPrimaryUserOrderByTimeDescIdDesc ( String user, Pageable pageable );
+
+    /**
+     * Retrieves the next archived records where the given user is the primary
+     * user, newest first, starting just after the entry identified by its time
+     * and ID. See `findPageByPrimaryUser`; unlike it, every type and time is
+     * included. Use the Pageable to limit how many are returned.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param beforeTime
+     *            Time of the last entry already read
+     * @param beforeId
+     *            ID of the last entry already read
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT a FROM ArchivedLogEntry a WHERE a.primaryUser = ?1 "
+            + "AND ( a.time < ?2 OR ( a.time = ?2 AND a.id < ?3 ) ) ORDER BY a.time DESC, a.id DESC" )
+    public List<ArchivedLogEntry> findByPrimaryUserBefore ( String user, ZonedDateTime beforeTime, Long beforeId,
+            Pageable pageable );
+
+    /**
+     * Retrieves the most recent archived records where the given user is the
+     * secondary user, newest first. Use the Pageable to limit how many are
+     * returned.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    public List<ArchivedLogEntry> findBySecondaryUserOrderByTimeDescIdDesc ( String user, Pageable pageable );
+
+    /**
+     * Retrieves the next archived records where the given user is the secondary
+     * user, newest first, starting just after the entry identified by its time
+     * and ID. See `findPageBySecondaryUser`; unlike it, every type and time is
+     * included. Use the Pageable to limit how many are returned.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param beforeTime
+     *            Time of the last entry already read
+     * @param beforeId
+     *            ID of the last entry already read
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT a FROM ArchivedLogEntry a WHERE a.secondaryUser = ?1 "
+            + "AND ( a.time < ?2 OR ( a.time = ?2 AND a.id < ?3 ) ) ORDER BY a.time DESC, a.id DESC" )
+    public List<ArchivedLogEntry> findBySecondaryUserBefore ( String user, ZonedDateTime beforeTime, Long beforeId,
+            Pageable pageable );
+
+    /**
+     * Streams every archived record within a date range, oldest first. See
+     * `LogEntryRepository.streamByTimeBetweenOrderByTimeAscIdAsc`.
+     *
+     * @param startDate
+     *            Start of the range
+     * @param endDate
+     *            End of the range
+     * @return Stream of matching records
+     */
+    @QueryHints ( @QueryHint ( name = "org.hibernate.fetchSize", value = LogEntryRepository.STREAMING_FETCH_SIZE ) )
+    public Stream<ArchivedLogEntry> streamByTimeBetweenOrderByTimeAscIdAsc ( ZonedDateTime startDate,
+            ZonedDateTime endDate );
+
+}
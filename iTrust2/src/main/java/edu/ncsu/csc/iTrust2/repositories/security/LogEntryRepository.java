@@ -1,11 +1,19 @@
 package edu.ncsu.csc.iTrust2.repositories.security;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.security.LogEntry;
 
 /**
@@ -17,6 +25,12 @@ import edu.ncsu.csc.iTrust2.models.security.LogEntry;
  */
 public interface LogEntryRepository extends JpaRepository<LogEntry, Long> {
 
+    /**
+     * Fetch size that tells the MySQL driver to hand rows over one at a time
+     * instead of reading the entire result into memory first
+     */
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
     /**
      * Retrieves a list of LogEntry records between (inclusive) two dates.
      *
@@ -28,6 +42,36 @@ public interface LogEntryRepository extends JpaRepository<LogEntry, Long> {
      */
     public List<LogEntry> findByTimeBetween ( ZonedDateTime fromDate, ZonedDateTime toDate );
 
+    /**
+     * Retrieves the LogEntry records between (inclusive) two dates where the
+     * given user is the primary user.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param fromDate
+     *            Starting date
+     * @param toDate
+     *            Ending date
+     * @return List of matching records
+     */
+    public List<LogEntry> findByPrimaryUserAndTimeBetween ( String user, ZonedDateTime fromDate,
+            ZonedDateTime toDate );
+
+    /**
+     * Retrieves the LogEntry records between (inclusive) two dates where the
+     * given user is the secondary user.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param fromDate
+     *            Starting date
+     * @param toDate
+     *            Ending date
+     * @return List of matching records
+     */
+    public List<LogEntry> findBySecondaryUserAndTimeBetween ( String user, ZonedDateTime fromDate,
+            ZonedDateTime toDate );
+
     /**
      * Retrieves all log entries for a user where they are either the primary or
      * secondary user on the Entry.
@@ -39,4 +83,188 @@ public interface LogEntryRepository extends JpaRepository<LogEntry, Long> {
     @Query ( "SELECT le FROM LogEntry le WHERE le.primaryUser = ?1 OR le.secondaryUser = ?1" )
     public List<LogEntry> findByPrimaryUserOrSecondaryUser ( String user );
 
+    /**
+     * Retrieves one page of LogEntry records for a user as the primary user,
+     * newest first. Rather than skipping over earlier pages, the page starts
+     * just after the last entry of the previous page (identified by its time
+     * and ID), so that every page costs the same no matter how deep it is.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param codes
+     *            The types of entry to include
+     * @param fromDate
+     *            Oldest time (inclusive) to include
+     * @param beforeTime
+     *            Time of the last entry on the previous page
+     * @param beforeId
+     *            ID of the last entry on the previous page
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT le FROM LogEntry le WHERE le.primaryUser = ?1 AND le.logCode IN ?2 AND le.time >= ?3 "
+            + "AND ( le.time < ?4 OR ( le.time = ?4 AND le.id < ?5 ) ) ORDER BY le.time DESC, le.id DESC" )
+    public List<LogEntry> findPageByPrimaryUser ( String user, Collection<TransactionType> codes,
+            ZonedDateTime fromDate, ZonedDateTime beforeTime, Long beforeId, Pageable pageable );
+
+    /**
+     * Retrieves one page of LogEntry records for a user as the secondary user,
+     * newest first. See `findPageByPrimaryUser`.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param codes
+     *            The types of entry to include
+     * @param fromDate
+     *            Oldest time (inclusive) to include
+     * @param beforeTime
+     *            Time of the last entry on the previous page
+     * @param beforeId
+     *            ID of the last entry on the previous page
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT le FROM LogEntry le WHERE le.secondaryUser = ?1 AND le.logCode IN ?2 AND le.time >= ?3 "
+            + "AND ( le.time < ?4 OR ( le.time = ?4 AND le.id < ?5 ) ) ORDER BY le.time DESC, le.id DESC" )
+    public List<LogEntry> findPageBySecondaryUser ( String user, Collection<TransactionType> codes,
+            ZonedDateTime fromDate, ZonedDateTime beforeTime, Long beforeId, Pageable pageable );
+
+    /**
+     * Counts the LogEntry records between (inclusive) two dates where the given
+     * user is the primary user.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param fromDate
+     *            Starting date
+     * @param toDate
+     *            Ending date
+     * @return Number of matching records
+     */
+    public long countByPrimaryUserAndTimeBetween ( String user, ZonedDateTime fromDate, ZonedDateTime toDate );
+
+    /**
+     * Counts the LogEntry records between (inclusive) two dates where the given
+     * user is the secondary user.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param fromDate
+     *            Starting date
+     * @param toDate
+     *            Ending date
+     * @return Number of matching records
+     */
+    public long countBySecondaryUserAndTimeBetween ( String user, ZonedDateTime fromDate, ZonedDateTime toDate );
+
+    /**
+     * Retrieves the most recent LogEntry records where the given user is the
+     * primary user, newest first. Use the Pageable to limit how many are
+     * returned.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    public List<LogEntry> findByPrimaryUserOrderByTimeDescIdDesc ( String user, Pageable pageable );
+
+    /**
+     * Retrieves the next LogEntry records where the given user is the primary
+     * user, newest first, starting just after the entry identified by its time
+     * and ID. See `findPageByPrimaryUser`; unlike it, every type and time is
+     * included. Use the Pageable to limit how many are returned.
+     *
+     * @param user
+     *            Primary user to search on
+     * @param beforeTime
+     *            Time of the last entry already read
+     * @param beforeId
+     *            ID of the last entry already read
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT le FROM LogEntry le WHERE le.primaryUser = ?1 "
+            + "AND ( le.time < ?2 OR ( le.time = ?2 AND le.id < ?3 ) ) ORDER BY le.time DESC, le.id DESC" )
+    public List<LogEntry> findByPrimaryUserBefore ( String user, ZonedDateTime beforeTime, Long beforeId,
+            Pageable pageable );
+
+    /**
+     * Retrieves the most recent LogEntry records where the given user is the
+     * secondary user, newest first. Use the Pageable to limit how many are
+     * returned.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    public List<LogEntry> findBySecondaryUserOrderByTimeDescIdDesc ( String user, Pageable pageable );
+
+    /**
+     * Retrieves the next LogEntry records where the given user is the secondary
+     * user, newest first, starting just after the entry identified by its time
+     * and ID. See `findPageBySecondaryUser`; unlike it, every type and time is
+     * included. Use the Pageable to limit how many are returned.
+     *
+     * @param user
+     *            Secondary user to search on
+     * @param beforeTime
+     *            Time of the last entry already read
+     * @param beforeId
+     *            ID of the last entry already read
+     * @param pageable
+     *            Limits the number of records returned
+     * @return List of matching records
+     */
+    @Query ( "SELECT le FROM LogEntry le WHERE le.secondaryUser = ?1 "
+            + "AND ( le.time < ?2 OR ( le.time = ?2 AND le.id < ?3 ) ) ORDER BY le.time DESC, le.id DESC" )
+    public List<LogEntry> findBySecondaryUserBefore ( String user, ZonedDateTime beforeTime, Long beforeId,
+            Pageable pageable );
+
+    /**
+     * Streams every LogEntry record within a date range, oldest first. Rows are
+     * read from the database as the Stream is consumed rather than all at
+     * once, so the Stream must be consumed (and closed) inside a transaction.
+     *
+     * @param startDate
+     *            Start of the range
+     * @param endDate
+     *            End of the range
+     * @return Stream of matching records
+     */
+    @QueryHints ( @QueryHint ( name = "org.hibernate.fetchSize", value = STREAMING_FETCH_SIZE ) )
+    public Stream<LogEntry> streamByTimeBetweenOrderByTimeAscIdAsc ( ZonedDateTime startDate,
+            ZonedDateTime endDate );
+
+    /**
+     * Retrieves the IDs of the oldest-created LogEntry records from before a
+     * given time, in order of ID. Use the Pageable to limit how many are
+     * returned.
+     *
+     * @param cutoff
+     *            Only entries before this time are returned
+     * @param pageable
+     *            Limits the number of records returned
+     * @return IDs of the matching records
+     */
+    @Query ( "SELECT le.id FROM LogEntry le WHERE le.time < ?1 ORDER BY le.id" )
+    public List<Long> findIdsByTimeBefore ( ZonedDateTime cutoff, Pageable pageable );
+
+    /**
+     * Deletes the LogEntry records with the given IDs.
+     *
+     * @param ids
+     *            IDs of the records to delete
+     * @return The number of records deleted
+     */
+    @Modifying
+    @Query ( "DELETE FROM LogEntry le WHERE le.id IN ?1" )
+    public int deleteByIdIn ( Collection<Long> ids );
+
 }
@@ -1,8 +1,13 @@
 package edu.ncsu.csc.iTrust2.repositories.security;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.security.LoginLockout;
@@ -25,6 +30,39 @@ public interface LoginLockoutRepository extends JpaRepository<LoginLockout, Long
      */
     public List<LoginLockout> findByIp ( String ipAddress );
 
+    /**
+     * Retrieves the most recent LoginLockout record for the given IP address.
+     *
+     * @param ipAddress
+     *            The IP address to search on.
+     * @return The most recent LoginLockout, or null if there are none.
+     */
+    public LoginLockout findFirstByIpOrderByTimeDesc ( String ipAddress );
+
+    /**
+     * Checks whether there is a LoginLockout for the given IP address from
+     * after the given time.
+     *
+     * @param ipAddress
+     *            The IP address to search on.
+     * @param cutoff
+     *            Only lockouts after this time are considered.
+     * @return True iff a lockout was found.
+     */
+    public boolean existsByIpAndTimeAfter ( String ipAddress, ZonedDateTime cutoff );
+
+    /**
+     * Counts the LoginLockouts for the given IP address from after the given
+     * time.
+     *
+     * @param ipAddress
+     *            The IP address to search on.
+     * @param cutoff
+     *            Only lockouts after this time are counted.
+     * @return The number of matching LoginLockouts.
+     */
+    public long countByIpAndTimeAfter ( String ipAddress, ZonedDateTime cutoff );
+
     /**
      * Deletes all saved LoginLockouts for the given IP address.
      *
@@ -43,6 +81,29 @@ public interface LoginLockoutRepository extends JpaRepository<LoginLockout, Long
      */
     public List<LoginLockout> findByUser ( User user );
 
+    /**
+     * Checks whether there is a LoginLockout for the given user from after the
+     * given time.
+     *
+     * @param user
+     *            The User to search on.
+     * @param cutoff
+     *            Only lockouts after this time are considered.
+     * @return True iff a lockout was found.
+     */
+    public boolean existsByUserAndTimeAfter ( User user, ZonedDateTime cutoff );
+
+    /**
+     * Counts the LoginLockouts for the given user from after the given time.
+     *
+     * @param user
+     *            The User to search on.
+     * @param cutoff
+     *            Only lockouts after this time are counted.
+     * @return The number of matching LoginLockouts.
+     */
+    public long countByUserAndTimeAfter ( User user, ZonedDateTime cutoff );
+
     /**
      * Deletes all saved LoginLockouts for the given User.
      *
@@ -52,4 +113,28 @@ public interface LoginLockoutRepository extends JpaRepository<LoginLockout, Long
      */
     public long deleteByUser ( User user );
 
+    /**
+     * Retrieves the IDs of LoginLockout records from before the given time,
+     * oldest first. Use the Pageable to limit how many are returned.
+     *
+     * @param cutoff
+     *            Only records before this time are returned
+     * @param pageable
+     *            Limits the number of records returned
+     * @return IDs of the matching records
+     */
+    @Query ( "SELECT x.id FROM LoginLockout x WHERE x.time < ?1 ORDER BY x.time" )
+    public List<Long> findIdsByTimeBefore ( ZonedDateTime cutoff, Pageable pageable );
+
+    /**
+     * Deletes the LoginLockout records with the given IDs.
+     *
+     * @param ids
+     *            IDs of the records to delete
+     * @return The number of records deleted
+     */
+    @Modifying
+    @Query ( "DELETE FROM LoginLockout x WHERE x.id IN ?1" )
+    public int deleteByIdIn ( Collection<Long> ids );
+
 }
@@ -0,0 +1,54 @@
+package edu.ncsu.csc.iTrust2.repositories.security;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import edu.ncsu.csc.iTrust2.models.security.SecurityEvent;
+
+/**
+ * Repository for interacting with SecurityEvent model. Method implementations
+ * generated by Spring
+ */
+public interface SecurityEventRepository extends JpaRepository<SecurityEvent, Long> {
+
+    /**
+     * Finds the SecurityEvents recorded after the given time, in the order
+     * they were recorded.
+     *
+     * @param since
+     *            Only events after this time are returned
+     * @return The matching SecurityEvents
+     */
+    public List<SecurityEvent> findByTimeAfterOrderByTimeAscIdAsc ( ZonedDateTime since );
+
+    /**
+     * Retrieves the IDs of SecurityEvent records from before the given time,
+     * oldest first. Use the Pageable to limit how many are returned.
+     *
+     * @param cutoff
+     *            Only records before this time are returned
+     * @param pageable
+     *            Limits the number of records returned
+     * @return IDs of the matching records
+     */
+    @Query ( "SELECT x.id FROM SecurityEvent x WHERE x.time < ?1 ORDER BY x.time" )
+    public List<Long> findIdsByTimeBefore ( ZonedDateTime cutoff, Pageable pageable );
+
+    /**
+     * Deletes the SecurityEvent records with the given IDs.
+     *
+     * @param ids
+     *            IDs of the records to delete
+     * @return The number of records deleted
+     */
+    @Modifying
+    @Query ( "DELETE FROM SecurityEvent x WHERE x.id IN ?1" )
+    public int deleteByIdIn ( Collection<Long> ids );
+
+}
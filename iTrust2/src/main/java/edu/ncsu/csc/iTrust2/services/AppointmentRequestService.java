@@ -6,7 +6,6 @@ import java.util.List;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
 import edu.ncsu.csc.iTrust2.forms.AppointmentRequestForm;
@@ -15,6 +14,7 @@ import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.AppointmentType;
 import edu.ncsu.csc.iTrust2.models.enums.Status;
 import edu.ncsu.csc.iTrust2.repositories.AppointmentRequestRepository;
+import edu.ncsu.csc.iTrust2.repositories.PatientOwnedRepository;
 
 /**
  * Service class for interacting with AppointmentRequest model, performing CRUD
@@ -25,7 +25,7 @@ import edu.ncsu.csc.iTrust2.repositories.AppointmentRequestRepository;
  */
 @Component
 @Transactional
-public class AppointmentRequestService extends Service<AppointmentRequest, Long> {
+public class AppointmentRequestService extends PatientOwnedService<AppointmentRequest> {
 
     /** Repository for CRUD tasks */
     @Autowired
@@ -36,7 +36,7 @@ public class AppointmentRequestService extends Service<AppointmentRequest, Long>
     private UserService<User>            userService;
 
     @Override
-    protected JpaRepository<AppointmentRequest, Long> getRepository () {
+    protected PatientOwnedRepository<AppointmentRequest> getRepository () {
         return repository;
     }
 
@@ -43,9 +43,39 @@ public class BasicHealthMetricsService extends Service<BasicHealthMetrics, Long>
      * @return Built BasicHealthMetrics object
      */
     public BasicHealthMetrics build ( final OfficeVisitForm ovf ) {
+        return build( ovf, userService.findByName( ovf.getPatient() ), userService.findByName( ovf.getHcp() ) );
+    }
+
+    /**
+     * Builds a BasicHealthMetrics object from the Form class, taking the
+     * patient and HCP from ones that were already looked up
+     *
+     * @param ovf
+     *            OfficeVisitForm
+     * @param context
+     *            The references of the form, already looked up
+     * @return Built BasicHealthMetrics object
+     */
+    public BasicHealthMetrics build ( final OfficeVisitForm ovf, final BuildContext context ) {
+        return build( ovf, context.getUser( ovf.getPatient() ), context.getUser( ovf.getHcp() ) );
+    }
+
+    /**
+     * Builds a BasicHealthMetrics object from the Form class and the users
+     * that it refers to
+     *
+     * @param ovf
+     *            OfficeVisitForm
+     * @param patient
+     *            Patient whose metrics they are
+     * @param hcp
+     *            HCP who took them
+     * @return Built BasicHealthMetrics object
+     */
+    private BasicHealthMetrics build ( final OfficeVisitForm ovf, final User patient, final User hcp ) {
         final BasicHealthMetrics bhm = new BasicHealthMetrics();
-        bhm.setPatient( userService.findByName( ovf.getPatient() ) );
-        bhm.setHcp( userService.findByName( ovf.getHcp() ) );
+        bhm.setPatient( patient );
+        bhm.setHcp( hcp );
 
         bhm.setDiastolic( ovf.getDiastolic() );
         bhm.setHdl( ovf.getHdl() );
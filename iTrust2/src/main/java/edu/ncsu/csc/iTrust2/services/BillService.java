@@ -5,17 +5,18 @@ import java.util.List;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
 import edu.ncsu.csc.iTrust2.forms.BillForm;
+import edu.ncsu.csc.iTrust2.forms.display.BillSummary;
 import edu.ncsu.csc.iTrust2.models.Bill;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.repositories.BillRepository;
+import edu.ncsu.csc.iTrust2.repositories.PatientOwnedRepository;
 
 @Component
 @Transactional
-public class BillService extends Service<Bill, Long> {
+public class BillService extends PatientOwnedService<Bill> {
 
     /**
      * Repository for CRUD operations
@@ -30,7 +31,7 @@ public class BillService extends Service<Bill, Long> {
     private UserService<User> userService;
 
     @Override
-    protected JpaRepository<Bill, Long> getRepository () {
+    protected PatientOwnedRepository<Bill> getRepository () {
         return repository;
     }
 
@@ -67,4 +68,28 @@ public class BillService extends Service<Bill, Long> {
     public List<Bill> findByPatient ( final User patient ) {
         return repository.findByPatient( patient );
     }
+
+    /**
+     * Finds all Bills for a specified patient, along with the CPT codes their
+     * certificate lists
+     *
+     * @param patient
+     *            Patient to search for
+     * @return Bills matched
+     */
+    public List<Bill> findForCertificate ( final User patient ) {
+        return repository.findDistinctByPatient( patient );
+    }
+
+    /**
+     * Summarises all Bills for a specified patient, for listing them. Use
+     * findByIdAndPatient() to load the whole of a bill.
+     *
+     * @param patient
+     *            Patient to search for
+     * @return Summaries of matching Bills
+     */
+    public List<BillSummary> findSummariesByPatient ( final User patient ) {
+        return repository.findSummariesByPatientUsername( patient.getUsername() );
+    }
 }
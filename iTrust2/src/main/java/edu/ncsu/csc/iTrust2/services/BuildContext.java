@@ -0,0 +1,113 @@
+package edu.ncsu.csc.iTrust2.services;
+
+import java.util.Map;
+
+import edu.ncsu.csc.iTrust2.models.Drug;
+import edu.ncsu.csc.iTrust2.models.ICDCode;
+import edu.ncsu.csc.iTrust2.models.User;
+
+/**
+ * Everything that a form refers to by username, code or ID, looked up ahead
+ * of building from it. OfficeVisitService collects every reference in an
+ * OfficeVisitForm and looks up each type of them with one query, and then
+ * hands this to the services that build the visit's metrics, diagnoses and
+ * prescriptions. So building a visit takes the same number of lookups however
+ * many diagnoses and prescriptions it has.
+ *
+ * The parts of a visit that there is only ever one of don't need it: the
+ * ophthalmology metrics refer to nothing, the hospital comes from its cache,
+ * and the appointment is found with one query of its own. Neither does the
+ * visit that each diagnosis belongs to, which is the one being built.
+ *
+ * Asking for a reference that wasn't looked up is a programming error, and
+ * throws an IllegalStateException rather than quietly returning null.
+ */
+public class BuildContext {
+
+    /** Users, by username */
+    private final Map<String, User>    users;
+
+    /** ICD codes, by code */
+    private final Map<String, ICDCode> icdCodes;
+
+    /** Drugs, by code */
+    private final Map<String, Drug>    drugs;
+
+    /**
+     * Creates a BuildContext from the results of looking up the references.
+     * Each map has an entry for every reference that was looked up, which is
+     * null if nothing was found for it.
+     *
+     * @param users
+     *            Users, by username
+     * @param icdCodes
+     *            ICD codes, by code
+     * @param drugs
+     *            Drugs, by code
+     */
+    public BuildContext ( final Map<String, User> users, final Map<String, ICDCode> icdCodes,
+            final Map<String, Drug> drugs ) {
+        this.users = users;
+        this.icdCodes = icdCodes;
+        this.drugs = drugs;
+    }
+
+    /**
+     * Returns the User with the given username
+     *
+     * @param username
+     *            Username of the User
+     * @return The User, or null if there is none or the username is null
+     */
+    public User getUser ( final String username ) {
+        return resolved( users, username, "user" );
+    }
+
+    /**
+     * Returns the ICDCode with the given code
+     *
+     * @param code
+     *            The code
+     * @return The ICDCode, or null if there is none or the code is null
+     */
+    public ICDCode getIcdCode ( final String code ) {
+        return resolved( icdCodes, code, "ICD code" );
+    }
+
+    /**
+     * Returns the Drug with the given code
+     *
+     * @param code
+     *            The code
+     * @return The Drug, or null if there is none or the code is null
+     */
+    public Drug getDrug ( final String code ) {
+        return resolved( drugs, code, "drug" );
+    }
+
+    /**
+     * Returns what was found for a reference, checking that it was looked up
+     *
+     * @param <K>
+     *            Type of the reference
+     * @param <V>
+     *            Type of what it refers to
+     * @param found
+     *            What was found for each reference of the type
+     * @param key
+     *            The reference
+     * @param type
+     *            Name of the type, for the exception
+     * @return What was found, or null if nothing was or the reference is null
+     */
+    private static <K, V> V resolved ( final Map<K, V> found, final K key, final String type ) {
+        if ( null == key ) {
+            return null;
+        }
+        if ( !found.containsKey( key ) ) {
+            throw new IllegalStateException( "The " + type + " " + key + " was not looked up before building" );
+        }
+        return found.get( key );
+    }
+
+}
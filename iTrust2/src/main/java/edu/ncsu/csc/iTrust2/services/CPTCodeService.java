@@ -25,11 +25,20 @@ public class CPTCodeService extends Service<CPTCode, Long> {
     @Autowired
     private CPTCodeRepository cptCodeRepository;
 
+    /** Caches of reference data */
+    @Autowired
+    private ReferenceCaches   referenceCaches;
+
     @Override
     protected JpaRepository<CPTCode, Long> getRepository () {
         return cptCodeRepository;
     }
 
+    @Override
+    protected ReferenceCache<CPTCode> getCache () {
+        return referenceCaches.get( CPTCode.class );
+    }
+
     /**
      * Builds a CPT Code form the deserialized CPTCodeForm
      *
@@ -57,7 +66,7 @@ public class CPTCodeService extends Service<CPTCode, Long> {
      * @return found CPT Code, null if none
      */
     public CPTCode findByCode ( final String code ) {
-        return cptCodeRepository.findByCode( code );
+        return cached( "code", code, () -> cptCodeRepository.findByCode( code ) );
     }
 
     public boolean existsByCode ( final String code ) {
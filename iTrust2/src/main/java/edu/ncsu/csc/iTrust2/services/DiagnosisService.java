@@ -1,16 +1,20 @@
 package edu.ncsu.csc.iTrust2.services;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
 import edu.ncsu.csc.iTrust2.forms.DiagnosisForm;
+import edu.ncsu.csc.iTrust2.forms.DiagnosisListForm;
 import edu.ncsu.csc.iTrust2.models.Diagnosis;
+import edu.ncsu.csc.iTrust2.models.ICDCode;
 import edu.ncsu.csc.iTrust2.models.OfficeVisit;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.repositories.DiagnosisRepository;
@@ -51,10 +55,42 @@ public class DiagnosisService extends Service<Diagnosis, Long> {
      * @return Generated Diagnosis
      */
     public Diagnosis build ( final DiagnosisForm form ) {
+        return build( form, service.findById( form.getVisit() ), icdCodeService.findByCode( form.getCode() ) );
+    }
+
+    /**
+     * Builds and validates a Diagnosis from the provided DiagnosisForm, as
+     * part of building its visit: the code it refers to is taken from ones
+     * that were already looked up, and the visit is left for the caller to
+     * set to the one it is building
+     *
+     * @param form
+     *            Form for building persistence object
+     * @param context
+     *            The references of the form, already looked up
+     * @return Generated Diagnosis, without its visit
+     */
+    public Diagnosis build ( final DiagnosisForm form, final BuildContext context ) {
+        return build( form, null, context.getIcdCode( form.getCode() ) );
+    }
+
+    /**
+     * Builds a Diagnosis from the provided DiagnosisForm and the entities that
+     * it refers to
+     *
+     * @param form
+     *            Form for building persistence object
+     * @param visit
+     *            Visit the diagnosis was made at
+     * @param code
+     *            Code diagnosed
+     * @return Generated Diagnosis
+     */
+    private Diagnosis build ( final DiagnosisForm form, final OfficeVisit visit, final ICDCode code ) {
         final Diagnosis diag = new Diagnosis();
-        diag.setVisit( service.findById( form.getVisit() ) );
+        diag.setVisit( visit );
         diag.setNote( form.getNote() );
-        diag.setCode( icdCodeService.findByCode( form.getCode() ) );
+        diag.setCode( code );
         diag.setId( form.getId() );
 
         return diag;
@@ -68,9 +104,24 @@ public class DiagnosisService extends Service<Diagnosis, Long> {
      * @return Diagnoses matched
      */
     public List<Diagnosis> findByPatient ( final User patient ) {
-        return service.findByPatient( patient ).stream().map( e -> findByVisit( e ) ).flatMap( e -> e.stream() )
-                .collect( Collectors.toList() );
+        return repository.findByVisitPatient( patient );
+    }
 
+    /**
+     * Lists one page of the Diagnoses of a specified patient, newest first,
+     * for showing to them. Read in one query, without loading their visits.
+     *
+     * @param patient
+     *            Patient to search for
+     * @param pageable
+     *            Page to return; any sort it asks for is ignored
+     * @return The page of diagnoses
+     */
+    public Slice<DiagnosisListForm> findListByPatient ( final User patient, final Pageable pageable ) {
+        // The query fixes the order; the properties of a sort wouldn't be in it
+        final Pageable page = pageable.isPaged() ? PageRequest.of( pageable.getPageNumber(), pageable.getPageSize() )
+                : Pageable.unpaged();
+        return repository.findListByPatientUsername( patient.getUsername(), page );
     }
 
     /**
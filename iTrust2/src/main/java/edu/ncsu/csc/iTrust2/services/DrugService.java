@@ -1,5 +1,10 @@
 package edu.ncsu.csc.iTrust2.services;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,13 +27,22 @@ public class DrugService extends Service<Drug, Long> {
 
     /** Repository for CRUD tasks */
     @Autowired
-    private DrugRepository repository;
+    private DrugRepository  repository;
+
+    /** Caches of reference data */
+    @Autowired
+    private ReferenceCaches referenceCaches;
 
     @Override
     protected JpaRepository<Drug, Long> getRepository () {
         return repository;
     }
 
+    @Override
+    protected ReferenceCache<Drug> getCache () {
+        return referenceCaches.get( Drug.class );
+    }
+
     /**
      * Checks if a Drug with the provided code exists
      * 
@@ -48,6 +62,19 @@ public class DrugService extends Service<Drug, Long> {
      * @return Drug, if found
      */
     public Drug findByCode ( final String code ) {
-        return repository.findByCode( code );
+        return cached( "code", code, () -> repository.findByCode( code ) );
+    }
+
+    /**
+     * Finds the Drugs with any of the given codes, in one query (or none, for
+     * the codes that are cached)
+     *
+     * @param codes
+     *            Codes to find
+     * @return The Drug for every code, which is null for a code that has none
+     */
+    public Map<String, Drug> findByCodes ( final Collection<String> codes ) {
+        return cachedAll( "code", codes, missed -> repository.findByCodeIn( missed ).stream()
+                .collect( Collectors.toMap( Drug::getCode, Function.identity(), ( a, b ) -> a ) ) );
     }
 }
@@ -24,11 +24,20 @@ public class HospitalService extends Service<Hospital, String> {
     @Autowired
     private HospitalRepository repository;
 
+    /** Caches of reference data */
+    @Autowired
+    private ReferenceCaches    referenceCaches;
+
     @Override
     protected JpaRepository<Hospital, String> getRepository () {
         return repository;
     }
 
+    @Override
+    protected ReferenceCache<Hospital> getCache () {
+        return referenceCaches.get( Hospital.class );
+    }
+
     /**
      * Finds a Hospital with the provided name
      * 
@@ -37,6 +46,19 @@ public class HospitalService extends Service<Hospital, String> {
      * @return Hospital, if found
      */
     public Hospital findByName ( final String name ) {
+        return cached( "name", name, () -> repository.findByName( name ) );
+    }
+
+    /**
+     * Finds a Hospital with the provided name, bypassing the cache, so that it
+     * can be changed and saved. Cached Hospitals are shared by every caller, so
+     * one must never be changed in place.
+     *
+     * @param name
+     *            Name of the hospital
+     * @return A copy of the Hospital of its own, if found
+     */
+    public Hospital findByNameForUpdate ( final String name ) {
         return repository.findByName( name );
     }
 
@@ -2,6 +2,9 @@ package edu.ncsu.csc.iTrust2.services;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
@@ -13,7 +16,7 @@ import edu.ncsu.csc.iTrust2.models.ICDCode;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.Role;
 import edu.ncsu.csc.iTrust2.repositories.ICDCodeRepository;
-import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
 
 /**
  * Service class for interacting with ICDCode model, performing CRUD tasks with
@@ -28,17 +31,26 @@ public class ICDCodeService extends Service<ICDCode, Long> {
 
     /** Repository for CRUD operations */
     @Autowired
-    private ICDCodeRepository repository;
+    private ICDCodeRepository   repository;
 
-    /** Service for looking up Personnel */
+    /** Caches of reference data */
     @Autowired
-    private PersonnelService  service;
+    private ReferenceCaches     referenceCaches;
+
+    /** Provides the User that is currently logged in */
+    @Autowired
+    private CurrentUserProvider currentUser;
 
     @Override
     protected JpaRepository<ICDCode, Long> getRepository () {
         return repository;
     }
 
+    @Override
+    protected ReferenceCache<ICDCode> getCache () {
+        return referenceCaches.get( ICDCode.class );
+    }
+
     /**
      * Finds an ICDCode object for the given Code
      * 
@@ -47,12 +59,25 @@ public class ICDCodeService extends Service<ICDCode, Long> {
      * @return ICDCode found, if any
      */
     public ICDCode findByCode ( final String code ) {
-        return repository.findByCode( code );
+        return cached( "code", code, () -> repository.findByCode( code ) );
+    }
+
+    /**
+     * Finds the ICDCodes with any of the given codes, in one query (or none, for
+     * the codes that are cached)
+     *
+     * @param codes
+     *            Codes to find
+     * @return The ICDCode for every code, which is null for a code that has none
+     */
+    public Map<String, ICDCode> findByCodes ( final Collection<String> codes ) {
+        return cachedAll( "code", codes, missed -> repository.findByCodeIn( missed ).stream()
+                .collect( Collectors.toMap( ICDCode::getCode, Function.identity(), ( a, b ) -> a ) ) );
     }
 
     @Override
     public List<ICDCode> findAll () {
-        final User user = service.findByName( LoggerUtil.currentUser() );
+        final User user = currentUser.get();
         final Collection<Role> roles = user.getRoles();
 
         if ( roles.contains( Role.ROLE_ADMIN )
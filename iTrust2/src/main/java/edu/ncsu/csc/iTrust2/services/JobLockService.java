@@ -0,0 +1,58 @@
+package edu.ncsu.csc.iTrust2.services;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.repositories.JobLockRepository;
+
+/**
+ * Makes sure that a scheduled job runs on only one node at a time, when
+ * several nodes share the database. Every node schedules the job, and each
+ * run starts by trying to take a lease on it; only the node that gets the
+ * lease does any work. A long job renews its lease as it goes, and a node that
+ * dies while holding one only holds up the job until the lease runs out.
+ *
+ * Leases are timed by each node's clock, so a lease should be much longer than
+ * the clocks can drift apart.
+ */
+@Component
+public class JobLockService {
+
+    /** JobLock repository, for taking and giving up leases */
+    @Autowired
+    private JobLockRepository repository;
+
+    /** Identifies this node as the holder of a lease */
+    private final String      owner = UUID.randomUUID().toString();
+
+    /**
+     * Takes the lease on a job, or renews it if this node already holds it
+     *
+     * @param name
+     *            Name of the job
+     * @param lease
+     *            How long the lease should last from now
+     * @return true if this node now holds the lease, false if another does
+     */
+    public boolean tryAcquire ( final String name, final Duration lease ) {
+        repository.createIfAbsent( name );
+        final ZonedDateTime now = ZonedDateTime.now();
+        return 1 == repository.acquire( name, owner, now.plus( lease ), now );
+    }
+
+    /**
+     * Gives up the lease on a job, if this node holds it, so that any node may
+     * run the job next time without waiting for the lease to run out
+     *
+     * @param name
+     *            Name of the job
+     */
+    public void release ( final String name ) {
+        repository.release( name, owner );
+    }
+
+}
@@ -2,18 +2,21 @@ package edu.ncsu.csc.iTrust2.services;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
 import edu.ncsu.csc.iTrust2.forms.CPTCodeForm;
+import edu.ncsu.csc.iTrust2.forms.DiagnosisForm;
 import edu.ncsu.csc.iTrust2.forms.OfficeVisitForm;
 import edu.ncsu.csc.iTrust2.forms.PrescriptionForm;
+import edu.ncsu.csc.iTrust2.forms.display.OfficeVisitSummary;
 import edu.ncsu.csc.iTrust2.models.AppointmentRequest;
 import edu.ncsu.csc.iTrust2.models.Diagnosis;
 import edu.ncsu.csc.iTrust2.models.OfficeVisit;
@@ -21,6 +24,7 @@ import edu.ncsu.csc.iTrust2.models.Patient;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.AppointmentType;
 import edu.ncsu.csc.iTrust2.repositories.OfficeVisitRepository;
+import edu.ncsu.csc.iTrust2.repositories.PatientOwnedRepository;
 
 /**
  * Service class for interacting with OfficeVisit model, performing CRUD tasks
@@ -31,7 +35,7 @@ import edu.ncsu.csc.iTrust2.repositories.OfficeVisitRepository;
  */
 @Component
 @Transactional
-public class OfficeVisitService extends Service<OfficeVisit, Long> {
+public class OfficeVisitService extends PatientOwnedService<OfficeVisit> {
 
     /**
      * Repository for CRUD operations
@@ -87,8 +91,20 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
     @Autowired
     private CPTCodeService              cptCodeService;
 
+    /**
+     * ICD Code service
+     */
+    @Autowired
+    private ICDCodeService              icdCodeService;
+
+    /**
+     * Drug service
+     */
+    @Autowired
+    private DrugService                 drugService;
+
     @Override
-    protected JpaRepository<OfficeVisit, Long> getRepository () {
+    protected PatientOwnedRepository<OfficeVisit> getRepository () {
         return repository;
     }
 
@@ -114,6 +130,30 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
         return repository.findByPatient( patient );
     }
 
+    /**
+     * Summarises all OfficeVisits created by the specified HCP, for listing
+     * them. Use findById() to load the whole of a visit.
+     *
+     * @param hcp
+     *            HCP to search for
+     * @return Summaries of matching OfficeVisits
+     */
+    public List<OfficeVisitSummary> findSummariesByHcp ( final User hcp ) {
+        return repository.findSummariesByHcpUsername( hcp.getUsername() );
+    }
+
+    /**
+     * Summarises all OfficeVisits for the specified Patient, for listing them.
+     * Use findByIdAndPatient() to load the whole of a visit.
+     *
+     * @param patient
+     *            Patient to search for
+     * @return Summaries of matching OfficeVisits
+     */
+    public List<OfficeVisitSummary> findSummariesByPatient ( final User patient ) {
+        return repository.findSummariesByPatientUsername( patient.getUsername() );
+    }
+
     /**
      * Find all OfficeVisits for both the specified Patient and HCP
      *
@@ -128,17 +168,22 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
     }
 
     /**
-     * Builds an OfficeVisit based on the deserialised OfficeVisitForm
+     * Builds an OfficeVisit based on the deserialised OfficeVisitForm. The
+     * users, codes and drugs that the form and its diagnoses and prescriptions
+     * refer to are looked up first, one query for each type of them, rather
+     * than one at a time as each part of the visit is built. See BuildContext
+     * for the parts that are built without it.
      *
      * @param ovf
      *            Form to build from
      * @return Constructed OfficeVisit
      */
     public OfficeVisit build ( final OfficeVisitForm ovf ) {
+        final BuildContext context = resolve( ovf );
         final OfficeVisit ov = new OfficeVisit();
 
-        ov.setPatient( userService.findByName( ovf.getPatient() ) );
-        ov.setHcp( userService.findByName( ovf.getHcp() ) );
+        ov.setPatient( context.getUser( ovf.getPatient() ) );
+        ov.setHcp( context.getUser( ovf.getHcp() ) );
         ov.setNotes( ovf.getNotes() );
 
         if ( ovf.getId() != null ) {
@@ -161,6 +206,8 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
         }
         ov.setType( at );
 
+        // There's only one appointment to find, so it's found here rather
+        // than through the context
         if ( null != ovf.getPreScheduled() ) {
             final List<AppointmentRequest> requests = appointmentRequestService.findByHcpAndPatient( ov.getHcp(),
                     ov.getPatient() );
@@ -180,12 +227,13 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
 
         }
         ov.setHospital( hospitalService.findByName( ovf.getHospital() ) );
-        ov.setBasicHealthMetrics( bhmService.build( ovf ) );
+        ov.setBasicHealthMetrics( bhmService.build( ovf, context ) );
         ov.setOphthalmologyMetrics( omService.build( ovf ) );
-        // associate all diagnoses with this visit
+        // associate all diagnoses with this visit, rather than the one each
+        // form names
         if ( ovf.getDiagnoses() != null ) {
-            ov.setDiagnoses(
-                    ovf.getDiagnoses().stream().map( diagnosisService::build ).collect( Collectors.toList() ) );
+            ov.setDiagnoses( ovf.getDiagnoses().stream().map( d -> diagnosisService.build( d, context ) )
+                    .collect( Collectors.toList() ) );
             for ( final Diagnosis d : ov.getDiagnoses() ) {
                 d.setVisit( ov );
             }
@@ -196,7 +244,8 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
 
         final List<PrescriptionForm> ps = ovf.getPrescriptions();
         if ( ps != null ) {
-            ov.setPrescriptions( ps.stream().map( prescriptionService::build ).collect( Collectors.toList() ) );
+            ov.setPrescriptions(
+                    ps.stream().map( p -> prescriptionService.build( p, context ) ).collect( Collectors.toList() ) );
         }
 
         final List<CPTCodeForm> cptCodes = ovf.getCptCodes();
@@ -233,4 +282,52 @@ public class OfficeVisitService extends Service<OfficeVisit, Long> {
         return ov;
     }
 
+    /**
+     * Looks up everything that an OfficeVisitForm refers to, with one query
+     * for each type of reference. Codes and drugs that are already cached
+     * aren't queried for at all.
+     *
+     * @param ovf
+     *            Form to look up the references of
+     * @return The references, for building the visit from
+     */
+    private BuildContext resolve ( final OfficeVisitForm ovf ) {
+        final Set<String> usernames = new HashSet<String>();
+        final Set<String> icdCodes = new HashSet<String>();
+        final Set<String> drugs = new HashSet<String>();
+
+        addIfPresent( usernames, ovf.getPatient() );
+        addIfPresent( usernames, ovf.getHcp() );
+        if ( null != ovf.getDiagnoses() ) {
+            for ( final DiagnosisForm d : ovf.getDiagnoses() ) {
+                addIfPresent( icdCodes, d.getCode() );
+            }
+        }
+        if ( null != ovf.getPrescriptions() ) {
+            for ( final PrescriptionForm p : ovf.getPrescriptions() ) {
+                addIfPresent( drugs, p.getDrug() );
+                addIfPresent( usernames, p.getPatient() );
+            }
+        }
+
+        return new BuildContext( userService.findByIds( usernames ), icdCodeService.findByCodes( icdCodes ),
+                drugService.findByCodes( drugs ) );
+    }
+
+    /**
+     * Adds a reference to the ones to look up, unless it is null
+     *
+     * @param <R>
+     *            Type of the reference
+     * @param references
+     *            References to look up
+     * @param reference
+     *            Reference to add
+     */
+    private static <R> void addIfPresent ( final Set<R> references, final R reference ) {
+        if ( null != reference ) {
+            references.add( reference );
+        }
+    }
+
 }
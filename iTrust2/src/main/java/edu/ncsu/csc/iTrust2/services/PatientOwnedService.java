@@ -0,0 +1,64 @@
+package edu.ncsu.csc.iTrust2.services;
+
+import edu.ncsu.csc.iTrust2.models.DomainObject;
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+import edu.ncsu.csc.iTrust2.repositories.PatientOwnedRepository;
+
+/**
+ * Service for a model that belongs to a patient. Patients may only see their
+ * own records, and findVisibleTo() applies that rule in the query that looks
+ * the record up, rather than by loading the record and then comparing its
+ * patient against the current user.
+ *
+ * @param <T>
+ *            Type of Domain Object to serve
+ */
+abstract public class PatientOwnedService <T extends DomainObject> extends Service<T, Long> {
+
+    @Override
+    abstract protected PatientOwnedRepository<T> getRepository ();
+
+    /**
+     * Finds the record with the given ID, if it belongs to the given patient
+     *
+     * @param id
+     *            ID of the record
+     * @param patient
+     *            The patient
+     * @return The record, or null if there is no such record or it belongs to
+     *         someone else
+     */
+    public T findByIdAndPatient ( final Long id, final User patient ) {
+        if ( null == id ) {
+            return null;
+        }
+        return getRepository().findByIdAndPatientUsername( id, patient.getUsername() );
+    }
+
+    /**
+     * Finds the record with the given ID, if the given user may see it.
+     * Patients may only see their own records; anyone else may see any
+     * record.
+     *
+     * Use existsById() to tell apart a record that doesn't exist from one that
+     * the user may not see.
+     *
+     * @param id
+     *            ID of the record
+     * @param user
+     *            User that wants to see the record
+     * @return The record, or null if there is no such record, the user may not
+     *         see it, or there is no user
+     */
+    public T findVisibleTo ( final Long id, final User user ) {
+        if ( null == user ) {
+            return null;
+        }
+        if ( user.getRoles().contains( Role.ROLE_PATIENT ) ) {
+            return findByIdAndPatient( id, user );
+        }
+        return findById( id );
+    }
+
+}
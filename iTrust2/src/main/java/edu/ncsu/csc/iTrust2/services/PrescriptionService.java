@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
 import edu.ncsu.csc.iTrust2.forms.PrescriptionForm;
+import edu.ncsu.csc.iTrust2.models.Drug;
 import edu.ncsu.csc.iTrust2.models.Prescription;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.repositories.PrescriptionRepository;
@@ -50,12 +51,42 @@ public class PrescriptionService extends Service<Prescription, Long> {
      * @return Build Prescription
      */
     public Prescription build ( final PrescriptionForm form ) {
+        return build( form, drugService.findByCode( form.getDrug() ), userService.findByName( form.getPatient() ) );
+    }
+
+    /**
+     * Builds a Prescription from the deserialised PrescriptionForm, taking the
+     * drug and patient it refers to from ones that were already looked up
+     *
+     * @param form
+     *            Form to build a Prescription from
+     * @param context
+     *            The references of the form, already looked up
+     * @return Build Prescription
+     */
+    public Prescription build ( final PrescriptionForm form, final BuildContext context ) {
+        return build( form, context.getDrug( form.getDrug() ), context.getUser( form.getPatient() ) );
+    }
+
+    /**
+     * Builds a Prescription from the deserialised PrescriptionForm and the
+     * entities that it refers to
+     *
+     * @param form
+     *            Form to build a Prescription from
+     * @param drug
+     *            Drug prescribed
+     * @param patient
+     *            Patient it is prescribed to
+     * @return Build Prescription
+     */
+    private Prescription build ( final PrescriptionForm form, final Drug drug, final User patient ) {
         final Prescription pr = new Prescription();
 
-        pr.setDrug( drugService.findByCode( form.getDrug() ) );
+        pr.setDrug( drug );
         pr.setDosage( form.getDosage() );
         pr.setRenewals( form.getRenewals() );
-        pr.setPatient( userService.findByName( form.getPatient() ) );
+        pr.setPatient( patient );
 
         if ( form.getId() != null ) {
             pr.setId( form.getId() );
@@ -0,0 +1,282 @@
+package edu.ncsu.csc.iTrust2.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through cache of lookups of one type of reference data, such as Drugs
+ * or ICDCodes, which are read whenever a visit is documented but only change
+ * when an admin edits them. A Service opts in by returning one of these from
+ * `getCache()` (see ReferenceCaches); its lookups then go through `get()`, and
+ * saving or deleting anything through the Service clears the cache.
+ *
+ * Lookups that find nothing are cached too, so that a check for a code that
+ * doesn't exist doesn't go to the database every time either. Entries expire
+ * after a configurable time, which bounds how long a change made by another
+ * node, or directly in the database, can go unseen.
+ *
+ * Cached objects are shared between callers, so they shouldn't be changed
+ * other than to save them.
+ *
+ * @param <T>
+ *            Type of the cached objects
+ */
+public class ReferenceCache <T> {
+
+    /** Cached results, by lookup and key */
+    private final ConcurrentMap<String, Entry<T>> entries    = new ConcurrentHashMap<String, Entry<T>>();
+
+    /**
+     * Bumped on every invalidation, so that a lookup that started before one
+     * doesn't cache what it found after it
+     */
+    private final AtomicLong                      generation = new AtomicLong();
+
+    /** How long an entry is kept, in ms */
+    private final long                            ttlMillis;
+
+    /** Maximum number of entries */
+    private final int                             maxSize;
+
+    /** Lookups answered from the cache */
+    private final Counter                         hits;
+
+    /** Lookups that had to go to the database */
+    private final Counter                         misses;
+
+    /** Entries dropped because they expired, didn't fit, or were cleared */
+    private final Counter                         evictions;
+
+    /**
+     * Creates a ReferenceCache, and registers its metrics
+     *
+     * @param name
+     *            Name of the cache, used to tag its metrics
+     * @param ttlSeconds
+     *            How long an entry is kept, in seconds
+     * @param maxSize
+     *            Maximum number of entries
+     * @param meterRegistry
+     *            Registry the metrics are published to
+     */
+    public ReferenceCache ( final String name, final long ttlSeconds, final int maxSize,
+            final MeterRegistry meterRegistry ) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.hits = Counter.builder( "itrust2.reference.cache.hits" ).tag( "cache", name )
+                .description( "Lookups answered from the cache" ).register( meterRegistry );
+        this.misses = Counter.builder( "itrust2.reference.cache.misses" ).tag( "cache", name )
+                .description( "Lookups that went to the database" ).register( meterRegistry );
+        this.evictions = Counter.builder( "itrust2.reference.cache.evictions" ).tag( "cache", name )
+                .description( "Entries dropped from the cache" ).register( meterRegistry );
+        Gauge.builder( "itrust2.reference.cache.size", entries, Map::size ).tag( "cache", name )
+                .description( "Entries in the cache" ).register( meterRegistry );
+    }
+
+    /**
+     * Returns the cached result of a lookup, or performs the lookup and
+     * caches what it finds
+     *
+     * @param lookup
+     *            Name of the lookup, such as "id" or "code"
+     * @param key
+     *            Value being looked up
+     * @param loader
+     *            Performs the lookup on a miss
+     * @return The result, which may be null
+     */
+    public T get ( final String lookup, final Object key, final Supplier<T> loader ) {
+        final String cacheKey = lookup + ":" + key;
+        final long now = System.currentTimeMillis();
+        final Entry<T> cached = fresh( cacheKey, now );
+        if ( null != cached ) {
+            return cached.value;
+        }
+
+        misses.increment();
+        final long before = generation.get();
+        final T value = loader.get();
+        put( cacheKey, value, now, before );
+        return value;
+    }
+
+    /**
+     * Returns the cached results of a lookup of several keys at once. The keys
+     * that aren't cached are all looked up with one call to the loader, and
+     * what it finds is cached.
+     *
+     * @param <K>
+     *            Type of the keys
+     * @param lookup
+     *            Name of the lookup, such as "id" or "code"
+     * @param keys
+     *            Values being looked up
+     * @param loader
+     *            Performs the lookup of the keys that missed, returning what
+     *            it finds by key
+     * @return The result for every key, which is null for a key that nothing
+     *         was found for
+     */
+    public <K> Map<K, T> getAll ( final String lookup, final Collection<K> keys,
+            final Function<Set<K>, Map<K, T>> loader ) {
+        final long now = System.currentTimeMillis();
+        final Map<K, T> results = new HashMap<K, T>();
+        final Set<K> missed = new LinkedHashSet<K>();
+        for ( final K key : keys ) {
+            final Entry<T> cached = fresh( lookup + ":" + key, now );
+            if ( null != cached ) {
+                results.put( key, cached.value );
+            }
+            else {
+                missed.add( key );
+            }
+        }
+        if ( missed.isEmpty() ) {
+            return results;
+        }
+
+        misses.increment( missed.size() );
+        final long before = generation.get();
+        final Map<K, T> loaded = loader.apply( missed );
+        for ( final K key : missed ) {
+            final T value = loaded.get( key );
+            results.put( key, value );
+            put( lookup + ":" + key, value, now, before );
+        }
+        return results;
+    }
+
+    /**
+     * Clears the cache. Called whenever an object of the cached type is saved
+     * or deleted.
+     */
+    public void invalidate () {
+        generation.incrementAndGet();
+        final int size = entries.size();
+        entries.clear();
+        evictions.increment( size );
+    }
+
+    /**
+     * Returns the number of entries in the cache
+     *
+     * @return Number of entries
+     */
+    public int size () {
+        return entries.size();
+    }
+
+    /**
+     * Returns the entry for a key if it hasn't expired, counting the hit, and
+     * drops it if it has
+     *
+     * @param cacheKey
+     *            Lookup and key
+     * @param now
+     *            Current time, epoch ms
+     * @return The entry, or null if there is no entry that hasn't expired
+     */
+    private Entry<T> fresh ( final String cacheKey, final long now ) {
+        final Entry<T> cached = entries.get( cacheKey );
+        if ( null == cached ) {
+            return null;
+        }
+        if ( cached.expiresAt > now ) {
+            hits.increment();
+            return cached;
+        }
+        if ( entries.remove( cacheKey, cached ) ) {
+            evictions.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Caches the result of a lookup, unless the cache has been invalidated
+     * since the lookup started
+     *
+     * @param cacheKey
+     *            Lookup and key
+     * @param value
+     *            The result, which may be null
+     * @param now
+     *            Time the lookup started, epoch ms
+     * @param before
+     *            Generation when the lookup started
+     */
+    private void put ( final String cacheKey, final T value, final long now, final long before ) {
+        if ( entries.size() >= maxSize ) {
+            makeRoom( now );
+        }
+        entries.put( cacheKey, new Entry<T>( value, now + ttlMillis ) );
+        // Something was saved while we were looking; what we found may be stale
+        if ( generation.get() != before ) {
+            entries.remove( cacheKey );
+        }
+    }
+
+    /**
+     * Drops expired entries, and if that doesn't bring the cache under its
+     * maximum size, enough others to do so
+     *
+     * @param now
+     *            Current time, epoch ms
+     */
+    private void makeRoom ( final long now ) {
+        final Iterator<Entry<T>> it = entries.values().iterator();
+        while ( it.hasNext() ) {
+            if ( it.next().expiresAt <= now ) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+        final Iterator<String> keys = entries.keySet().iterator();
+        while ( entries.size() >= maxSize && keys.hasNext() ) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * The result of one lookup, and when it expires
+     *
+     * @param <T>
+     *            Type of the result
+     */
+    private static final class Entry <T> {
+
+        /** The result, or null if the lookup found nothing */
+        private final T    value;
+
+        /** When this entry expires, epoch ms */
+        private final long expiresAt;
+
+        /**
+         * Creates a cache entry
+         *
+         * @param value
+         *            The result, or null if the lookup found nothing
+         * @param expiresAt
+         *            When this entry expires, epoch ms
+         */
+        Entry ( final T value, final long expiresAt ) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
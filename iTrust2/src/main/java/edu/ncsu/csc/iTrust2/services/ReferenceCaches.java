@@ -0,0 +1,50 @@
+package edu.ncsu.csc.iTrust2.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds a ReferenceCache for each type of reference data that is cached, all
+ * sharing the same configuration. Services that cache their lookups return
+ * `get( Type.class )` from `getCache()`.
+ */
+@Component
+public class ReferenceCaches {
+
+    /** Registry that each cache's metrics are published to */
+    @Autowired
+    private MeterRegistry                                    meterRegistry;
+
+    /** How long a lookup is cached for, in seconds */
+    @Value ( "${itrust2.reference-cache.ttl-seconds:600}" )
+    private long                                             ttlSeconds;
+
+    /** Maximum number of lookups cached for each type */
+    @Value ( "${itrust2.reference-cache.max-size:10000}" )
+    private int                                              maxSize;
+
+    /** Caches, by the type they hold */
+    private final ConcurrentMap<Class<?>, ReferenceCache<?>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cache for a type, creating it if need be
+     *
+     * @param <T>
+     *            The type
+     * @param type
+     *            Class of the type
+     * @return The cache
+     */
+    @SuppressWarnings ( "unchecked" )
+    public <T> ReferenceCache<T> get ( final Class<T> type ) {
+        return (ReferenceCache<T>) caches.computeIfAbsent( type,
+                t -> new ReferenceCache<T>( t.getSimpleName(), ttlSeconds, maxSize, meterRegistry ) );
+    }
+
+}
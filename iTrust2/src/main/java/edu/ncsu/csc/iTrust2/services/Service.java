@@ -1,12 +1,23 @@
 package edu.ncsu.csc.iTrust2.services;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import edu.ncsu.csc.iTrust2.models.DomainObject;
+import edu.ncsu.csc.iTrust2.repositories.PagingRepository;
 
 /**
  * The Service class is responsible for providing CRUD operations against the
@@ -21,6 +32,11 @@ import edu.ncsu.csc.iTrust2.models.DomainObject;
  * IngredientRepository) with the `@Autowired` annotation on it. You'll also
  * need to implement `getRepository()` to return this field.
  *
+ * Services for reference data, that is read far more often than it changes,
+ * can also override `getCache()`. `findById()`, and any lookups that the
+ * subclass routes through `cached()`, are then answered from memory, and
+ * saving or deleting through the Service clears the cache.
+ *
  * @author Kai Presler-Marshall
  * @author Bruno Volpato
  * @param <T>
@@ -39,6 +55,87 @@ abstract public class Service <T extends DomainObject, K> {
      */
     abstract protected JpaRepository<T, K> getRepository ();
 
+    /**
+     * Returns the cache that lookups of this type go through. Override this
+     * (see ReferenceCaches) to cache them; by default nothing is cached.
+     *
+     * @return The cache, or null if lookups aren't cached
+     */
+    protected ReferenceCache<T> getCache () {
+        return null;
+    }
+
+    /**
+     * Performs a lookup through the cache, if there is one
+     *
+     * @param lookup
+     *            Name of the lookup, such as "code"
+     * @param key
+     *            Value being looked up
+     * @param loader
+     *            Performs the lookup against the database
+     * @return The result, which may be null
+     */
+    protected T cached ( final String lookup, final Object key, final Supplier<T> loader ) {
+        final ReferenceCache<T> cache = getCache();
+        return null == cache ? loader.get() : cache.get( lookup, key, loader );
+    }
+
+    /**
+     * Performs a lookup of several keys at once through the cache, if there is
+     * one
+     *
+     * @param <L>
+     *            Type of the keys
+     * @param lookup
+     *            Name of the lookup, such as "code"
+     * @param keys
+     *            Values being looked up
+     * @param loader
+     *            Looks up the keys that aren't cached against the database,
+     *            in one query, returning what it finds by key
+     * @return The result for every key, which is null for a key that nothing
+     *         was found for
+     */
+    protected <L> Map<L, T> cachedAll ( final String lookup, final Collection<L> keys,
+            final Function<Set<L>, Map<L, T>> loader ) {
+        final ReferenceCache<T> cache = getCache();
+        if ( null != cache ) {
+            return cache.getAll( lookup, keys, loader );
+        }
+        final Map<L, T> results = new HashMap<L, T>();
+        if ( keys.isEmpty() ) {
+            return results;
+        }
+        final Map<L, T> loaded = loader.apply( Set.copyOf( keys ) );
+        for ( final L key : keys ) {
+            results.put( key, loaded.get( key ) );
+        }
+        return results;
+    }
+
+    /**
+     * Clears the cache, if there is one, because something of this type has
+     * been saved or deleted. It is cleared again once the surrounding
+     * transaction ends, so that a lookup made before the change is committed
+     * can't leave the old version cached.
+     */
+    protected void invalidateCache () {
+        final ReferenceCache<T> cache = getCache();
+        if ( null == cache ) {
+            return;
+        }
+        cache.invalidate();
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization( new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion ( final int status ) {
+                    cache.invalidate();
+                }
+            } );
+        }
+    }
+
     /**
      * Saves the provided object into the database. If the object already
      * exists, `save()` will perform an in-place update, overwriting the
@@ -48,7 +145,12 @@ abstract public class Service <T extends DomainObject, K> {
      *            The object to save into the database.
      */
     public void save ( final T obj ) {
-        getRepository().saveAndFlush( obj );
+        try {
+            getRepository().saveAndFlush( obj );
+        }
+        finally {
+            invalidateCache();
+        }
     }
 
     /**
@@ -62,6 +164,25 @@ abstract public class Service <T extends DomainObject, K> {
         return getRepository().findAll();
     }
 
+    /**
+     * Returns one page of the records of this type. Prefer this to `findAll()`
+     * for anything that can grow without bound. If the Repository is a
+     * PagingRepository the page is found without counting the table;
+     * otherwise the Slice is a Page, which does.
+     *
+     * @param pageable
+     *            Page to find, and how to sort
+     * @return The page
+     */
+    @SuppressWarnings ( "unchecked" )
+    public Slice<T> findAll ( final Pageable pageable ) {
+        final JpaRepository<T, K> repository = getRepository();
+        if ( repository instanceof PagingRepository ) {
+            return ( (PagingRepository<T, K>) repository ).findAllBy( pageable );
+        }
+        return repository.findAll( pageable );
+    }
+
     /**
      * Saves a collection of elements to the database. If an error occurs saving
      * any of them, no objects will be saved. This makes it handy for ensuring
@@ -71,8 +192,13 @@ abstract public class Service <T extends DomainObject, K> {
      *            A List of objects to save to the database.
      */
     public void saveAll ( final List<T> objects ) {
-        getRepository().saveAll( objects );
-        getRepository().flush();
+        try {
+            getRepository().saveAll( objects );
+            getRepository().flush();
+        }
+        finally {
+            invalidateCache();
+        }
     }
 
     /**
@@ -84,7 +210,12 @@ abstract public class Service <T extends DomainObject, K> {
      *            The object to delete from the database.
      */
     public void delete ( final T obj ) {
-        getRepository().delete( obj );
+        try {
+            getRepository().delete( obj );
+        }
+        finally {
+            invalidateCache();
+        }
     }
 
     /**
@@ -93,7 +224,12 @@ abstract public class Service <T extends DomainObject, K> {
      * calling this.
      */
     public void deleteAll () {
-        getRepository().deleteAll();
+        try {
+            getRepository().deleteAll();
+        }
+        finally {
+            invalidateCache();
+        }
     }
 
     /**
@@ -143,11 +279,31 @@ abstract public class Service <T extends DomainObject, K> {
         if ( null == id ) {
             return null;
         }
-        final Optional<T> res = getRepository().findById( id );
-        if ( res.isPresent() ) {
-            return res.get();
-        }
-        return null;
+        return cached( "id", id, () -> {
+            final Optional<T> res = getRepository().findById( id );
+            if ( res.isPresent() ) {
+                return res.get();
+            }
+            return null;
+        } );
+    }
+
+    /**
+     * Finds the records with any of the given IDs, in one query (or none, for
+     * the records that are cached)
+     *
+     * @param ids
+     *            IDs of the records
+     * @return The record for every ID, which is null for an ID that has no
+     *         record
+     */
+    @SuppressWarnings ( "unchecked" )
+    public Map<K, T> findByIds ( final Collection<K> ids ) {
+        return cachedAll( "id", ids, missed -> {
+            final Map<K, T> found = new HashMap<K, T>();
+            getRepository().findAllById( missed ).forEach( e -> found.put( (K) e.getId(), e ) );
+            return found;
+        } );
     }
 
 }
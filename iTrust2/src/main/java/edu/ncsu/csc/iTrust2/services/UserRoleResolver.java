@@ -0,0 +1,162 @@
+package edu.ncsu.csc.iTrust2.services;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+import edu.ncsu.csc.iTrust2.repositories.UserRepository;
+
+/**
+ * Looks up the Roles of many Users at once, for views (such as a patient's
+ * access log) that show the role of every user on a page. All of the usernames
+ * that aren't already known are resolved in a single query, and the results
+ * are kept in a small cache that forgets entries after a short time. Anything
+ * that changes a User's roles should `evict()` that user.
+ */
+@Component
+public class UserRoleResolver {
+
+    /** Repository used to look up roles */
+    @Autowired
+    private UserRepository<User>           repository;
+
+    /** Maximum number of users whose roles are cached */
+    @Value ( "${itrust2.role-cache.max-size:1000}" )
+    private int                            maxSize;
+
+    /** How long roles are cached for, in seconds */
+    @Value ( "${itrust2.role-cache.ttl-seconds:300}" )
+    private long                           ttlSeconds;
+
+    /**
+     * Cached roles by username, least recently used first. Usernames that
+     * don't belong to any User are cached too, with no roles.
+     */
+    private final Map<String, CachedRoles> cache = new LinkedHashMap<String, CachedRoles>( 16, 0.75f, true );
+
+    /**
+     * Number of evictions so far. A lookup only caches what it found if there
+     * was no eviction while it was reading, since the roles it read may be the
+     * ones that were just changed. Guarded by the cache.
+     */
+    private long                           generation;
+
+    /**
+     * Finds the Roles of each of the given users. Usernames that don't belong
+     * to a User are left out of the result.
+     *
+     * @param usernames
+     *            Usernames to look up. Nulls are ignored.
+     * @return Roles of each User found, by username
+     */
+    @SuppressWarnings ( "unchecked" )
+    public Map<String, Set<Role>> resolve ( final Collection<String> usernames ) {
+        final Map<String, Set<Role>> resolved = new HashMap<String, Set<Role>>();
+        final Set<String> missing = new HashSet<String>();
+        final long now = System.currentTimeMillis();
+        final long before;
+
+        synchronized ( cache ) {
+            before = generation;
+            for ( final String username : usernames ) {
+                if ( null == username ) {
+                    continue;
+                }
+                final CachedRoles cached = cache.get( username );
+                if ( null != cached && cached.expiresAt > now ) {
+                    if ( null != cached.roles ) {
+                        resolved.put( username, cached.roles );
+                    }
+                }
+                else {
+                    missing.add( username );
+                }
+            }
+        }
+        if ( missing.isEmpty() ) {
+            return resolved;
+        }
+
+        final Map<String, Set<Role>> found = new HashMap<String, Set<Role>>();
+        for ( final Object[] row : repository.findRolesByUsernameIn( missing ) ) {
+            final Set<Role> roles = (Set<Role>) row[1];
+            if ( !roles.isEmpty() ) {
+                found.put( (String) row[0], roles );
+            }
+        }
+
+        synchronized ( cache ) {
+            final long expiresAt = now + ttlSeconds * 1000;
+            final boolean current = generation == before;
+            for ( final String username : missing ) {
+                final Set<Role> roles = found.containsKey( username )
+                        ? Collections.unmodifiableSet( found.get( username ) )
+                        : null;
+                if ( current ) {
+                    cache.put( username, new CachedRoles( roles, expiresAt ) );
+                }
+                if ( null != roles ) {
+                    resolved.put( username, roles );
+                }
+            }
+            final Iterator<String> eldest = cache.keySet().iterator();
+            while ( cache.size() > maxSize && eldest.hasNext() ) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Forgets the cached roles of a User. Call this whenever a User is
+     * created, updated, or deleted. A lookup that is already reading from the
+     * database when this is called won't cache what it reads.
+     *
+     * @param username
+     *            Username of the User that changed
+     */
+    public void evict ( final String username ) {
+        synchronized ( cache ) {
+            generation++;
+            cache.remove( username );
+        }
+    }
+
+    /**
+     * Roles of one User, and when they should be looked up again
+     */
+    private static final class CachedRoles {
+
+        /** The User's Roles, or null if there is no such User */
+        private final Set<Role> roles;
+
+        /** When this entry expires, in epoch milliseconds */
+        private final long      expiresAt;
+
+        /**
+         * Creates a cache entry
+         *
+         * @param roles
+         *            The User's Roles, or null if there is no such User
+         * @param expiresAt
+         *            When this entry expires, in epoch milliseconds
+         */
+        CachedRoles ( final Set<Role> roles, final long expiresAt ) {
+            this.roles = roles;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
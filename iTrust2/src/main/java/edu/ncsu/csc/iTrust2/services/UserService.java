@@ -55,4 +55,17 @@ public class UserService <T extends User> extends Service<T, String> {
         return repository.existsByUsername( name );
     }
 
+    /**
+     * Replaces the (hashed) password of a User
+     *
+     * @param username
+     *            Username of the User to update
+     * @param password
+     *            The _already encoded_ new password
+     * @return Whether a User was updated
+     */
+    public boolean updatePassword ( final String username, final String password ) {
+        return repository.updatePassword( username, password ) > 0;
+    }
+
 }
@@ -24,11 +24,20 @@ public class VaccineTypeService extends Service<VaccineType, Long> {
     @Autowired
     private VaccineTypeRepository repository;
 
+    /** Caches of reference data */
+    @Autowired
+    private ReferenceCaches       referenceCaches;
+
     @Override
     protected JpaRepository<VaccineType, Long> getRepository () {
         return repository;
     }
 
+    @Override
+    protected ReferenceCache<VaccineType> getCache () {
+        return referenceCaches.get( VaccineType.class );
+    }
+
     /**
      * Checks if a Vaccine with the provided code exists
      *
@@ -48,6 +57,6 @@ public class VaccineTypeService extends Service<VaccineType, Long> {
      * @return Vaccine, if found
      */
     public VaccineType findByName ( final String name ) {
-        return repository.findByName( name );
+        return cached( "name", name, () -> repository.findByName( name ) );
     }
 }
@@ -6,7 +6,6 @@ import java.util.List;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
 import edu.ncsu.csc.iTrust2.forms.VaccineVisitForm;
@@ -14,6 +13,7 @@ import edu.ncsu.csc.iTrust2.models.Patient;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.VaccineAppointmentRequest;
 import edu.ncsu.csc.iTrust2.models.VaccineVisit;
+import edu.ncsu.csc.iTrust2.repositories.PatientOwnedRepository;
 import edu.ncsu.csc.iTrust2.repositories.VaccineVisitRepository;
 
 /**
@@ -25,7 +25,7 @@ import edu.ncsu.csc.iTrust2.repositories.VaccineVisitRepository;
  */
 @Component
 @Transactional
-public class VaccineVisitService extends Service<VaccineVisit, Long> {
+public class VaccineVisitService extends PatientOwnedService<VaccineVisit> {
 
     /** Repository for CRUD tasks */
     @Autowired
@@ -46,7 +46,7 @@ public class VaccineVisitService extends Service<VaccineVisit, Long> {
     private VaccineTypeService               vaccineService;
 
     @Override
-    protected JpaRepository<VaccineVisit, Long> getRepository () {
+    protected PatientOwnedRepository<VaccineVisit> getRepository () {
         return repository;
     }
 
@@ -0,0 +1,274 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind pipeline for audit LogEntries. Callers hand entries to
+ * `submit()`, which places them into a bounded in-memory queue and returns
+ * immediately. A single background thread drains the queue and saves the
+ * entries in batches, so that the latency of a request no longer depends on how
+ * quickly the audit table accepts inserts.
+ *
+ * When the queue is full, the configured OverflowPolicy decides what happens:
+ * either the caller blocks until there is room, or the entry spills over and is
+ * written synchronously on the calling thread. Either way, no entry is dropped.
+ * Anything still queued when the application shuts down is flushed before the
+ * writer stops.
+ */
+@Component
+public class AuditLogWriter implements InitializingBean, DisposableBean {
+
+    /**
+     * What to do with a new entry when the queue is already full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Block the caller until the writer has made room in the queue
+         */
+        BLOCK,
+        /**
+         * Save the entry synchronously on the calling thread
+         */
+        SPILL
+    }
+
+    /** Logger, for reporting failed flushes */
+    private static final Logger     LOG    = LoggerFactory.getLogger( AuditLogWriter.class );
+
+    /** LogEntry service, used to save each batch */
+    @Autowired
+    private LogEntryService         service;
+
+    /** Registry that the queue depth and flush latency are published to */
+    @Autowired
+    private MeterRegistry           meterRegistry;
+
+    /** Whether entries are queued at all; if not, every entry is saved inline */
+    @Value ( "${itrust2.audit.async:true}" )
+    private boolean                 async;
+
+    /** Maximum number of entries waiting to be written */
+    @Value ( "${itrust2.audit.queue-capacity:10000}" )
+    private int                     queueCapacity;
+
+    /** Maximum number of entries written in one batch */
+    @Value ( "${itrust2.audit.batch-size:500}" )
+    private int                     batchSize;
+
+    /** How long the writer waits for more entries before flushing, in ms */
+    @Value ( "${itrust2.audit.flush-interval-ms:250}" )
+    private long                    flushIntervalMs;
+
+    /** What to do when the queue is full */
+    @Value ( "${itrust2.audit.overflow:BLOCK}" )
+    private OverflowPolicy          overflow;
+
+    /** Entries waiting to be written */
+    private BlockingQueue<LogEntry> queue;
+
+    /** Background thread that drains the queue */
+    private Thread                  writer;
+
+    /** Set once the application starts shutting down */
+    private volatile boolean        stopping;
+
+    /** Time taken to write each batch */
+    private Timer                   flushTimer;
+
+    /**
+     * Number of entries that have been queued. Only counted once an entry is
+     * in the queue, so that flush() never waits on one that spilled instead.
+     */
+    private final AtomicLong        queued = new AtomicLong();
+
+    /**
+     * Number of queued entries that have been written (or failed to be), so
+     * that flush() can tell when nothing is left in flight. As an entry can be
+     * taken off the queue before it is counted in `queued`, this may briefly
+     * be ahead of it. Guarded by this.
+     */
+    private long                    written;
+
+    @Override
+    public void afterPropertiesSet () {
+        queue = new ArrayBlockingQueue<LogEntry>( queueCapacity );
+        meterRegistry.gauge( "itrust2.audit.queue.depth", queue, BlockingQueue::size );
+        flushTimer = Timer.builder( "itrust2.audit.flush" ).description( "Time taken to write a batch of LogEntries" )
+                .register( meterRegistry );
+
+        if ( async ) {
+            writer = new Thread( this::run, "audit-log-writer" );
+            writer.setDaemon( true );
+            writer.start();
+        }
+    }
+
+    /**
+     * Hands a LogEntry off to be written. Returns as soon as the entry has been
+     * queued, unless the queue is full (see OverflowPolicy) or the writer is
+     * not running, in which case the entry is saved before returning.
+     *
+     * @param entry
+     *            The LogEntry to write
+     */
+    public void submit ( final LogEntry entry ) {
+        submitAll( Collections.singletonList( entry ) );
+    }
+
+    /**
+     * Hands several LogEntries off to be written, as `submit()` does for one.
+     * Any entries that have to be saved before returning (because the queue is
+     * full or the writer is not running) are saved together, as one batch in
+     * one transaction.
+     *
+     * @param entries
+     *            The LogEntries to write
+     */
+    public void submitAll ( final Collection<LogEntry> entries ) {
+        if ( !async || stopping ) {
+            service.saveAll( new ArrayList<LogEntry>( entries ) );
+            return;
+        }
+        final List<LogEntry> spilled = new ArrayList<LogEntry>();
+        for ( final LogEntry entry : entries ) {
+            // Counted once it is queued, and before this returns, so a flush()
+            // that starts after this returns waits for it
+            if ( queue.offer( entry ) ) {
+                queued.incrementAndGet();
+                continue;
+            }
+            if ( OverflowPolicy.SPILL.equals( overflow ) ) {
+                spilled.add( entry );
+                continue;
+            }
+            try {
+                queue.put( entry );
+                queued.incrementAndGet();
+            }
+            catch ( final InterruptedException ie ) {
+                Thread.currentThread().interrupt();
+                spilled.add( entry );
+            }
+        }
+        if ( !spilled.isEmpty() ) {
+            service.saveAll( spilled );
+        }
+    }
+
+    /**
+     * Writes everything that was queued before the call, including any batch
+     * the background writer is part way through, before returning. Used on
+     * shutdown, and by anything (such as tests, before they clear the
+     * database) that must not have entries land after it returns.
+     */
+    public synchronized void flush () {
+        final long target = queued.get();
+        final List<LogEntry> batch = new ArrayList<LogEntry>( batchSize );
+        while ( written < target ) {
+            if ( queue.drainTo( batch, batchSize ) > 0 ) {
+                write( batch );
+                written += batch.size();
+                batch.clear();
+                continue;
+            }
+            // The rest is with the background writer, which notifies when done
+            try {
+                wait( flushIntervalMs );
+            }
+            catch ( final InterruptedException ie ) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries waiting to be written
+     *
+     * @return Current queue depth
+     */
+    public int getQueueDepth () {
+        return queue.size();
+    }
+
+    /**
+     * Main loop of the background writer. Waits for at least one entry, then
+     * picks up anything else that is already waiting (up to the batch size)
+     * and writes the lot together. Only counting the batch as written takes
+     * the lock, so a flush() never holds up the writer's polling.
+     */
+    private void run () {
+        while ( !stopping ) {
+            final LogEntry first;
+            try {
+                first = queue.poll( flushIntervalMs, TimeUnit.MILLISECONDS );
+            }
+            catch ( final InterruptedException ie ) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if ( null == first ) {
+                continue;
+            }
+            final List<LogEntry> batch = new ArrayList<LogEntry>( batchSize );
+            batch.add( first );
+            queue.drainTo( batch, batchSize - 1 );
+            write( batch );
+            synchronized ( this ) {
+                written += batch.size();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Saves a batch of LogEntries in a single transaction, recording how long
+     * it took. A failed batch is reported rather than retried, so that one bad
+     * entry can't wedge the writer.
+     *
+     * @param batch
+     *            Entries to save
+     */
+    private void write ( final List<LogEntry> batch ) {
+        final long start = System.nanoTime();
+        try {
+            service.saveAll( batch );
+        }
+        catch ( final Exception e ) {
+            LOG.error( "Unable to write " + batch.size() + " audit log entries", e );
+        }
+        finally {
+            flushTimer.record( System.nanoTime() - start, TimeUnit.NANOSECONDS );
+        }
+    }
+
+    @Override
+    public void destroy () throws InterruptedException {
+        stopping = true;
+        if ( null != writer ) {
+            writer.interrupt();
+            writer.join( TimeUnit.SECONDS.toMillis( 10 ) );
+        }
+        flush();
+    }
+
+}
@@ -0,0 +1,55 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
+
+/**
+ * Provides the User that is currently logged in. The User is looked up the
+ * first time it is asked for during a request and kept on the request, so that
+ * a handler (and the services it calls) can ask for it as often as it likes
+ * for the cost of one query.
+ *
+ * Outside of a request (e.g., in a scheduled job) nothing is kept, and every
+ * call looks the User up again.
+ */
+@Component
+public class CurrentUserProvider {
+
+    /** Name of the request attribute that the User is kept in */
+    private static final String ATTRIBUTE = CurrentUserProvider.class.getName() + ".user";
+
+    /** User service, to look up the User */
+    @Autowired
+    private UserService<User>   userService;
+
+    /**
+     * Gets the User that is currently logged in
+     *
+     * @return The current User, or null if there is no such User
+     */
+    public User get () {
+        final String username = LoggerUtil.currentUser();
+        final RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if ( null == request ) {
+            return userService.findByName( username );
+        }
+
+        final Object kept = request.getAttribute( ATTRIBUTE, RequestAttributes.SCOPE_REQUEST );
+        // Who is logged in can change mid-request (e.g., when logging in)
+        if ( kept instanceof User && username.equals( ( (User) kept ).getUsername() ) ) {
+            return (User) kept;
+        }
+        final User user = userService.findByName( username );
+        if ( null != user ) {
+            request.setAttribute( ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST );
+        }
+        return user;
+    }
+
+}
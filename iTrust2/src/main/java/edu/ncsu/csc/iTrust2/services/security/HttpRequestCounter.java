@@ -0,0 +1,187 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+
+/**
+ * Aggregates HTTP_REQUEST audit events. Rather than writing a LogEntry for
+ * every request, requests are counted in memory per user, method, endpoint
+ * (the URI template, not the concrete URI), response code and minute. Once a
+ * minute has passed, each of its counters is written as a single summary
+ * LogEntry, timestamped at the start of the minute.
+ *
+ * Only HTTP_REQUEST events are aggregated; every other TransactionType is still
+ * logged individually through LoggerUtil.
+ */
+@Component
+public class HttpRequestCounter implements DisposableBean {
+
+    /**
+     * Identifies one counter: everything about a request that is kept once it
+     * has been aggregated
+     */
+    private static final class Bucket {
+
+        /** User (and address) that made the requests */
+        private final String        user;
+
+        /** HTTP method of the requests */
+        private final String        method;
+
+        /** URI template of the endpoint that handled the requests */
+        private final String        endpoint;
+
+        /** Response code that was sent */
+        private final int           status;
+
+        /** Minute the requests were made in */
+        private final ZonedDateTime minute;
+
+        /**
+         * Creates a Bucket
+         *
+         * @param user
+         *            User that made the requests
+         * @param method
+         *            HTTP method
+         * @param endpoint
+         *            URI template of the endpoint
+         * @param status
+         *            Response code
+         * @param minute
+         *            Minute the requests were made in
+         */
+        private Bucket ( final String user, final String method, final String endpoint, final int status,
+                final ZonedDateTime minute ) {
+            this.user = user;
+            this.method = method;
+            this.endpoint = endpoint;
+            this.status = status;
+            this.minute = minute;
+        }
+
+        @Override
+        public boolean equals ( final Object obj ) {
+            if ( this == obj ) {
+                return true;
+            }
+            if ( ! ( obj instanceof Bucket ) ) {
+                return false;
+            }
+            final Bucket other = (Bucket) obj;
+            return status == other.status && Objects.equals( user, other.user ) && method.equals( other.method )
+                    && endpoint.equals( other.endpoint ) && minute.equals( other.minute );
+        }
+
+        @Override
+        public int hashCode () {
+            return Objects.hash( user, method, endpoint, status, minute );
+        }
+    }
+
+    /** Background writer the summary entries are handed to */
+    @Autowired
+    private AuditLogWriter                    writer;
+
+    /** Number of requests seen in each bucket that hasn't been written yet */
+    private final ConcurrentMap<Bucket, Long> counts = new ConcurrentHashMap<Bucket, Long>();
+
+    /** Clock that decides which minute a request is counted in */
+    private Clock                             clock  = Clock.systemDefaultZone();
+
+    /**
+     * Counts one request
+     *
+     * @param user
+     *            User (and address) that made the request
+     * @param method
+     *            HTTP method of the request
+     * @param endpoint
+     *            URI template of the endpoint that handled the request
+     * @param status
+     *            Response code that was sent
+     */
+    public void count ( final String user, final String method, final String endpoint, final int status ) {
+        final Bucket bucket = new Bucket( user, method, endpoint, status,
+                ZonedDateTime.now( clock ).truncatedTo( ChronoUnit.MINUTES ) );
+        counts.merge( bucket, 1L, Long::sum );
+    }
+
+    /**
+     * Writes out every bucket for a minute that has already ended. Buckets for
+     * the current minute are left to keep counting.
+     */
+    @Scheduled ( fixedDelayString = "${itrust2.audit.http.flush-interval-ms:60000}" )
+    public void flushClosed () {
+        flush( ZonedDateTime.now( clock ).truncatedTo( ChronoUnit.MINUTES ) );
+    }
+
+    /**
+     * Writes out every bucket, including the current minute's. Used on
+     * shutdown, and by anything (such as tests) that needs to read back what
+     * was just counted.
+     */
+    public void flush () {
+        flush( null );
+    }
+
+    /**
+     * Writes a summary LogEntry for every bucket from before a given minute.
+     * Each bucket is removed atomically as it is written, so a request counted
+     * at the same time ends up in a new bucket rather than being lost.
+     *
+     * @param before
+     *            Only buckets from before this minute are written, or null
+     *            for all of them
+     */
+    private void flush ( final ZonedDateTime before ) {
+        final List<Bucket> closed = new ArrayList<Bucket>();
+        for ( final Bucket bucket : counts.keySet() ) {
+            if ( null == before || bucket.minute.isBefore( before ) ) {
+                closed.add( bucket );
+            }
+        }
+        for ( final Bucket bucket : closed ) {
+            final Long count = counts.remove( bucket );
+            if ( null == count ) {
+                continue;
+            }
+            final LogEntry le = new LogEntry( TransactionType.HTTP_REQUEST, bucket.user, null,
+                    "Request " + bucket.method + " " + bucket.endpoint + ", response code: " + bucket.status
+                            + ", count: " + count );
+            le.setTime( bucket.minute );
+            writer.submit( le );
+        }
+    }
+
+    /**
+     * Sets the clock that decides which minute a request is counted in, so
+     * that tests can count requests within a known minute
+     *
+     * @param clock
+     *            The clock to use
+     */
+    public void setClock ( final Clock clock ) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void destroy () {
+        flush();
+    }
+
+}
@@ -0,0 +1,350 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.security.SecurityEvent;
+
+/**
+ * In-memory cache of whether each IP address is banned or locked out, so that
+ * the IPFilter can answer for most requests without going to the database.
+ *
+ * A decision that an address is locked out is kept until the lockout ends.
+ * Any other decision is kept for a configurable time, after which it is
+ * checked against the database again. The login flow (FailureHandler) updates
+ * the cache as soon as it bans or locks out an address, so those take effect
+ * immediately on this node.
+ *
+ * When there are several nodes, each has a cache of its own. Every ban,
+ * lockout or clear made through this class is also recorded as a
+ * SecurityEvent, and each node polls for recent events and applies them, so
+ * that an address banned on one node is banned on all of them within the
+ * polling interval. The expiry of decisions is then only a backstop, for
+ * changes made to the database directly or events that were missed.
+ *
+ * The same events reset each node's LoginAttemptCounter: once an address or
+ * user is locked out, banned or logs in successfully, its failed logins start
+ * over on every node, not just the one that handled the login.
+ */
+@Component
+public class IPDecisionCache {
+
+    /**
+     * Whether an address is banned or locked out, and until when we can rely
+     * on that
+     */
+    private static final class Decision {
+
+        /** Whether the address is banned */
+        private final boolean banned;
+
+        /** When the address's lockout ends (epoch ms), or 0 if not locked */
+        private final long    lockedUntil;
+
+        /** When this decision has to be checked again (epoch ms) */
+        private final long    expiresAt;
+
+        /**
+         * Creates a Decision
+         *
+         * @param banned
+         *            Whether the address is banned
+         * @param lockedUntil
+         *            When the address's lockout ends, or 0 if not locked
+         * @param expiresAt
+         *            When this decision has to be checked again
+         */
+        private Decision ( final boolean banned, final long lockedUntil, final long expiresAt ) {
+            this.banned = banned;
+            this.lockedUntil = lockedUntil;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** LoginBan service, to check for bans on a miss */
+    @Autowired
+    private LoginBanService                       loginBanService;
+
+    /** LoginLockout service, to check for lockouts on a miss */
+    @Autowired
+    private LoginLockoutService                   loginLockoutService;
+
+    /** Failed login counts, reset when another node locks or clears them */
+    @Autowired
+    private LoginAttemptCounter                   loginAttempts;
+
+    /** SecurityEvent service, to share changes with the other nodes */
+    @Autowired
+    private SecurityEventService                  securityEventService;
+
+    /** How long a decision other than a lockout is kept, in seconds */
+    @Value ( "${itrust2.ip-cache.ttl-seconds:300}" )
+    private long                                  ttlSeconds;
+
+    /** How often recent SecurityEvents are polled for, in ms */
+    @Value ( "${itrust2.security-events.poll-interval-ms:2000}" )
+    private long                                  pollIntervalMs;
+
+    /**
+     * How far back past the last poll each poll looks, in seconds, so that
+     * events which were committed late (or recorded by a node with a slightly
+     * different clock) are still seen
+     */
+    @Value ( "${itrust2.security-events.overlap-seconds:60}" )
+    private long                                  overlapSeconds;
+
+    /** Decisions, by IP address */
+    private final ConcurrentMap<String, Decision> decisions = new ConcurrentHashMap<String, Decision>();
+
+    /**
+     * IDs of the SecurityEvents already applied, with the time each was
+     * recorded (epoch ms), so that polls that overlap don't apply an event
+     * twice
+     */
+    private final ConcurrentMap<Long, Long>       applied   = new ConcurrentHashMap<Long, Long>();
+
+    /**
+     * Checks if an IP address is banned
+     *
+     * @param ipAddress
+     *            IP address to check
+     * @return Ban status
+     */
+    public boolean isIPBanned ( final String ipAddress ) {
+        return decide( ipAddress ).banned;
+    }
+
+    /**
+     * Checks if an IP address is locked out
+     *
+     * @param ipAddress
+     *            IP address to check
+     * @return Lockout status
+     */
+    public boolean isIPLocked ( final String ipAddress ) {
+        return decide( ipAddress ).lockedUntil > System.currentTimeMillis();
+    }
+
+    /**
+     * Records that an IP address has just been banned, and tells the other
+     * nodes
+     *
+     * @param ipAddress
+     *            The banned address
+     */
+    public void banned ( final String ipAddress ) {
+        applyBan( ipAddress );
+        markApplied( securityEventService.publish( SecurityEvent.Type.IP_BANNED, ipAddress, null ) );
+    }
+
+    /**
+     * Records that an IP address has just been locked out, and tells the other
+     * nodes
+     *
+     * @param ipAddress
+     *            The locked out address
+     * @param until
+     *            When the lockout ends
+     */
+    public void locked ( final String ipAddress, final ZonedDateTime until ) {
+        applyLock( ipAddress, until );
+        markApplied( securityEventService.publish( SecurityEvent.Type.IP_LOCKED, ipAddress, until ) );
+    }
+
+    /**
+     * Records that an IP address has just logged in successfully, which clears
+     * its failed logins and makes sure no ban or lockout on it is cached, and
+     * tells the other nodes
+     *
+     * @param ipAddress
+     *            The cleared address
+     */
+    public void cleared ( final String ipAddress ) {
+        clearIP( ipAddress );
+        markApplied( securityEventService.publish( SecurityEvent.Type.IP_CLEARED, ipAddress, null ) );
+    }
+
+    /**
+     * Records that a user has just been locked out or banned, which starts
+     * their failed logins over, and tells the other nodes
+     *
+     * @param username
+     *            The locked out user
+     */
+    public void userLocked ( final String username ) {
+        loginAttempts.clearUser( username );
+        markApplied( securityEventService.publishForUser( SecurityEvent.Type.USER_LOCKED, username ) );
+    }
+
+    /**
+     * Records that a user has just logged in successfully, which clears their
+     * failed logins, and tells the other nodes
+     *
+     * @param username
+     *            The cleared user
+     */
+    public void userCleared ( final String username ) {
+        loginAttempts.clearUser( username );
+        markApplied( securityEventService.publishForUser( SecurityEvent.Type.USER_CLEARED, username ) );
+    }
+
+    /**
+     * Forgets the decision for an IP address, so that it is checked against
+     * the database next time
+     *
+     * @param ipAddress
+     *            The address to forget
+     */
+    public void evict ( final String ipAddress ) {
+        decisions.remove( ipAddress );
+    }
+
+    /**
+     * Removes decisions that have expired, so that addresses which are no
+     * longer seen don't take up space
+     */
+    @Scheduled ( fixedDelayString = "${itrust2.ip-cache.sweep-interval-ms:60000}" )
+    public void sweep () {
+        final long now = System.currentTimeMillis();
+        decisions.values().removeIf( d -> d.expiresAt <= now );
+    }
+
+    /**
+     * Applies the SecurityEvents recorded since the last poll (by this node or
+     * any other) that haven't been applied yet, in the order they were
+     * recorded
+     */
+    @Scheduled ( fixedDelayString = "${itrust2.security-events.poll-interval-ms:2000}" )
+    public void poll () {
+        final ZonedDateTime since = ZonedDateTime.now().minusSeconds( overlapSeconds )
+                .minusNanos( TimeUnit.MILLISECONDS.toNanos( pollIntervalMs ) );
+        final List<SecurityEvent> events = securityEventService.findSince( since );
+        for ( final SecurityEvent event : events ) {
+            if ( !markApplied( event ) ) {
+                continue;
+            }
+            switch ( event.getType() ) {
+                case IP_BANNED:
+                    applyBan( event.getIp() );
+                    loginAttempts.clearIP( event.getIp() );
+                    break;
+                case IP_LOCKED:
+                    // A ban outlasts any lockout, so don't replace one
+                    final Decision current = decisions.get( event.getIp() );
+                    if ( null == current || !current.banned ) {
+                        applyLock( event.getIp(), event.getLockedUntil() );
+                    }
+                    loginAttempts.clearIP( event.getIp() );
+                    break;
+                case IP_CLEARED:
+                    clearIP( event.getIp() );
+                    break;
+                case USER_LOCKED:
+                case USER_CLEARED:
+                    loginAttempts.clearUser( event.getUsername() );
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Events from before this poll's window can't be returned again
+        final long cutoff = since.toInstant().toEpochMilli();
+        applied.values().removeIf( time -> time < cutoff );
+    }
+
+    /**
+     * Forgets the decision and the failed logins for an IP address
+     *
+     * @param ipAddress
+     *            The cleared address
+     */
+    private void clearIP ( final String ipAddress ) {
+        evict( ipAddress );
+        loginAttempts.clearIP( ipAddress );
+    }
+
+    /**
+     * Caches a ban for an IP address
+     *
+     * @param ipAddress
+     *            The banned address
+     */
+    private void applyBan ( final String ipAddress ) {
+        decisions.put( ipAddress, new Decision( true, 0, expiry() ) );
+    }
+
+    /**
+     * Caches a lockout for an IP address
+     *
+     * @param ipAddress
+     *            The locked out address
+     * @param until
+     *            When the lockout ends
+     */
+    private void applyLock ( final String ipAddress, final ZonedDateTime until ) {
+        final long end = until.toInstant().toEpochMilli();
+        decisions.put( ipAddress, new Decision( false, end, end ) );
+    }
+
+    /**
+     * Notes that an event has been applied
+     *
+     * @param event
+     *            The event
+     * @return Whether it had not been applied already
+     */
+    private boolean markApplied ( final SecurityEvent event ) {
+        return null == applied.putIfAbsent( event.getId(), event.getTime().toInstant().toEpochMilli() );
+    }
+
+    /**
+     * Finds the decision for an IP address, checking the database if there
+     * isn't one or it has expired
+     *
+     * @param ipAddress
+     *            The address
+     * @return The decision
+     */
+    private Decision decide ( final String ipAddress ) {
+        final Decision cached = decisions.get( ipAddress );
+        if ( null != cached && cached.expiresAt > System.currentTimeMillis() ) {
+            return cached;
+        }
+
+        final boolean banned = loginBanService.isIPBanned( ipAddress );
+        final ZonedDateTime until = banned ? null : loginLockoutService.getIPLockedUntil( ipAddress );
+        final Decision decision;
+        if ( null != until ) {
+            final long end = until.toInstant().toEpochMilli();
+            decision = new Decision( false, end, end );
+        }
+        else {
+            decision = new Decision( banned, 0, expiry() );
+        }
+        // Don't overwrite a ban or lockout recorded while we were checking
+        if ( null == cached ? null == decisions.putIfAbsent( ipAddress, decision )
+                : decisions.replace( ipAddress, cached, decision ) ) {
+            return decision;
+        }
+        return decisions.getOrDefault( ipAddress, decision );
+    }
+
+    /**
+     * Returns when a decision made now (other than a lockout) expires
+     *
+     * @return Expiry time, epoch ms
+     */
+    private long expiry () {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis( ttlSeconds );
+    }
+
+}
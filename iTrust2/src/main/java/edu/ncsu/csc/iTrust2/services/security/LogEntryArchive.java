@@ -0,0 +1,273 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.models.security.ArchivedLogEntry;
+import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import edu.ncsu.csc.iTrust2.repositories.security.ArchivedLogEntryRepository;
+import edu.ncsu.csc.iTrust2.repositories.security.LogEntryRepository;
+
+/**
+ * Cold tier of the audit log. LogEntries older than the hot window (the
+ * current month plus the configured number of months before it) are moved out
+ * of the log_entry table by LogEntryArchiveJob and into the archive, which is
+ * a table of its own with the same columns and indexes. The log that every
+ * request writes to and reads from stays the size of the hot window, while
+ * archived entries can still be found, by user, with the same indexed
+ * queries.
+ *
+ * Everything that is archived is older than the hot cutoff, so LogEntryService
+ * only consults the archive when a query reaches back past it.
+ */
+@Component
+@Transactional
+public class LogEntryArchive {
+
+    /** LogEntry repository, to find and remove entries being archived */
+    @Autowired
+    private LogEntryRepository         repository;
+
+    /** ArchivedLogEntry repository, holding the archive */
+    @Autowired
+    private ArchivedLogEntryRepository archiveRepository;
+
+    /** EntityManager, used to let go of entries once they have been exported */
+    @PersistenceContext
+    private EntityManager              entityManager;
+
+    /** Number of full months, before the current one, kept in the log */
+    @Value ( "${itrust2.audit.archive.hot-months:12}" )
+    private int                        hotMonths;
+
+    /**
+     * Returns the oldest time still kept in the log; anything older is moved
+     * to the archive the next time the retention job runs. Raising hot-months
+     * doesn't bring archived entries back.
+     *
+     * @return Start of the hot window
+     */
+    public ZonedDateTime getHotCutoff () {
+        return YearMonth.now().minusMonths( hotMonths ).atDay( 1 ).atStartOfDay( ZoneId.systemDefault() );
+    }
+
+    /**
+     * Checks whether the archive could hold any entry at or after the given
+     * time
+     *
+     * @param from
+     *            Oldest time a query covers, or null for no limit
+     * @return true if `from` is before the hot cutoff
+     */
+    public boolean holds ( final ZonedDateTime from ) {
+        return null == from || from.isBefore( getHotCutoff() );
+    }
+
+    /**
+     * Moves one chunk of the entries from before a cutoff out of the log and
+     * into the archive. The copy and the delete are made in one transaction,
+     * so an interrupted move leaves every entry in exactly one of the two;
+     * entries that are somehow in both are only archived once.
+     *
+     * @param cutoff
+     *            Entries from before this time are moved
+     * @param chunkSize
+     *            Maximum number of entries to move
+     * @return The number of entries moved; 0 once there are none left
+     */
+    public int moveBefore ( final ZonedDateTime cutoff, final int chunkSize ) {
+        final List<Long> ids = repository.findIdsByTimeBefore( cutoff, PageRequest.of( 0, chunkSize ) );
+        if ( ids.isEmpty() ) {
+            return 0;
+        }
+        archiveRepository.copyFromLog( ids );
+        return repository.deleteByIdIn( ids );
+    }
+
+    /**
+     * Finds every archived LogEntry for a user, where they are the primary or
+     * secondary user
+     *
+     * @param user
+     *            User to find entries for
+     * @return Matching LogEntries
+     */
+    public List<LogEntry> findAllForUser ( final String user ) {
+        return toLogEntries( archiveRepository.findByPrimaryUserOrSecondaryUser( user ) );
+    }
+
+    /**
+     * Finds archived LogEntries for a user within a date range, where they are
+     * the primary or secondary user
+     *
+     * @param user
+     *            User to find entries for
+     * @param startDate
+     *            Start date (inclusive)
+     * @param endDate
+     *            End date (inclusive)
+     * @return Matching LogEntries
+     */
+    public List<LogEntry> findByDateRange ( final String user, final ZonedDateTime startDate,
+            final ZonedDateTime endDate ) {
+        final List<LogEntry> entries = toLogEntries(
+                archiveRepository.findByPrimaryUserAndTimeBetween( user, startDate, endDate ) );
+        entries.addAll(
+                toLogEntries( archiveRepository.findBySecondaryUserAndTimeBetween( user, startDate, endDate ) ) );
+        return entries;
+    }
+
+    /**
+     * Finds one page of archived LogEntries for a user, newest first, starting
+     * just after the entry identified by `beforeTime` and `beforeId`. See
+     * `LogEntryService.findPageForUser`.
+     *
+     * @param user
+     *            User to find entries for, as either the primary or secondary
+     *            user
+     * @param codes
+     *            The types of entry to include
+     * @param startDate
+     *            Oldest time (inclusive) to include
+     * @param beforeTime
+     *            Time of the last entry on the previous page
+     * @param beforeId
+     *            ID of the last entry on the previous page
+     * @param pageLength
+     *            Maximum number of entries to return from each user column
+     * @return Matching LogEntries, in no particular order
+     */
+    public List<LogEntry> findPageForUser ( final String user, final Collection<TransactionType> codes,
+            final ZonedDateTime startDate, final ZonedDateTime beforeTime, final Long beforeId,
+            final int pageLength ) {
+        final Pageable limit = PageRequest.of( 0, pageLength );
+        final List<LogEntry> entries = toLogEntries(
+                archiveRepository.findPageByPrimaryUser( user, codes, startDate, beforeTime, beforeId, limit ) );
+        entries.addAll( toLogEntries(
+                archiveRepository.findPageBySecondaryUser( user, codes, startDate, beforeTime, beforeId, limit ) ) );
+        return entries;
+    }
+
+    /**
+     * Finds one page of the archived LogEntries where the given user is the
+     * primary user, newest first
+     *
+     * @param user
+     *            User to find entries for
+     * @param pageable
+     *            Which page to find
+     * @return Matching LogEntries
+     */
+    public List<LogEntry> findRecentByPrimaryUser ( final String user, final Pageable pageable ) {
+        return toLogEntries( archiveRepository.findByPrimaryUserOrderByTimeDescIdDesc( user, pageable ) );
+    }
+
+    /**
+     * Finds one page of the archived LogEntries where the given user is the
+     * secondary user, newest first
+     *
+     * @param user
+     *            User to find entries for
+     * @param pageable
+     *            Which page to find
+     * @return Matching LogEntries
+     */
+    public List<LogEntry> findRecentBySecondaryUser ( final String user, final Pageable pageable ) {
+        return toLogEntries( archiveRepository.findBySecondaryUserOrderByTimeDescIdDesc( user, pageable ) );
+    }
+
+    /**
+     * Finds the next archived LogEntries where the given user is the primary
+     * user, newest first, starting just after the entry identified by
+     * `beforeTime` and `beforeId`
+     *
+     * @param user
+     *            User to find entries for
+     * @param beforeTime
+     *            Time of the last entry already read
+     * @param beforeId
+     *            ID of the last entry already read
+     * @param pageable
+     *            Limits the number of entries returned
+     * @return Matching LogEntries
+     */
+    public List<LogEntry> findByPrimaryUserBefore ( final String user, final ZonedDateTime beforeTime,
+            final Long beforeId, final Pageable pageable ) {
+        return toLogEntries( archiveRepository.findByPrimaryUserBefore( user, beforeTime, beforeId, pageable ) );
+    }
+
+    /**
+     * Finds the next archived LogEntries where the given user is the secondary
+     * user, newest first, starting just after the entry identified by
+     * `beforeTime` and `beforeId`
+     *
+     * @param user
+     *            User to find entries for
+     * @param beforeTime
+     *            Time of the last entry already read
+     * @param beforeId
+     *            ID of the last entry already read
+     * @param pageable
+     *            Limits the number of entries returned
+     * @return Matching LogEntries
+     */
+    public List<LogEntry> findBySecondaryUserBefore ( final String user, final ZonedDateTime beforeTime,
+            final Long beforeId, final Pageable pageable ) {
+        return toLogEntries( archiveRepository.findBySecondaryUserBefore( user, beforeTime, beforeId, pageable ) );
+    }
+
+    /**
+     * Passes every archived LogEntry within a date range to a consumer, one at
+     * a time and oldest first, without holding more than one in memory
+     *
+     * @param from
+     *            Oldest time (inclusive) to include
+     * @param to
+     *            Newest time (inclusive) to include
+     * @param consumer
+     *            Receives each matching entry
+     */
+    public void forEach ( final ZonedDateTime from, final ZonedDateTime to, final Consumer<LogEntry> consumer ) {
+        try ( Stream<ArchivedLogEntry> entries = archiveRepository.streamByTimeBetweenOrderByTimeAscIdAsc( from,
+                to ) ) {
+            final Iterator<ArchivedLogEntry> it = entries.iterator();
+            while ( it.hasNext() ) {
+                final ArchivedLogEntry archived = it.next();
+                entityManager.detach( archived );
+                consumer.accept( archived.toLogEntry() );
+            }
+        }
+    }
+
+    /**
+     * Converts archived entries to LogEntries
+     *
+     * @param archived
+     *            Archived entries
+     * @return The LogEntries, in the same order
+     */
+    private static List<LogEntry> toLogEntries ( final List<ArchivedLogEntry> archived ) {
+        return archived.stream().map( ArchivedLogEntry::toLogEntry )
+                .collect( Collectors.toCollection( ArrayList::new ) );
+    }
+
+}
@@ -0,0 +1,82 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.services.JobLockService;
+
+/**
+ * Retention job for the audit log. Moves every LogEntry older than the hot
+ * window into the LogEntryArchive, a chunk at a time, each chunk in a
+ * transaction of its own so that the job never holds locks on a large part of
+ * the log while entries are being written.
+ *
+ * Every node schedules the job, but it only runs on the node that takes its
+ * JobLock; the lease is renewed before each chunk.
+ */
+@Component
+public class LogEntryArchiveJob {
+
+    /** Name of the job's JobLock */
+    public static final String  LOCK = "audit-archive";
+
+    /** Logger, for reporting on the job */
+    private static final Logger LOG  = LoggerFactory.getLogger( LogEntryArchiveJob.class );
+
+    /** The archive that entries are moved to */
+    @Autowired
+    private LogEntryArchive     archive;
+
+    /** Makes sure only one node runs the job at a time */
+    @Autowired
+    private JobLockService      locks;
+
+    /** Number of entries moved to the archive in each transaction */
+    @Value ( "${itrust2.audit.archive.chunk-size:1000}" )
+    private int                 chunkSize;
+
+    /**
+     * How long this node may go without renewing its lease before another
+     * node may take over, in minutes
+     */
+    @Value ( "${itrust2.audit.archive.lease-minutes:10}" )
+    private long                leaseMinutes;
+
+    /**
+     * Moves every LogEntry older than the hot window into the archive, unless
+     * another node is already doing so
+     */
+    @Scheduled ( cron = "${itrust2.audit.archive.cron:0 30 2 * * *}" )
+    public void run () {
+        final Duration lease = Duration.ofMinutes( leaseMinutes );
+        if ( !locks.tryAcquire( LOCK, lease ) ) {
+            return;
+        }
+        final ZonedDateTime cutoff = archive.getHotCutoff();
+        long archived = 0;
+        try {
+            for ( int n = archive.moveBefore( cutoff, chunkSize ); n > 0; n = archive.moveBefore( cutoff,
+                    chunkSize ) ) {
+                archived += n;
+                if ( !locks.tryAcquire( LOCK, lease ) ) {
+                    LOG.warn( "Lost the lease on archiving the audit log; another node will carry on" );
+                    break;
+                }
+            }
+        }
+        finally {
+            locks.release( LOCK );
+        }
+        if ( archived > 0 ) {
+            LOG.info( "Archived " + archived + " audit log entries from before " + cutoff );
+        }
+    }
+
+}
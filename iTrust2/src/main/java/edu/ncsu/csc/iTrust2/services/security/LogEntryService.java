@@ -1,15 +1,36 @@
 package edu.ncsu.csc.iTrust2.services.security;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
+import com.google.gson.Gson;
+
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.security.LogEntry;
 import edu.ncsu.csc.iTrust2.repositories.security.LogEntryRepository;
 import edu.ncsu.csc.iTrust2.services.Service;
@@ -24,12 +45,36 @@ import edu.ncsu.csc.iTrust2.services.Service;
 @Transactional
 public class LogEntryService extends Service<LogEntry, Long> {
 
+    /**
+     * Orders LogEntries newest first, breaking ties by ID
+     */
+    private static final Comparator<LogEntry> NEWEST_FIRST = Comparator.comparing( LogEntry::getTime )
+            .thenComparing( LogEntry::getId ).reversed();
+
+    /**
+     * Used to write LogEntries out as JSON
+     */
+    private static final Gson                 GSON         = new Gson();
+
     /**
      * LogEntry repository, for CRUD tasks
      */
     @Autowired
     private LogEntryRepository repository;
 
+    /**
+     * EntityManager, used to let go of entries once they have been read from
+     * a Stream
+     */
+    @PersistenceContext
+    private EntityManager      entityManager;
+
+    /**
+     * Cold tier, holding entries that have aged out of the database
+     */
+    @Autowired
+    private LogEntryArchive    archive;
+
     @Override
     protected JpaRepository<LogEntry, Long> getRepository () {
         return repository;
@@ -37,36 +82,339 @@ public class LogEntryService extends Service<LogEntry, Long> {
 
     /**
      * Finds all LogEntries for a given user, where they are the primary or
-     * secondary user
+     * secondary user, including any that have been archived
      *
      * @param user
      *            User to find entries for
      * @return All matching LogEntries
      */
     public List<LogEntry> findAllForUser ( final String user ) {
-        return repository.findByPrimaryUserOrSecondaryUser( user );
+        final List<LogEntry> all = withArchived( repository.findByPrimaryUserOrSecondaryUser( user ),
+                archive.findAllForUser( user ) );
+        Collections.reverse( all );
+        return all;
     }
 
     /**
-     * Finds LogEntries for a user within a provided date range.
-     * 
+     * Finds LogEntries for a user within a provided date range, where they are
+     * the primary or secondary user. Each half of the search is run separately
+     * so that the database can answer it from the (user, time) index on that
+     * column, rather than scanning every entry in the range. The archive is
+     * only read if the range reaches back into it.
+     *
      * @param user
      *            User to find entries for. Both dates inclusive.
      * @param startDate
      *            Start date
      * @param endDate
      *            End date
-     * @return Matching LogEntries
+     * @return Matching LogEntries, oldest first
      */
     public List<LogEntry> findByDateRange ( final String user, final ZonedDateTime startDate,
             final ZonedDateTime endDate ) {
+        final List<LogEntry> entries = new ArrayList<LogEntry>(
+                repository.findByPrimaryUserAndTimeBetween( user, startDate, endDate ) );
+        entries.addAll( repository.findBySecondaryUserAndTimeBetween( user, startDate, endDate ) );
 
-        final List<LogEntry> withinRange = repository.findByTimeBetween( startDate, endDate );
+        if ( archive.holds( startDate ) ) {
+            final List<LogEntry> all = withArchived( entries, archive.findByDateRange( user, startDate, endDate ) );
+            Collections.reverse( all );
+            return all;
+        }
+        entries.sort( Comparator.comparing( LogEntry::getTime ).thenComparing( LogEntry::getId ) );
+        return entries;
+    }
 
-        return withinRange.stream()
-                .filter( e -> e.getPrimaryUser().equals( user ) || e.getSecondaryUser().equals( user ) )
-                .collect( Collectors.toList() );
+    /**
+     * Finds one page of LogEntries for a user, newest first, starting just
+     * after (ie, older than) the entry identified by `beforeTime` and
+     * `beforeId`. Each user column is searched separately for at most
+     * `pageLength` entries and the two are merged, so a page costs the same
+     * regardless of how many entries come before it. The archive is searched
+     * the same way, but only if the page reaches back past the hot cutoff.
+     *
+     * @param user
+     *            User to find entries for, as either the primary or secondary
+     *            user
+     * @param codes
+     *            The types of entry to include
+     * @param startDate
+     *            Oldest time (inclusive) to include
+     * @param beforeTime
+     *            Time of the last entry on the previous page. For the first
+     *            page, the newest time (inclusive) to include
+     * @param beforeId
+     *            ID of the last entry on the previous page. For the first page,
+     *            `Long.MAX_VALUE`
+     * @param pageLength
+     *            Maximum number of entries to return
+     * @return Matching LogEntries, newest first
+     */
+    public List<LogEntry> findPageForUser ( final String user, final Collection<TransactionType> codes,
+            final ZonedDateTime startDate, final ZonedDateTime beforeTime, final Long beforeId,
+            final int pageLength ) {
+        final Pageable limit = PageRequest.of( 0, pageLength );
+        final List<LogEntry> entries = new ArrayList<LogEntry>(
+                repository.findPageByPrimaryUser( user, codes, startDate, beforeTime, beforeId, limit ) );
+        entries.addAll( repository.findPageBySecondaryUser( user, codes, startDate, beforeTime, beforeId, limit ) );
+
+        entries.sort( NEWEST_FIRST );
+        if ( reachesArchive( entries, pageLength, startDate ) ) {
+            return first( withArchived( entries,
+                    archive.findPageForUser( user, codes, startDate, beforeTime, beforeId, pageLength ) ),
+                    pageLength );
+        }
+        return first( entries, pageLength );
+    }
+
+    /**
+     * Estimates the number of LogEntries for a user within a date range. This
+     * is answered from the (user, time) indexes alone and does not account for
+     * any filtering by type, so it is an upper bound rather than an exact
+     * count. Archived entries are not included.
+     *
+     * @param user
+     *            User to count entries for
+     * @param startDate
+     *            Start date
+     * @param endDate
+     *            End date
+     * @return Approximate number of matching LogEntries
+     */
+    public long estimateCountByDateRange ( final String user, final ZonedDateTime startDate,
+            final ZonedDateTime endDate ) {
+        return repository.countByPrimaryUserAndTimeBetween( user, startDate, endDate )
+                + repository.countBySecondaryUserAndTimeBetween( user, startDate, endDate );
+    }
+
+    /**
+     * Finds the most recent LogEntries for a user, where they are the primary
+     * or secondary user. Only `top` entries are read from each user column (of
+     * the archive too, if they reach back past the hot cutoff), so this costs
+     * the same no matter how long the user's history is.
+     *
+     * @param user
+     *            User to find entries for
+     * @param top
+     *            Maximum number of entries to return
+     * @return Matching LogEntries, newest first
+     */
+    public List<LogEntry> findRecentForUser ( final String user, final int top ) {
+        if ( top <= 0 ) {
+            return new ArrayList<LogEntry>();
+        }
+        final Pageable limit = PageRequest.of( 0, top );
+        final List<LogEntry> entries = new ArrayList<LogEntry>(
+                repository.findByPrimaryUserOrderByTimeDescIdDesc( user, limit ) );
+        entries.addAll( repository.findBySecondaryUserOrderByTimeDescIdDesc( user, limit ) );
+
+        entries.sort( NEWEST_FIRST );
+        if ( reachesArchive( entries, top, null ) ) {
+            final List<LogEntry> archived = archive.findRecentByPrimaryUser( user, limit );
+            archived.addAll( archive.findRecentBySecondaryUser( user, limit ) );
+            return first( withArchived( entries, archived ), top );
+        }
+        return first( entries, top );
+    }
 
+    /**
+     * Finds the most recent LogEntries for a user that also match a filter
+     * which can't be expressed as a query. The user's entries are read from
+     * the database newest first, `top` at a time, each page starting just
+     * after the last entry of the one before (rather than skipping over the
+     * pages before it), so every page costs the same however deep it is. Only
+     * the best `top` seen so far are kept, so memory use stays proportional to
+     * `top` however many entries have to be read. No more pages are read once
+     * no remaining entry could make it into the result.
+     *
+     * @param user
+     *            User to find entries for
+     * @param top
+     *            Maximum number of entries to return
+     * @param filter
+     *            Only entries matching this are returned
+     * @return Matching LogEntries, newest first
+     */
+    public List<LogEntry> findRecentForUser ( final String user, final int top, final Predicate<LogEntry> filter ) {
+        if ( top <= 0 ) {
+            return new ArrayList<LogEntry>();
+        }
+        // Oldest of the entries kept so far is at the head
+        final PriorityQueue<LogEntry> heap = new PriorityQueue<LogEntry>( top + 1, NEWEST_FIRST.reversed() );
+
+        final Pageable limit = PageRequest.of( 0, top );
+        collectRecent( last -> null == last ? repository.findByPrimaryUserOrderByTimeDescIdDesc( user, limit )
+                : repository.findByPrimaryUserBefore( user, last.getTime(), last.getId(), limit ), top, filter, heap );
+        collectRecent( last -> null == last ? repository.findBySecondaryUserOrderByTimeDescIdDesc( user, limit )
+                : repository.findBySecondaryUserBefore( user, last.getTime(), last.getId(), limit ), top, filter,
+                heap );
+        if ( heap.size() < top || archive.holds( heap.peek().getTime() ) ) {
+            collectRecent( last -> null == last ? archive.findRecentByPrimaryUser( user, limit )
+                    : archive.findByPrimaryUserBefore( user, last.getTime(), last.getId(), limit ), top, filter,
+                    heap );
+            collectRecent( last -> null == last ? archive.findRecentBySecondaryUser( user, limit )
+                    : archive.findBySecondaryUserBefore( user, last.getTime(), last.getId(), limit ), top, filter,
+                    heap );
+        }
+
+        final List<LogEntry> entries = new ArrayList<LogEntry>( heap );
+        entries.sort( NEWEST_FIRST );
+        return entries;
+    }
+
+    /**
+     * Adds entries from newest-first pages into a bounded heap of the `top`
+     * newest matching entries, reading pages until the rest can't fit
+     *
+     * @param pages
+     *            Reads one page of entries, newest first, starting just after
+     *            the given entry, or from the newest if it is null
+     * @param top
+     *            Maximum size of the heap
+     * @param filter
+     *            Only entries matching this are kept
+     * @param heap
+     *            Heap of the newest entries, oldest at the head
+     */
+    private void collectRecent ( final Function<LogEntry, List<LogEntry>> pages, final int top,
+            final Predicate<LogEntry> filter, final PriorityQueue<LogEntry> heap ) {
+        for ( LogEntry last = null;; ) {
+            final List<LogEntry> entries = pages.apply( last );
+            for ( final LogEntry le : entries ) {
+                entityManager.detach( le );
+
+                // Everything after this is older still, so nothing else can fit
+                if ( heap.size() == top && NEWEST_FIRST.compare( le, heap.peek() ) >= 0 ) {
+                    return;
+                }
+                if ( filter.test( le ) ) {
+                    heap.offer( le );
+                    if ( heap.size() > top ) {
+                        heap.poll();
+                    }
+                }
+            }
+            if ( entries.size() < top ) {
+                return;
+            }
+            last = entries.get( entries.size() - 1 );
+        }
+    }
+
+    /**
+     * Writes every LogEntry within a date range, for every user, as
+     * newline-delimited JSON, oldest first. Archived entries are written first
+     * and then those still in the database. Entries are read and written one
+     * at a time, and let go of once written, so the size of the export is
+     * limited by the output rather than by memory.
+     *
+     * @param startDate
+     *            Start of the range (inclusive)
+     * @param endDate
+     *            End of the range (inclusive)
+     * @param out
+     *            Where to write the entries
+     * @return Number of entries written
+     * @throws IOException
+     *             If the entries can't be written
+     */
+    public long export ( final ZonedDateTime startDate, final ZonedDateTime endDate, final Writer out )
+            throws IOException {
+        final long[] written = { 0 };
+        try {
+            archive.forEach( startDate, endDate, le -> {
+                writeLine( le, out );
+                written[0]++;
+            } );
+
+            try ( Stream<LogEntry> entries = repository.streamByTimeBetweenOrderByTimeAscIdAsc( startDate,
+                    endDate ) ) {
+                final Iterator<LogEntry> it = entries.iterator();
+                while ( it.hasNext() ) {
+                    final LogEntry le = it.next();
+                    entityManager.detach( le );
+                    writeLine( le, out );
+                    written[0]++;
+                }
+            }
+        }
+        catch ( final UncheckedIOException e ) {
+            throw e.getCause();
+        }
+        out.flush();
+        return written[0];
+    }
+
+    /**
+     * Writes one LogEntry as a line of JSON, from a lambda that can't throw
+     * checked exceptions
+     *
+     * @param le
+     *            The entry to write
+     * @param out
+     *            Where to write it
+     */
+    private static void writeLine ( final LogEntry le, final Writer out ) {
+        try {
+            out.write( GSON.toJson( le ) );
+            out.write( '\n' );
+        }
+        catch ( final IOException e ) {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Checks whether the archive could hold any entry that belongs among the
+     * first `n` of a list from the log
+     *
+     * @param newestFirst
+     *            Entries found in the log, newest first
+     * @param n
+     *            Number of entries wanted
+     * @param from
+     *            Oldest time the search covers, or null for no limit
+     * @return true if the list is short of `n` entries and the search reaches
+     *         back past the hot cutoff, or its `n`th entry is from before the
+     *         cutoff
+     */
+    private boolean reachesArchive ( final List<LogEntry> newestFirst, final int n, final ZonedDateTime from ) {
+        return newestFirst.size() < n ? archive.holds( from ) : archive.holds( newestFirst.get( n - 1 ).getTime() );
+    }
+
+    /**
+     * Combines entries from the database with entries from the archive. Both
+     * are read in the same transaction, and an entry is moved to the archive
+     * in one transaction, so an entry is only ever seen in one of the two;
+     * entries are still matched up by ID, so none can be shown twice.
+     *
+     * @param hot
+     *            Entries from the database
+     * @param cold
+     *            Entries from the archive
+     * @return All of the entries, newest first
+     */
+    private static List<LogEntry> withArchived ( final List<LogEntry> hot, final List<LogEntry> cold ) {
+        final Map<Long, LogEntry> byId = new LinkedHashMap<Long, LogEntry>();
+        hot.forEach( le -> byId.put( le.getId(), le ) );
+        cold.forEach( le -> byId.putIfAbsent( le.getId(), le ) );
+
+        final List<LogEntry> all = new ArrayList<LogEntry>( byId.values() );
+        all.sort( NEWEST_FIRST );
+        return all;
+    }
+
+    /**
+     * Returns (a copy of) at most the first `n` entries of a list
+     *
+     * @param entries
+     *            The entries
+     * @param n
+     *            Maximum number of entries to return
+     * @return The first entries
+     */
+    private static List<LogEntry> first ( final List<LogEntry> entries, final int n ) {
+        return new ArrayList<LogEntry>( entries.subList( 0, Math.min( n, entries.size() ) ) );
     }
 
 }
@@ -0,0 +1,345 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * In-memory record of recent failed logins, per IP address and per username.
+ * Each address or user has a sliding window of the times of its failures;
+ * failures older than the window no longer count. This replaces a database row
+ * per failure, so that a burst of failed logins doesn't turn into a burst of
+ * inserts, counts and deletes.
+ *
+ * Updates to one address or user are serialised on one of a fixed set of
+ * locks (chosen by hash), so unrelated logins don't contend with each other.
+ * The windows are periodically written to a snapshot file, and read back on
+ * startup, so that restarting the application doesn't reset everyone's count.
+ */
+@Component
+public class LoginAttemptCounter implements InitializingBean, DisposableBean {
+
+    /**
+     * Contents of the snapshot file
+     */
+    private static final class Snapshot {
+
+        /** Times of recent failures, by IP address */
+        private Map<String, List<Long>> ip;
+
+        /** Times of recent failures, by username */
+        private Map<String, List<Long>> user;
+    }
+
+    /** Logger, for reporting problems with the snapshot */
+    private static final Logger                      LOG     = LoggerFactory.getLogger( LoginAttemptCounter.class );
+
+    /** Number of locks the windows are striped across */
+    private static final int                         STRIPES = 64;
+
+    /** Used to write and read the snapshot */
+    private static final Gson                        GSON    = new Gson();
+
+    /** How long a failure counts for, in minutes */
+    @Value ( "${itrust2.login-attempts.window-minutes:60}" )
+    private long                                     windowMinutes;
+
+    /** File the windows are snapshotted to, or empty to not snapshot them */
+    @Value ( "${itrust2.login-attempts.snapshot-file:login-attempts.json}" )
+    private String                                   snapshotFile;
+
+    /** Times of recent failures (epoch ms), oldest first, by IP address */
+    private final ConcurrentMap<String, Deque<Long>> byIP    = new ConcurrentHashMap<String, Deque<Long>>();
+
+    /** Times of recent failures (epoch ms), oldest first, by username */
+    private final ConcurrentMap<String, Deque<Long>> byUser  = new ConcurrentHashMap<String, Deque<Long>>();
+
+    /** Locks that updates to the windows are serialised on */
+    private final Object[]                           locks   = new Object[STRIPES];
+
+    @Override
+    public void afterPropertiesSet () {
+        for ( int i = 0; i < STRIPES; i++ ) {
+            locks[i] = new Object();
+        }
+        restore();
+    }
+
+    /**
+     * Records a failed login from an IP address
+     *
+     * @param ipAddress
+     *            Address the login came from
+     */
+    public void recordIP ( final String ipAddress ) {
+        record( byIP, ipAddress );
+    }
+
+    /**
+     * Reports the number of recent failed logins from an IP address
+     *
+     * @param ipAddress
+     *            IP address to check
+     * @return Number of failed logins within the window
+     */
+    public long countByIP ( final String ipAddress ) {
+        return count( byIP, ipAddress );
+    }
+
+    /**
+     * Clears the failed logins for an IP address
+     *
+     * @param ipAddress
+     *            IP address to clear
+     */
+    public void clearIP ( final String ipAddress ) {
+        clear( byIP, ipAddress );
+    }
+
+    /**
+     * Records a failed login as a user
+     *
+     * @param username
+     *            User the login was for
+     */
+    public void recordUser ( final String username ) {
+        record( byUser, username );
+    }
+
+    /**
+     * Reports the number of recent failed logins as a user
+     *
+     * @param username
+     *            User to check
+     * @return Number of failed logins within the window
+     */
+    public long countByUser ( final String username ) {
+        return count( byUser, username );
+    }
+
+    /**
+     * Clears the failed logins for a user
+     *
+     * @param username
+     *            User to clear
+     */
+    public void clearUser ( final String username ) {
+        clear( byUser, username );
+    }
+
+    /**
+     * Drops failures that have left the window, and writes what is left to the
+     * snapshot file
+     */
+    @Scheduled ( fixedDelayString = "${itrust2.login-attempts.snapshot-interval-ms:30000}" )
+    public void snapshot () {
+        final Snapshot snapshot = new Snapshot();
+        snapshot.ip = prune( byIP );
+        snapshot.user = prune( byUser );
+        if ( snapshotFile.isEmpty() ) {
+            return;
+        }
+
+        final Path path = Paths.get( snapshotFile ).toAbsolutePath();
+        final Path temp = path.resolveSibling( path.getFileName() + ".tmp" );
+        try {
+            try ( Writer writer = Files.newBufferedWriter( temp, StandardCharsets.UTF_8 ) ) {
+                GSON.toJson( snapshot, writer );
+            }
+            Files.move( temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        }
+        catch ( final IOException e ) {
+            LOG.warn( "Unable to snapshot failed login attempts to " + path, e );
+        }
+    }
+
+    @Override
+    public void destroy () {
+        snapshot();
+    }
+
+    /**
+     * Loads the windows back from the snapshot file, if there is one
+     */
+    private void restore () {
+        if ( snapshotFile.isEmpty() || !Files.exists( Paths.get( snapshotFile ) ) ) {
+            return;
+        }
+        try ( Reader reader = Files.newBufferedReader( Paths.get( snapshotFile ), StandardCharsets.UTF_8 ) ) {
+            final Snapshot snapshot = GSON.fromJson( reader, Snapshot.class );
+            if ( null == snapshot ) {
+                return;
+            }
+            restore( byIP, snapshot.ip );
+            restore( byUser, snapshot.user );
+        }
+        catch ( final IOException | JsonParseException e ) {
+            LOG.warn( "Unable to restore failed login attempts from " + snapshotFile, e );
+        }
+    }
+
+    /**
+     * Loads one set of windows back from a snapshot
+     *
+     * @param windows
+     *            Windows to load into
+     * @param saved
+     *            Windows from the snapshot, or null if there are none
+     */
+    private void restore ( final ConcurrentMap<String, Deque<Long>> windows, final Map<String, List<Long>> saved ) {
+        if ( null == saved ) {
+            return;
+        }
+        final long cutoff = cutoff();
+        saved.forEach( ( key, times ) -> {
+            final Deque<Long> window = new ArrayDeque<Long>();
+            times.stream().filter( t -> t > cutoff ).sorted().forEach( window::addLast );
+            if ( !window.isEmpty() ) {
+                windows.put( key, window );
+            }
+        } );
+    }
+
+    /**
+     * Adds a failure, now, to a window
+     *
+     * @param windows
+     *            The set of windows
+     * @param key
+     *            Address or user the failure is for
+     */
+    private void record ( final ConcurrentMap<String, Deque<Long>> windows, final String key ) {
+        synchronized ( lockFor( key ) ) {
+            final Deque<Long> window = windows.computeIfAbsent( key, k -> new ArrayDeque<Long>() );
+            expire( window, cutoff() );
+            window.addLast( System.currentTimeMillis() );
+        }
+    }
+
+    /**
+     * Counts the failures within a window
+     *
+     * @param windows
+     *            The set of windows
+     * @param key
+     *            Address or user to count
+     * @return Number of failures within the window
+     */
+    private long count ( final ConcurrentMap<String, Deque<Long>> windows, final String key ) {
+        synchronized ( lockFor( key ) ) {
+            final Deque<Long> window = windows.get( key );
+            if ( null == window ) {
+                return 0;
+            }
+            expire( window, cutoff() );
+            if ( window.isEmpty() ) {
+                windows.remove( key );
+            }
+            return window.size();
+        }
+    }
+
+    /**
+     * Removes a window entirely
+     *
+     * @param windows
+     *            The set of windows
+     * @param key
+     *            Address or user to clear
+     */
+    private void clear ( final ConcurrentMap<String, Deque<Long>> windows, final String key ) {
+        synchronized ( lockFor( key ) ) {
+            windows.remove( key );
+        }
+    }
+
+    /**
+     * Drops failures that have left the window from every window in a set, and
+     * returns a copy of what is left
+     *
+     * @param windows
+     *            The set of windows
+     * @return Copy of the remaining failures, by address or user
+     */
+    private Map<String, List<Long>> prune ( final ConcurrentMap<String, Deque<Long>> windows ) {
+        final long cutoff = cutoff();
+        final Map<String, List<Long>> remaining = new HashMap<String, List<Long>>();
+        for ( final String key : windows.keySet() ) {
+            synchronized ( lockFor( key ) ) {
+                final Deque<Long> window = windows.get( key );
+                if ( null == window ) {
+                    continue;
+                }
+                expire( window, cutoff );
+                if ( window.isEmpty() ) {
+                    windows.remove( key );
+                }
+                else {
+                    remaining.put( key, new ArrayList<Long>( window ) );
+                }
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Drops failures from before a cutoff from the front of a window. Callers
+     * must hold the window's lock.
+     *
+     * @param window
+     *            The window, oldest first
+     * @param cutoff
+     *            Failures at or before this time (epoch ms) are dropped
+     */
+    private static void expire ( final Deque<Long> window, final long cutoff ) {
+        while ( !window.isEmpty() && window.peekFirst() <= cutoff ) {
+            window.removeFirst();
+        }
+    }
+
+    /**
+     * Returns the time before which failures no longer count
+     *
+     * @return Start of the window, epoch ms
+     */
+    private long cutoff () {
+        return System.currentTimeMillis() - TimeUnit.MINUTES.toMillis( windowMinutes );
+    }
+
+    /**
+     * Returns the lock for an address or user
+     *
+     * @param key
+     *            The address or user
+     * @return The lock that guards its window
+     */
+    private Object lockFor ( final String key ) {
+        return locks[Math.floorMod( key.hashCode(), STRIPES )];
+    }
+
+}
@@ -1,11 +1,12 @@
 package edu.ncsu.csc.iTrust2.services.security;
 
 import java.time.ZonedDateTime;
-import java.util.stream.Collectors;
+import java.util.List;
 
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
@@ -24,6 +25,16 @@ import edu.ncsu.csc.iTrust2.services.Service;
 @Transactional
 public class LoginLockoutService extends Service<LoginLockout, Long> {
 
+    /**
+     * How long a lockout lasts, in seconds
+     */
+    public static final long       LOCKOUT_SECONDS = 60 * 60;
+
+    /**
+     * How far back lockouts count towards a ban, in seconds
+     */
+    public static final long       RECENT_SECONDS  = 24 * 60 * 60;
+
     /**
      * Repository for CRUD operations
      */
@@ -43,11 +54,23 @@ public class LoginLockoutService extends Service<LoginLockout, Long> {
      * @return Lockout status
      */
     public boolean isIPLocked ( final String ipAddress ) {
-        final long now = ZonedDateTime.now().toEpochSecond();
+        return repository.existsByIpAndTimeAfter( ipAddress, ZonedDateTime.now().minusSeconds( LOCKOUT_SECONDS ) );
+    }
 
-        return repository.findByIp( ipAddress ).stream().filter( e -> ( now - e.getTime().toEpochSecond() ) < 60 * 60 )
-                .collect( Collectors.toList() ).size() > 0; // locked if within
-                                                            // 60 minutes
+    /**
+     * Finds when an IP address's current lockout ends
+     *
+     * @param ipAddress
+     *            IP address to check
+     * @return When the lockout ends, or null if the address is not locked out
+     */
+    public ZonedDateTime getIPLockedUntil ( final String ipAddress ) {
+        final LoginLockout latest = repository.findFirstByIpOrderByTimeDesc( ipAddress );
+        if ( null == latest ) {
+            return null;
+        }
+        final ZonedDateTime until = latest.getTime().plusSeconds( LOCKOUT_SECONDS );
+        return until.isAfter( ZonedDateTime.now() ) ? until : null;
     }
 
     /**
@@ -63,30 +86,25 @@ public class LoginLockoutService extends Service<LoginLockout, Long> {
     }
 
     /**
-     * Gets the number of IP lockouts for an address within the past 60 minutes
+     * Gets the number of IP lockouts for an address within the past day
      *
      * @param ipAddress
      *            IP address to check
      * @return Number of lockouts
      */
     public int getRecentIPLockouts ( final String ipAddress ) {
-        final long now = ZonedDateTime.now().toEpochSecond();
-        return repository.findByIp( ipAddress ).stream()
-                .filter( e -> ( now - e.getTime().toEpochSecond() ) < 1440 * 60 ).collect( Collectors.toList() ).size(); // 1440
-                                                                                                                         // minutes
+        return (int) repository.countByIpAndTimeAfter( ipAddress, ZonedDateTime.now().minusSeconds( RECENT_SECONDS ) );
     }
 
     /**
-     * Gets the number of lockouts for a user within the past 60 minutes
+     * Gets the number of lockouts for a user within the past day
      *
      * @param user
      *            to check
      * @return Number of lockouts
      */
     public int getRecentUserLockouts ( final User user ) {
-        final long now = ZonedDateTime.now().toEpochSecond();
-        return repository.findByUser( user ).stream().filter( e -> ( now - e.getTime().toEpochSecond() ) < 1440 * 60 )
-                .collect( Collectors.toList() ).size(); // 1440 minutes
+        return (int) repository.countByUserAndTimeAfter( user, ZonedDateTime.now().minusSeconds( RECENT_SECONDS ) );
     }
 
     /**
@@ -109,10 +127,23 @@ public class LoginLockoutService extends Service<LoginLockout, Long> {
      * @return Lockout status
      */
     public boolean isUserLocked ( final User user ) {
-        final long now = ZonedDateTime.now().toEpochSecond();
-        return repository.findByUser( user ).stream().filter( e -> ( now - e.getTime().toEpochSecond() ) < 60 * 60 )
-                .collect( Collectors.toList() ).size() > 0; // locked if within
-                                                            // 60 minutes
+        return repository.existsByUserAndTimeAfter( user, ZonedDateTime.now().minusSeconds( LOCKOUT_SECONDS ) );
+    }
+
+    /**
+     * Deletes up to chunkSize lockouts from before the given time, oldest
+     * first. Called repeatedly by the SecurityRecordPurger so that each chunk
+     * is deleted (and its locks released) in a transaction of its own.
+     *
+     * @param cutoff
+     *            Lockouts before this time are deleted
+     * @param chunkSize
+     *            Most lockouts to delete
+     * @return Number of lockouts deleted
+     */
+    public int purgeBefore ( final ZonedDateTime cutoff, final int chunkSize ) {
+        final List<Long> ids = repository.findIdsByTimeBefore( cutoff, PageRequest.of( 0, chunkSize ) );
+        return ids.isEmpty() ? 0 : repository.deleteByIdIn( ids );
     }
 
 }
@@ -0,0 +1,49 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.services.UserService;
+
+/**
+ * Looks up the User that is logging in. A User's Roles are kept on the user
+ * row, so the User and its authorities are found with a single query.
+ *
+ * A disabled User is reported as such, so that the FailureHandler can tell
+ * whether a failed login was due to a ban, a lockout or a disabled account.
+ */
+@Component
+public class LoginUserDetailsService implements UserDetailsService {
+
+    /** User service, to look up the User */
+    @Autowired
+    private UserService<User> userService;
+
+    @Override
+    public UserDetails loadUserByUsername ( final String username ) {
+        final User user = userService.findByName( username );
+        if ( null == user ) {
+            throw new UsernameNotFoundException( "No user found with username " + username );
+        }
+
+        final List<GrantedAuthority> authorities = user.getRoles().stream()
+                .map( role -> new SimpleGrantedAuthority( role.name() ) ).collect( Collectors.toList() );
+        if ( authorities.isEmpty() ) {
+            throw new UsernameNotFoundException( "User " + username + " has no roles" );
+        }
+
+        return org.springframework.security.core.userdetails.User.withUsername( user.getUsername() )
+                .password( user.getPassword() ).disabled( !Integer.valueOf( 1 ).equals( user.getEnabled() ) )
+                .authorities( authorities ).build();
+    }
+
+}
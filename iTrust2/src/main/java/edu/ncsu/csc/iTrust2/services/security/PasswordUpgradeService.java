@@ -0,0 +1,30 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.services.UserService;
+
+/**
+ * Saves passwords that Spring Security has rehashed on login. When a user logs
+ * in successfully and their stored hash was made with an outdated BCrypt cost,
+ * their password is hashed again with the current cost and saved here, so
+ * that the cost can be changed without anyone having to reset their password.
+ */
+@Component
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    /** User service, to save the new hash */
+    @Autowired
+    private UserService<User> userService;
+
+    @Override
+    public UserDetails updatePassword ( final UserDetails user, final String newPassword ) {
+        userService.updatePassword( user.getUsername(), newPassword );
+        return org.springframework.security.core.userdetails.User.withUserDetails( user ).password( newPassword ).build();
+    }
+
+}
@@ -0,0 +1,102 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import edu.ncsu.csc.iTrust2.models.security.SecurityEvent;
+import edu.ncsu.csc.iTrust2.repositories.security.SecurityEventRepository;
+import edu.ncsu.csc.iTrust2.services.Service;
+
+/**
+ * Service for interacting with SecurityEvents, the log of ban and lockout
+ * changes that keeps every node's IPDecisionCache and LoginAttemptCounter in
+ * agreement.
+ */
+@Component
+@Transactional
+public class SecurityEventService extends Service<SecurityEvent, Long> {
+
+    /** Repository for CRUD operations */
+    @Autowired
+    private SecurityEventRepository repository;
+
+    @Override
+    protected JpaRepository<SecurityEvent, Long> getRepository () {
+        return repository;
+    }
+
+    /**
+     * Records a change to an IP address's ban or lockout state
+     *
+     * @param type
+     *            Kind of change
+     * @param ipAddress
+     *            IP address that was changed
+     * @param lockedUntil
+     *            When the lockout ends, for an IP_LOCKED event; otherwise
+     *            null
+     * @return The recorded event
+     */
+    public SecurityEvent publish ( final SecurityEvent.Type type, final String ipAddress,
+            final ZonedDateTime lockedUntil ) {
+        final SecurityEvent event = new SecurityEvent();
+        event.setType( type );
+        event.setIp( ipAddress );
+        event.setLockedUntil( lockedUntil );
+        event.setTime( ZonedDateTime.now() );
+        return repository.save( event );
+    }
+
+    /**
+     * Records a change to a user's lockout state
+     *
+     * @param type
+     *            Kind of change, USER_LOCKED or USER_CLEARED
+     * @param username
+     *            User that was changed
+     * @return The recorded event
+     */
+    public SecurityEvent publishForUser ( final SecurityEvent.Type type, final String username ) {
+        final SecurityEvent event = new SecurityEvent();
+        event.setType( type );
+        event.setUsername( username );
+        event.setTime( ZonedDateTime.now() );
+        return repository.save( event );
+    }
+
+    /**
+     * Finds the events recorded after the given time, in the order they were
+     * recorded
+     *
+     * @param since
+     *            Only events after this time are returned
+     * @return The matching events
+     */
+    public List<SecurityEvent> findSince ( final ZonedDateTime since ) {
+        return repository.findByTimeAfterOrderByTimeAscIdAsc( since );
+    }
+
+    /**
+     * Deletes up to chunkSize events from before the given time, oldest first.
+     * Called repeatedly by the SecurityRecordPurger so that each chunk is
+     * deleted in a transaction of its own.
+     *
+     * @param cutoff
+     *            Events before this time are deleted
+     * @param chunkSize
+     *            Most events to delete
+     * @return Number of events deleted
+     */
+    public int purgeBefore ( final ZonedDateTime cutoff, final int chunkSize ) {
+        final List<Long> ids = repository.findIdsByTimeBefore( cutoff, PageRequest.of( 0, chunkSize ) );
+        return ids.isEmpty() ? 0 : repository.deleteByIdIn( ids );
+    }
+
+}
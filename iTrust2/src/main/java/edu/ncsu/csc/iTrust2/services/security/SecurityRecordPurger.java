@@ -0,0 +1,74 @@
+package edu.ncsu.csc.iTrust2.services.security;
+
+import java.time.ZonedDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retention job for LoginLockouts and SecurityEvents. Lockouts only matter for
+ * a day (a user or address with enough lockouts in that time is banned
+ * outright), and SecurityEvents are only polled for a minute or so after they
+ * are recorded, so rows older than the retention period are never read again;
+ * without this job the tables would only ever grow.
+ *
+ * Rows are deleted a chunk at a time, each chunk in a transaction of its own,
+ * so that the job never holds locks on a large part of any table while
+ * logins are being recorded.
+ */
+@Component
+public class SecurityRecordPurger {
+
+    /** Logger, for reporting on the job */
+    private static final Logger  LOG = LoggerFactory.getLogger( SecurityRecordPurger.class );
+
+    /** LoginLockout service, to purge old lockouts */
+    @Autowired
+    private LoginLockoutService  lockouts;
+
+    /** SecurityEvent service, to purge old events */
+    @Autowired
+    private SecurityEventService events;
+
+    /**
+     * How long records are kept, in hours. Lockouts count towards a ban for
+     * LoginLockoutService.RECENT_SECONDS, so this is never allowed to be less.
+     */
+    @Value ( "${itrust2.security-purge.retention-hours:24}" )
+    private long                 retentionHours;
+
+    /** Number of rows deleted in each transaction */
+    @Value ( "${itrust2.security-purge.chunk-size:500}" )
+    private int                  chunkSize;
+
+    /**
+     * Deletes every LoginLockout and SecurityEvent older than the retention
+     * period
+     */
+    @Scheduled ( cron = "${itrust2.security-purge.cron:0 15 * * * *}" )
+    public void purge () {
+        final long retentionSeconds = Math.max( retentionHours * 60 * 60, LoginLockoutService.RECENT_SECONDS );
+        final ZonedDateTime cutoff = ZonedDateTime.now().minusSeconds( retentionSeconds );
+
+        long lockoutsPurged = 0;
+        for ( int n = lockouts.purgeBefore( cutoff, chunkSize ); n > 0; n = lockouts.purgeBefore( cutoff,
+                chunkSize ) ) {
+            lockoutsPurged += n;
+        }
+
+        long eventsPurged = 0;
+        for ( int n = events.purgeBefore( cutoff, chunkSize ); n > 0; n = events.purgeBefore( cutoff, chunkSize ) ) {
+            eventsPurged += n;
+        }
+
+        if ( lockoutsPurged > 0 || eventsPurged > 0 ) {
+            LOG.info( "Purged " + lockoutsPurged + " login lockouts and " + eventsPurged
+                    + " security events from before " + cutoff );
+        }
+    }
+
+}
@@ -1,6 +1,9 @@
 package edu.ncsu.csc.iTrust2.utils;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,6 +12,7 @@ import org.springframework.stereotype.Component;
 import edu.ncsu.csc.iTrust2.models.User;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import edu.ncsu.csc.iTrust2.services.security.AuditLogWriter;
 import edu.ncsu.csc.iTrust2.services.security.LogEntryService;
 
 /**
@@ -29,10 +33,18 @@ public class LoggerUtil {
     @Autowired
     private LogEntryService service;
 
+    /**
+     * Background writer that LogEntries are handed off to, so that logging
+     * doesn't hold up the request that triggered it
+     */
+    @Autowired
+    private AuditLogWriter  writer;
+
     /**
      * Most complete logger utility. Usually won't need all of this information,
      * but if you do, it has it all. The time of the event is added
-     * automatically and is assumed to be the current time.
+     * automatically and is assumed to be the current time. The entry is queued
+     * and written to the database in the background.
      *
      * @param code
      *            The TransactionType of the event that occurred
@@ -46,7 +58,7 @@ public class LoggerUtil {
     public void log ( final TransactionType code, final String primaryUser, final String secondaryUser,
             final String message ) {
         final LogEntry le = new LogEntry( code, primaryUser, secondaryUser, message );
-        service.save( le );
+        writer.submit( le );
     }
 
     /**
@@ -87,6 +99,25 @@ public class LoggerUtil {
         log( code, primaryUser.getUsername() );
     }
 
+    /**
+     * Logs the same event once for each of several secondary users, such as
+     * when a list of records for many patients is viewed. All of the entries
+     * are handed off together, and are written as a single batch rather than
+     * one at a time.
+     *
+     * @param code
+     *            The TransactionType of the event that occurred
+     * @param primaryUser
+     *            The primary user involved in each event
+     * @param secondaryUsers
+     *            The secondary users, one event for each
+     */
+    public void logAll ( final TransactionType code, final String primaryUser,
+            final Collection<String> secondaryUsers ) {
+        writer.submitAll( secondaryUsers.stream().map( secondary -> new LogEntry( code, primaryUser, secondary, null ) )
+                .collect( Collectors.toList() ) );
+    }
+
     /**
      * Get all logged events for a single user specified by name.
      *
@@ -110,28 +141,35 @@ public class LoggerUtil {
     }
 
     /**
-     * Get the top logged events for a single user specified by name.
+     * Get the most recent logged events for a single user specified by name.
      *
      * @param user
      *            User to find LogEntries for
      * @param top
      *            Number of events to find
-     * @return A List of the LogEntry Entries for the user. If the number of
-     *         Entries is less than `top`, returns all
+     * @return A List of the LogEntry Entries for the user, newest first. If the
+     *         number of Entries is less than `top`, returns all
      */
-    public Object getTopForUser ( final String user, final Integer top ) {
-        final List<LogEntry> all = getAllForUser( user );
-        all.sort( ( x1, x2 ) -> x1.getTime().compareTo( x2.getTime() ) );
-        try {
-            return all.subList( 0, top );
-        }
-        /*
-         * If num < top (ie, fewer records exist than were requested) return all
-         */
-        catch ( final IndexOutOfBoundsException e ) {
-            return all;
-        }
+    public List<LogEntry> getTopForUser ( final String user, final Integer top ) {
+        return service.findRecentForUser( user, top );
+    }
 
+    /**
+     * Get the most recent logged events for a single user specified by name
+     * that match a filter. Memory used is proportional to `top`, however many
+     * events the user has.
+     *
+     * @param user
+     *            User to find LogEntries for
+     * @param top
+     *            Number of events to find
+     * @param filter
+     *            Only events matching this are returned
+     * @return A List of the matching LogEntry Entries for the user, newest
+     *         first. If the number of Entries is less than `top`, returns all
+     */
+    public List<LogEntry> getTopForUser ( final String user, final Integer top, final Predicate<LogEntry> filter ) {
+        return service.findRecentForUser( user, top, filter );
     }
 
     /**
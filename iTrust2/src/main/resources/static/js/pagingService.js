@@ -0,0 +1,31 @@
+/**
+ * Helper for reading the API's list endpoints, which return one page of
+ * records at a time and say in the X-Has-Next header whether there are more.
+ */
+'use strict';
+
+angular.module('pagingServices', [])
+    .service('pagingService', function ($http) {
+
+        /**
+         * Fetches every page of a list endpoint, one after another, and
+         * resolves to the last page's response with every record in its
+         * data, so it can be used in place of $http.get.
+         * @param url The list endpoint to read.
+         */
+        this.getAll = function (url) {
+            var records = [];
+            var getPage = function (page) {
+                // The server caps the size at its largest page
+                return $http.get(url, { params: { page: page, size: 1000 } }).then(function (response) {
+                    records = records.concat(response.data);
+                    if (response.headers('X-Has-Next') === 'true') {
+                        return getPage(page + 1);
+                    }
+                    response.data = records;
+                    return response;
+                });
+            };
+            return getPage(0);
+        }
+    });
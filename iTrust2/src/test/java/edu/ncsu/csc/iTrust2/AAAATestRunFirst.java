@@ -10,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import edu.ncsu.csc.iTrust2.common.DBUtils;
+import edu.ncsu.csc.iTrust2.services.security.AuditLogWriter;
 
 @RunWith ( SpringRunner.class )
 @EnableAutoConfiguration
@@ -17,10 +18,15 @@ import edu.ncsu.csc.iTrust2.common.DBUtils;
 public class AAAATestRunFirst {
 
     @Autowired
-    DataSource ds;
+    DataSource     ds;
+
+    @Autowired
+    AuditLogWriter writer;
 
     @Test
     public void resetDB () {
+        // Anything still queued would otherwise be written after the reset
+        writer.flush();
         DBUtils.resetDB( ds );
     }
 
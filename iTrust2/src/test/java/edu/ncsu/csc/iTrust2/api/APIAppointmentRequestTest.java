@@ -184,4 +184,32 @@ public class APIAppointmentRequestTest {
 
     }
 
+    /**
+     * Tests that a patient can't see or delete another patient's appointment
+     * request
+     *
+     * @throws Exception
+     */
+    @Test
+    @WithMockUser ( username = "patient2", roles = { "PATIENT" } )
+    @Transactional
+    public void testOtherPatientsAppointmentRequest () throws Exception {
+        service.save( new Patient( new UserForm( "patient2", "123456", Role.ROLE_PATIENT, 1 ) ) );
+
+        final AppointmentRequestForm appointmentForm = new AppointmentRequestForm();
+        appointmentForm.setDate( "2030-11-19T04:50:00.000-05:00" );
+        appointmentForm.setType( AppointmentType.GENERAL_CHECKUP.toString() );
+        appointmentForm.setStatus( Status.PENDING.toString() );
+        appointmentForm.setHcp( "hcp" );
+        appointmentForm.setPatient( "patient" );
+        appointmentForm.setComments( "Test appointment please ignore" );
+        arService.save( arService.build( appointmentForm ) );
+
+        final Long id = arService.findByPatient( service.findByName( "patient" ) ).get( 0 ).getId();
+
+        mvc.perform( get( "/api/v1/appointmentrequests/" + id ) ).andExpect( status().isUnauthorized() );
+        mvc.perform( delete( "/api/v1/appointmentrequests/" + id ) ).andExpect( status().isUnauthorized() );
+        Assert.assertTrue( arService.existsById( id ) );
+    }
+
 }
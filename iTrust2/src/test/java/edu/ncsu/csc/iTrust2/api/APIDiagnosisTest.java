@@ -1,5 +1,7 @@
 package edu.ncsu.csc.iTrust2.api;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -18,6 +20,8 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -29,6 +33,7 @@ import com.google.gson.reflect.TypeToken;
 
 import edu.ncsu.csc.iTrust2.common.TestUtils;
 import edu.ncsu.csc.iTrust2.forms.DiagnosisForm;
+import edu.ncsu.csc.iTrust2.forms.DiagnosisListForm;
 import edu.ncsu.csc.iTrust2.forms.OfficeVisitForm;
 import edu.ncsu.csc.iTrust2.forms.UserForm;
 import edu.ncsu.csc.iTrust2.models.Diagnosis;
@@ -192,6 +197,19 @@ public class APIDiagnosisTest {
         }
         assertTrue( flag );
 
+        // the patient's list of diagnoses comes a page at a time, with the
+        // visit's date and HCP
+        final User patient = userService.findByName( "patient" );
+        Slice<DiagnosisListForm> page = diagnosisService.findListByPatient( patient, PageRequest.of( 0, 1 ) );
+        assertEquals( 1, page.getNumberOfElements() );
+        assertTrue( page.hasNext() );
+        assertTrue( retrieved.getDate().isEqual( page.getContent().get( 0 ).getVisitDate() ) );
+        assertEquals( "hcp", page.getContent().get( 0 ).getHcp().getUsername() );
+        page = diagnosisService.findListByPatient( patient, PageRequest.of( 1, 1 ) );
+        assertEquals( 1, page.getNumberOfElements() );
+        assertFalse( page.hasNext() );
+        assertEquals( 2, diagnosisService.findListByPatient( patient, PageRequest.of( 0, 10 ) ).getNumberOfElements() );
+
         // edit a diagnosis within the editing of office visit and check they
         // work.
         form.setId( id + "" );
@@ -2,11 +2,14 @@ package edu.ncsu.csc.iTrust2.api;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.UnsupportedEncodingException;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,10 +31,12 @@ import org.springframework.web.context.WebApplicationContext;
 import com.google.gson.reflect.TypeToken;
 
 import edu.ncsu.csc.iTrust2.common.TestUtils;
+import edu.ncsu.csc.iTrust2.controllers.api.comm.LogEntryPage;
 import edu.ncsu.csc.iTrust2.controllers.api.comm.LogEntryRequestBody;
 import edu.ncsu.csc.iTrust2.controllers.api.comm.LogEntryTableRow;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import edu.ncsu.csc.iTrust2.services.security.AuditLogWriter;
 import edu.ncsu.csc.iTrust2.services.security.LogEntryService;
 
 /**
@@ -52,12 +57,17 @@ public class APILogEntryTest {
     @Autowired
     private LogEntryService       service;
 
+    @Autowired
+    private AuditLogWriter        writer;
+
     /**
      * Sets up test
      */
     @Before
     public void setup () {
         mvc = MockMvcBuilders.webAppContextSetup( context ).build();
+        // Make sure nothing logged by an earlier test lands after the reset
+        writer.flush();
         service.deleteAll();
     }
 
@@ -104,4 +114,145 @@ public class APILogEntryTest {
 
     }
 
+    /**
+     * Tests paging through logs by cursor.
+     *
+     * @throws UnsupportedEncodingException
+     * @throws Exception
+     */
+    @Test
+    @Transactional
+    @WithMockUser ( username = "admin", roles = { "USER", "ADMIN" } )
+    public void testLogCursorAPI () throws UnsupportedEncodingException, Exception {
+        final ZonedDateTime now = ZonedDateTime.now();
+        for ( int i = 0; i < 15; i++ ) {
+            final LogEntry logEntry = new LogEntry( TransactionType.LOGIN_SUCCESS, "admin", null, "Logged In " + i );
+            logEntry.setTime( now.minusMinutes( i ) );
+            service.save( logEntry );
+        }
+
+        final LogEntryRequestBody body = new LogEntryRequestBody();
+        body.setStartDate( "2020-01-01T00:00:00Z" );
+        body.setEndDate( "2099-12-31T23:59:59Z" );
+        body.setPageLength( 10 );
+        body.setIncludeTotal( true );
+
+        final String content1 = mvc
+                .perform( post( "/api/v1/logentries/range/cursor" ).contentType( MediaType.APPLICATION_JSON )
+                        .content( TestUtils.asJsonString( body ) ) )
+                .andExpect( status().isOk() ).andReturn().getResponse().getContentAsString();
+        final LogEntryPage page1 = TestUtils.gson().fromJson( content1, LogEntryPage.class );
+        assertEquals( 10, page1.getEntries().size() );
+        assertNotNull( page1.getNext() );
+        assertEquals( 15L, (long) page1.getTotal() );
+
+        body.setCursor( page1.getNext() );
+        body.setIncludeTotal( false );
+        final String content2 = mvc
+                .perform( post( "/api/v1/logentries/range/cursor" ).contentType( MediaType.APPLICATION_JSON )
+                        .content( TestUtils.asJsonString( body ) ) )
+                .andExpect( status().isOk() ).andReturn().getResponse().getContentAsString();
+        final LogEntryPage page2 = TestUtils.gson().fromJson( content2, LogEntryPage.class );
+        assertEquals( 5, page2.getEntries().size() );
+        assertNull( page2.getNext() );
+        assertNull( page2.getTotal() );
+
+        body.setCursor( "not a cursor" );
+        mvc.perform( post( "/api/v1/logentries/range/cursor" ).contentType( MediaType.APPLICATION_JSON )
+                .content( TestUtils.asJsonString( body ) ) ).andExpect( status().isBadRequest() );
+    }
+
+    /**
+     * Tests that paging by cursor neither skips nor repeats entries whose times
+     * are less than a millisecond apart
+     *
+     * @throws Exception
+     */
+    @Test
+    @Transactional
+    @WithMockUser ( username = "admin", roles = { "USER", "ADMIN" } )
+    public void testLogCursorWithinMillisecond () throws Exception {
+        final ZonedDateTime millisecond = ZonedDateTime.now().truncatedTo( ChronoUnit.MILLIS );
+
+        // Saved first, so it has the lower ID, but is the later of the two
+        final LogEntry later = new LogEntry( TransactionType.LOGIN_SUCCESS, "admin", "later", "Logged In" );
+        later.setTime( millisecond.plusNanos( 500_000 ) );
+        service.save( later );
+        final LogEntry earlier = new LogEntry( TransactionType.LOGIN_SUCCESS, "admin", "earlier", "Logged In" );
+        earlier.setTime( millisecond.plusNanos( 1_000 ) );
+        service.save( earlier );
+
+        final LogEntryRequestBody body = new LogEntryRequestBody();
+        body.setStartDate( "2020-01-01T00:00:00Z" );
+        body.setEndDate( "2099-12-31T23:59:59Z" );
+        body.setPageLength( 1 );
+
+        final List<String> seen = new ArrayList<String>();
+        do {
+            final String content = mvc
+                    .perform( post( "/api/v1/logentries/range/cursor" ).contentType( MediaType.APPLICATION_JSON )
+                            .content( TestUtils.asJsonString( body ) ) )
+                    .andExpect( status().isOk() ).andReturn().getResponse().getContentAsString();
+            final LogEntryPage page = TestUtils.gson().fromJson( content, LogEntryPage.class );
+            page.getEntries().forEach( row -> seen.add( row.getSecondary() ) );
+            body.setCursor( page.getNext() );
+        }
+        while ( null != body.getCursor() );
+
+        assertEquals( List.of( "later", "earlier" ), seen );
+    }
+
+    /**
+     * Tests exporting the log as newline-delimited JSON
+     *
+     * @throws Exception
+     */
+    @Test
+    @Transactional
+    @WithMockUser ( username = "admin", roles = { "USER", "ADMIN" } )
+    public void testLogExportAPI () throws Exception {
+        final ZonedDateTime now = ZonedDateTime.now();
+        for ( int i = 0; i < 5; i++ ) {
+            final LogEntry logEntry = new LogEntry( TransactionType.LOGIN_SUCCESS, "patient" + i, null,
+                    "Logged In " + i );
+            logEntry.setTime( now.minusDays( i ) );
+            service.save( logEntry );
+        }
+
+        final String content = mvc.perform( get( "/api/v1/logentries/export" ) ).andExpect( status().isOk() )
+                .andReturn().getResponse().getContentAsString();
+        // The export itself is logged in the background, so only count the
+        // entries made here
+        final List<LogEntry> exported = exported( content );
+        assertEquals( 5, exported.size() );
+        assertEquals( "patient4", exported.get( 0 ).getPrimaryUser() );
+
+        final String recent = mvc
+                .perform( get( "/api/v1/logentries/export" ).param( "startDate",
+                        now.minusDays( 1 ).toLocalDate().toString() ) )
+                .andExpect( status().isOk() ).andReturn().getResponse().getContentAsString();
+        assertEquals( 2, exported( recent ).size() );
+
+        mvc.perform( get( "/api/v1/logentries/export" ).param( "startDate", "not a date" ) )
+                .andExpect( status().isBadRequest() );
+    }
+
+    /**
+     * Reads the login entries back out of an export
+     *
+     * @param content
+     *            The exported log
+     * @return The login entries, in the order they were exported
+     */
+    private List<LogEntry> exported ( final String content ) {
+        final List<LogEntry> entries = new ArrayList<LogEntry>();
+        for ( final String line : content.split( "\n" ) ) {
+            final LogEntry le = TestUtils.gson().fromJson( line, LogEntry.class );
+            if ( TransactionType.LOGIN_SUCCESS.equals( le.getLogCode() ) ) {
+                entries.add( le );
+            }
+        }
+        return entries;
+    }
+
 }
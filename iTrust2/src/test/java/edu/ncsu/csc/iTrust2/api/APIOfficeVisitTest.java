@@ -421,4 +421,43 @@ public class APIOfficeVisitTest {
 
     }
 
+    /**
+     * Tests that a patient's list of office visits is a summary of each visit,
+     * and that the whole of a visit is only returned for one of their own
+     *
+     * @throws Exception
+     */
+    @Test
+    @Transactional
+    @WithMockUser ( username = "patient", roles = { "PATIENT" } )
+    public void testMyOfficeVisitSummaries () throws Exception {
+        final OfficeVisitForm form = new OfficeVisitForm();
+        form.setDate( "2030-11-19T04:50:00.000-05:00" );
+        form.setHcp( "hcp" );
+        form.setPatient( "patient" );
+        form.setNotes( "Test office visit" );
+        form.setType( AppointmentType.GENERAL_CHECKUP.toString() );
+        form.setHospital( "iTrust Test Hospital 2" );
+        final OfficeVisit mine = officeVisitService.build( form );
+        officeVisitService.save( mine );
+
+        form.setPatient( "antti" );
+        final OfficeVisit theirs = officeVisitService.build( form );
+        officeVisitService.save( theirs );
+
+        final String summaries = mvc.perform( get( "/api/v1/officevisits/myofficevisits" ) )
+                .andExpect( status().isOk() ).andReturn().getResponse().getContentAsString();
+        assertTrue( summaries.contains( "\"id\":" + mine.getId() ) );
+        assertTrue( summaries.contains( "\"hcp\":\"hcp\"" ) );
+        assertTrue( summaries.contains( "\"hospital\":\"iTrust Test Hospital 2\"" ) );
+        assertFalse( "The list should not include the rest of the visit", summaries.contains( "notes" ) );
+        assertFalse( summaries.contains( "antti" ) );
+
+        mvc.perform( get( "/api/v1/officevisits/myofficevisits/" + mine.getId() ) ).andExpect( status().isOk() )
+                .andExpect( content().contentType( MediaType.APPLICATION_JSON_VALUE ) );
+        mvc.perform( get( "/api/v1/officevisits/myofficevisits/" + theirs.getId() ) )
+                .andExpect( status().isUnauthorized() );
+        mvc.perform( get( "/api/v1/officevisits/myofficevisits/-1" ) ).andExpect( status().isNotFound() );
+    }
+
 }
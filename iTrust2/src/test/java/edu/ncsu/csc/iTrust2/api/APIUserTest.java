@@ -209,6 +209,51 @@ public class APIUserTest {
 
     }
 
+    /**
+     * Tests that the list of users is returned a page at a time
+     *
+     * @throws Exception
+     */
+    @Test
+    @Transactional
+    @WithMockUser ( username = "admin", roles = { "ADMIN" } )
+    public void testListUsersPaged () throws Exception {
+        service.save( new Personnel( new UserForm( USER_2, PW, Role.ROLE_HCP, 1 ) ) );
+        service.save( new Personnel( new UserForm( USER_1, PW, Role.ROLE_HCP, 1 ) ) );
+
+        MockHttpServletResponse response = mvc
+                .perform( MockMvcRequestBuilders.get( "/api/v1/users?size=1" )
+                        .contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() ).andReturn().getResponse();
+        Assert.assertTrue( response.getContentAsString().contains( USER_1 ) );
+        Assert.assertFalse( response.getContentAsString().contains( USER_2 ) );
+        Assert.assertEquals( "true", response.getHeader( "X-Has-Next" ) );
+
+        response = mvc.perform(
+                MockMvcRequestBuilders.get( "/api/v1/users?size=1&page=1" ).contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() ).andReturn().getResponse();
+        Assert.assertTrue( response.getContentAsString().contains( USER_2 ) );
+        Assert.assertEquals( "false", response.getHeader( "X-Has-Next" ) );
+
+        response = mvc.perform(
+                MockMvcRequestBuilders.get( "/api/v1/users?size=1000000" ).contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() ).andReturn().getResponse();
+        Assert.assertEquals( "Pages should be capped at the maximum size", "1000",
+                response.getHeader( "X-Page-Size" ) );
+
+        response = mvc.perform( MockMvcRequestBuilders.get( "/api/v1/users?size=1&sort=username,desc" )
+                .contentType( MediaType.APPLICATION_JSON ) ).andExpect( MockMvcResultMatchers.status().isOk() )
+                .andReturn().getResponse();
+        Assert.assertTrue( "Pages can be sorted by an allowed property",
+                response.getContentAsString().contains( USER_2 ) );
+
+        mvc.perform(
+                MockMvcRequestBuilders.get( "/api/v1/users?sort=password" ).contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( MockMvcResultMatchers.status().isBadRequest() );
+        mvc.perform( MockMvcRequestBuilders.get( "/api/v1/users?sort=noSuchProperty" )
+                .contentType( MediaType.APPLICATION_JSON ) ).andExpect( MockMvcResultMatchers.status().isBadRequest() );
+    }
+
     /**
      * Tests the roles
      *
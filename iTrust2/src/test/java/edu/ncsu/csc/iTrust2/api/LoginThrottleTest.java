@@ -0,0 +1,79 @@
+package edu.ncsu.csc.iTrust2.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import javax.servlet.Filter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Tests that login attempts are rate limited
+ */
+@RunWith ( SpringRunner.class )
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoginThrottleTest {
+
+    private MockMvc               mvc;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    @Qualifier ( "loginThrottleFilter" )
+    private Filter                loginThrottleFilter;
+
+    /**
+     * Sets up test
+     */
+    @Before
+    public void setup () {
+        mvc = MockMvcBuilders.webAppContextSetup( context ).addFilters( loginThrottleFilter ).build();
+    }
+
+    /**
+     * Tests that one username can only be tried so many times at once, and
+     * that other usernames aren't affected
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testThrottlesByUsername () throws Exception {
+        for ( int i = 0; i < 10; i++ ) {
+            final int status = mvc.perform( post( "/login" ).param( "username", "throttledUser" )
+                    .param( "password", "wrong" ).with( r -> {
+                        r.setRemoteAddr( "10.0.1.1" );
+                        return r;
+                    } ) ).andReturn().getResponse().getStatus();
+            assertNotEquals( HttpStatus.TOO_MANY_REQUESTS.value(), status );
+        }
+
+        assertEquals( HttpStatus.TOO_MANY_REQUESTS.value(),
+                mvc.perform( post( "/login" ).param( "username", "throttledUser" ).param( "password", "wrong" )
+                        .with( r -> {
+                            r.setRemoteAddr( "10.0.1.2" );
+                            return r;
+                        } ) ).andReturn().getResponse().getStatus() );
+
+        assertNotEquals( HttpStatus.TOO_MANY_REQUESTS.value(),
+                mvc.perform( post( "/login" ).param( "username", "someoneElse" ).param( "password", "wrong" )
+                        .with( r -> {
+                            r.setRemoteAddr( "10.0.1.2" );
+                            return r;
+                        } ) ).andReturn().getResponse().getStatus() );
+    }
+
+}
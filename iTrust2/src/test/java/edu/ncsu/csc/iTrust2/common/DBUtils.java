@@ -9,6 +9,8 @@ import javax.sql.DataSource;
 
 import org.junit.Assert;
 
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+
 public class DBUtils {
 
     static public void resetDB ( final DataSource dataSource ) {
@@ -36,10 +38,10 @@ public class DBUtils {
                     final String tableName = tables.getString( "TABLE_NAME" );
 
                     /*
-                     * If you delete all entries from Hibernate's table it gets
-                     * very unhappy
+                     * IDs are handed out from blocks reserved in this table,
+                     * so emptying it would hand out the same IDs again
                      */
-                    if ( "hibernate_sequence".equals( tableName ) ) {
+                    if ( PooledIdGenerator.TABLE_NAME.equals( tableName ) ) {
                         continue;
                     }
 
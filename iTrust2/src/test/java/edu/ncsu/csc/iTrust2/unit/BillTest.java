@@ -155,4 +155,46 @@ public class BillTest {
         }
     }
 
+    /**
+     * Finds a CPT code saved by an earlier run, or saves a new one
+     */
+    private CPTCode findOrSave ( final String code, final String description, final int cost ) {
+        final CPTCode existing = cservice.findByCode( code );
+        if ( null != existing ) {
+            return existing;
+        }
+        final CPTCode c = new CPTCode( code, description, cost );
+        cservice.save( c );
+        return c;
+    }
+
+    /**
+     * Runs outside a transaction, so once each service call returns there is
+     * no session left to load anything the entity graphs didn't fetch
+     */
+    @Test
+    public void testBillsForCertificate () {
+        final User alice = userService.findByName( "AliceThirteen" );
+        final CPTCode c1 = findOrSave( "11112", "first", 1 );
+        final CPTCode c2 = findOrSave( "11113", "second", 2 );
+
+        final Bill bill = new Bill();
+        bill.setCost( 3 );
+        bill.setAmountOwed( 3 );
+        bill.setStatus( BillStatus.UNPAID );
+        bill.setDate( ZonedDateTime.now() );
+        bill.setPatient( alice );
+        bill.setAttendingHCP( userService.findByName( "hcp" ) );
+        bill.setCptCodes( new ArrayList<CPTCode>( List.of( c1, c2 ) ) );
+        billService.save( bill );
+
+        // Joining in the CPT codes shouldn't repeat the bill once per code
+        final List<Bill> bills = billService.findForCertificate( alice );
+        assertEquals( 1, bills.size() );
+        assertEquals( "AliceThirteen", bills.get( 0 ).getPatient().getUsername() );
+        assertEquals( 2, bills.get( 0 ).getCptCodes().size() );
+
+        assertEquals( 2, billService.findByIdAndPatient( bill.getId(), alice ).getCptCodes().size() );
+    }
+
 }
@@ -0,0 +1,61 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import edu.ncsu.csc.iTrust2.config.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+
+    @Test
+    public void testMatches () {
+        final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder( 4, 1, 10, 10000,
+                new SimpleMeterRegistry() );
+        try {
+            final String hash = encoder.encode( "123456" );
+            Assert.assertTrue( encoder.matches( "123456", hash ) );
+            Assert.assertFalse( encoder.matches( "654321", hash ) );
+
+            // Hashes from before the encoder was introduced still work
+            Assert.assertTrue( encoder.matches( "123456", new BCryptPasswordEncoder( 4 ).encode( "123456" ) ) );
+        }
+        finally {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void testUpgradeEncoding () {
+        final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder( 5, 1, 10, 10000,
+                new SimpleMeterRegistry() );
+        try {
+            Assert.assertTrue( "Hashes with a lower cost should be rehashed",
+                    encoder.upgradeEncoding( new BCryptPasswordEncoder( 4 ).encode( "123456" ) ) );
+            Assert.assertFalse( "Hashes with the current cost should be left alone",
+                    encoder.upgradeEncoding( encoder.encode( "123456" ) ) );
+        }
+        finally {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void testTimeout () {
+        final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder( 14, 1, 10, 1,
+                new SimpleMeterRegistry() );
+        try {
+            encoder.encode( "123456" );
+            Assert.fail( "A check that takes longer than the timeout should fail" );
+        }
+        catch ( final AuthenticationServiceException e ) {
+            // expected
+        }
+        finally {
+            encoder.destroy();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.forms.UserForm;
+import edu.ncsu.csc.iTrust2.models.Personnel;
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.security.CurrentUserProvider;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class CurrentUserProviderTest {
+
+    private static final String USER = "currentUserHcp";
+
+    @Autowired
+    private CurrentUserProvider currentUser;
+
+    @Autowired
+    private UserService<User>   userService;
+
+    @Before
+    public void setup () {
+        if ( null == userService.findByName( USER ) ) {
+            userService.save( new Personnel( new UserForm( USER, "123456", Role.ROLE_HCP, 1 ) ) );
+        }
+    }
+
+    @After
+    public void tearDown () {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @WithMockUser ( username = USER, roles = { "HCP" } )
+    public void testKeptForRequest () {
+        // Outside of a request, every call looks the user up
+        Assert.assertEquals( USER, currentUser.get().getUsername() );
+        Assert.assertNotSame( currentUser.get(), currentUser.get() );
+
+        RequestContextHolder.setRequestAttributes( new ServletRequestAttributes( new MockHttpServletRequest() ) );
+        final User self = currentUser.get();
+        Assert.assertEquals( USER, self.getUsername() );
+        Assert.assertSame( "The user should only be looked up once per request", self, currentUser.get() );
+
+        RequestContextHolder.setRequestAttributes( new ServletRequestAttributes( new MockHttpServletRequest() ) );
+        Assert.assertNotSame( "Each request should look the user up again", self, currentUser.get() );
+    }
+
+}
@@ -0,0 +1,178 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.time.ZonedDateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.models.security.LoginBan;
+import edu.ncsu.csc.iTrust2.models.security.LoginLockout;
+import edu.ncsu.csc.iTrust2.models.security.SecurityEvent;
+import edu.ncsu.csc.iTrust2.services.security.IPDecisionCache;
+import edu.ncsu.csc.iTrust2.services.security.LoginAttemptCounter;
+import edu.ncsu.csc.iTrust2.services.security.LoginBanService;
+import edu.ncsu.csc.iTrust2.services.security.LoginLockoutService;
+import edu.ncsu.csc.iTrust2.services.security.SecurityEventService;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class IPDecisionCacheTest {
+
+    private static final String  ADDR = "10.0.0.42";
+
+    private static final String  USER = "ipDecisionCacheUser";
+
+    @Autowired
+    private IPDecisionCache      cache;
+
+    @Autowired
+    private LoginBanService      loginBanService;
+
+    @Autowired
+    private LoginLockoutService  loginLockoutService;
+
+    @Autowired
+    private SecurityEventService securityEventService;
+
+    @Autowired
+    private LoginAttemptCounter  loginAttempts;
+
+    @Before
+    public void setup () {
+        loginBanService.clearIP( ADDR );
+        loginLockoutService.clearIP( ADDR );
+        // Apply anything left over from earlier tests before starting afresh
+        cache.poll();
+        cache.evict( ADDR );
+        loginAttempts.clearIP( ADDR );
+        loginAttempts.clearUser( USER );
+    }
+
+    @Test
+    public void testDecisionsAreCached () {
+        Assert.assertFalse( cache.isIPBanned( ADDR ) );
+        Assert.assertFalse( cache.isIPLocked( ADDR ) );
+
+        // Saved behind the cache's back, so not seen until it's evicted
+        final LoginLockout lockout = new LoginLockout();
+        lockout.setIp( ADDR );
+        lockout.setTime( ZonedDateTime.now() );
+        loginLockoutService.save( lockout );
+        Assert.assertFalse( cache.isIPLocked( ADDR ) );
+
+        cache.evict( ADDR );
+        Assert.assertTrue( cache.isIPLocked( ADDR ) );
+        Assert.assertFalse( cache.isIPBanned( ADDR ) );
+    }
+
+    @Test
+    public void testExpiredLockout () {
+        final LoginLockout lockout = new LoginLockout();
+        lockout.setIp( ADDR );
+        lockout.setTime( ZonedDateTime.now().minusHours( 2 ) );
+        loginLockoutService.save( lockout );
+
+        Assert.assertFalse( cache.isIPLocked( ADDR ) );
+
+        cache.locked( ADDR, ZonedDateTime.now().minusSeconds( 1 ) );
+        Assert.assertFalse( "A lockout should not be cached past its end", cache.isIPLocked( ADDR ) );
+    }
+
+    @Test
+    public void testWritePath () {
+        cache.locked( ADDR, ZonedDateTime.now().plusHours( 1 ) );
+        Assert.assertTrue( cache.isIPLocked( ADDR ) );
+
+        final LoginBan ban = new LoginBan();
+        ban.setIp( ADDR );
+        ban.setTime( ZonedDateTime.now() );
+        loginBanService.save( ban );
+        cache.banned( ADDR );
+        Assert.assertTrue( cache.isIPBanned( ADDR ) );
+        Assert.assertFalse( cache.isIPLocked( ADDR ) );
+    }
+
+    @Test
+    public void testEventsFromOtherNodes () {
+        Assert.assertFalse( cache.isIPBanned( ADDR ) );
+
+        // Recorded as though by another node, so only seen by polling
+        final LoginBan ban = new LoginBan();
+        ban.setIp( ADDR );
+        ban.setTime( ZonedDateTime.now() );
+        loginBanService.save( ban );
+        securityEventService.publish( SecurityEvent.Type.IP_BANNED, ADDR, null );
+        cache.poll();
+        Assert.assertTrue( cache.isIPBanned( ADDR ) );
+
+        // A lockout doesn't replace a ban
+        securityEventService.publish( SecurityEvent.Type.IP_LOCKED, ADDR, ZonedDateTime.now().plusHours( 1 ) );
+        cache.poll();
+        Assert.assertTrue( cache.isIPBanned( ADDR ) );
+
+        loginBanService.clearIP( ADDR );
+        securityEventService.publish( SecurityEvent.Type.IP_CLEARED, ADDR, null );
+        cache.poll();
+        Assert.assertFalse( cache.isIPBanned( ADDR ) );
+        Assert.assertFalse( cache.isIPLocked( ADDR ) );
+
+        // Polling again doesn't apply the same events twice
+        cache.banned( ADDR );
+        cache.poll();
+        Assert.assertTrue( cache.isIPBanned( ADDR ) );
+    }
+
+    @Test
+    public void testFailedLoginsResetByOtherNodes () {
+        loginAttempts.recordIP( ADDR );
+        loginAttempts.recordUser( USER );
+
+        // Another node locked the address out, so its count starts over here too
+        securityEventService.publish( SecurityEvent.Type.IP_LOCKED, ADDR, ZonedDateTime.now().plusHours( 1 ) );
+        cache.poll();
+        Assert.assertEquals( 0, loginAttempts.countByIP( ADDR ) );
+        Assert.assertEquals( "An IP lockout should not reset the user's count", 1, loginAttempts.countByUser( USER ) );
+
+        securityEventService.publishForUser( SecurityEvent.Type.USER_LOCKED, USER );
+        cache.poll();
+        Assert.assertEquals( 0, loginAttempts.countByUser( USER ) );
+
+        // A successful login elsewhere clears the address and the user
+        loginAttempts.recordIP( ADDR );
+        loginAttempts.recordUser( USER );
+        securityEventService.publish( SecurityEvent.Type.IP_CLEARED, ADDR, null );
+        securityEventService.publishForUser( SecurityEvent.Type.USER_CLEARED, USER );
+        cache.poll();
+        Assert.assertEquals( 0, loginAttempts.countByIP( ADDR ) );
+        Assert.assertEquals( 0, loginAttempts.countByUser( USER ) );
+    }
+
+    @Test
+    public void testSuccessfulLoginClears () {
+        loginLockoutService.clearIP( ADDR );
+        cache.locked( ADDR, ZonedDateTime.now().plusHours( 1 ) );
+        loginAttempts.recordIP( ADDR );
+        loginAttempts.recordUser( USER );
+
+        cache.cleared( ADDR );
+        cache.userCleared( USER );
+        Assert.assertFalse( "A cleared address should be checked against the database again",
+                cache.isIPLocked( ADDR ) );
+        Assert.assertEquals( 0, loginAttempts.countByIP( ADDR ) );
+        Assert.assertEquals( 0, loginAttempts.countByUser( USER ) );
+
+        // This node's own events aren't applied again when it polls
+        loginAttempts.recordUser( USER );
+        cache.poll();
+        Assert.assertEquals( 1, loginAttempts.countByUser( USER ) );
+    }
+
+}
@@ -0,0 +1,221 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import edu.ncsu.csc.iTrust2.repositories.JobLockRepository;
+import edu.ncsu.csc.iTrust2.repositories.security.ArchivedLogEntryRepository;
+import edu.ncsu.csc.iTrust2.repositories.security.LogEntryRepository;
+import edu.ncsu.csc.iTrust2.services.security.AuditLogWriter;
+import edu.ncsu.csc.iTrust2.services.security.LogEntryArchiveJob;
+import edu.ncsu.csc.iTrust2.services.security.LogEntryService;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class LogEntryArchiveTest {
+
+    @Autowired
+    private LogEntryService            service;
+
+    @Autowired
+    private LogEntryRepository         repository;
+
+    @Autowired
+    private ArchivedLogEntryRepository archiveRepository;
+
+    @Autowired
+    private JobLockRepository          lockRepository;
+
+    @Autowired
+    private LogEntryArchiveJob         job;
+
+    @Autowired
+    private AuditLogWriter             writer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final String        USER_1 = "archiveUser1";
+
+    private static final String        USER_2 = "archiveUser2";
+
+    @Before
+    public void setup () {
+        writer.flush();
+        service.deleteAll();
+        archiveRepository.deleteAll();
+        lockRepository.deleteAll();
+    }
+
+    /**
+     * Saves `count` entries for USER_1 (with USER_2 as the secondary user),
+     * each a day older than the last, starting at `newest`
+     */
+    private List<LogEntry> saveEntries ( final ZonedDateTime newest, final int count ) {
+        final List<LogEntry> entries = new ArrayList<LogEntry>();
+        for ( int i = 0; i < count; i++ ) {
+            final LogEntry le = new LogEntry( TransactionType.VIEW_USER, USER_1, USER_2, "Entry " + i );
+            le.setTime( newest.minusDays( i ) );
+            entries.add( le );
+        }
+        service.saveAll( entries );
+        return entries;
+    }
+
+    @Test
+    public void testOldEntriesAreMovedToArchive () {
+        final List<LogEntry> recent = saveEntries( ZonedDateTime.now().minusDays( 1 ), 3 );
+        final List<LogEntry> old = saveEntries( ZonedDateTime.now().minusYears( 2 ), 5 );
+
+        job.run();
+
+        Assert.assertEquals( "Only recent entries should be left in the log", 3, repository.count() );
+        Assert.assertEquals( "Old entries should be in the archive", 5, archiveRepository.count() );
+        for ( final LogEntry le : recent ) {
+            Assert.assertTrue( "Recent entries should stay in the log", repository.existsById( le.getId() ) );
+        }
+        for ( final LogEntry le : old ) {
+            Assert.assertFalse( "Archived entries should be removed from the log",
+                    repository.existsById( le.getId() ) );
+            Assert.assertTrue( "Archived entries should keep their IDs", archiveRepository.existsById( le.getId() ) );
+        }
+
+        job.run();
+        Assert.assertEquals( "Running the job again should move nothing", 3, repository.count() );
+        Assert.assertEquals( "Running the job again should move nothing", 5, archiveRepository.count() );
+    }
+
+    @Test
+    public void testArchivedEntriesAreRead () {
+        saveEntries( ZonedDateTime.now().minusDays( 1 ), 3 );
+        final List<LogEntry> old = saveEntries( ZonedDateTime.now().minusYears( 2 ), 5 );
+
+        job.run();
+
+        Assert.assertEquals( "Every entry should be found, archived or not", 8,
+                service.findAllForUser( USER_1 ).size() );
+        Assert.assertEquals( "Archived entries should be found for the secondary user too", 8,
+                service.findAllForUser( USER_2 ).size() );
+
+        final List<LogEntry> top = service.findRecentForUser( USER_1, 5 );
+        Assert.assertEquals( 5, top.size() );
+        Assert.assertEquals( "The newest archived entry should follow the log's entries", old.get( 0 ).getId(),
+                top.get( 3 ).getId() );
+
+        final List<LogEntry> filtered = service.findRecentForUser( USER_1, 10,
+                le -> le.getMessage().startsWith( "Entry" ) );
+        Assert.assertEquals( "A filtered search should reach into the archive", 8, filtered.size() );
+
+        final ZonedDateTime start = ZonedDateTime.now().minusYears( 3 );
+        Assert.assertEquals( "A date range before the hot cutoff should search the archive", 5,
+                service.findByDateRange( USER_1, start, ZonedDateTime.now().minusYears( 1 ) ).size() );
+
+        final List<LogEntry> pageOne = service.findPageForUser( USER_1,
+                EnumSet.of( TransactionType.VIEW_USER ), start, ZonedDateTime.now(), Long.MAX_VALUE, 4 );
+        final LogEntry last = pageOne.get( 3 );
+        final List<LogEntry> pageTwo = service.findPageForUser( USER_1,
+                EnumSet.of( TransactionType.VIEW_USER ), start, last.getTime(), last.getId(), 4 );
+        final List<Long> ids = new ArrayList<Long>();
+        pageOne.forEach( le -> ids.add( le.getId() ) );
+        pageTwo.forEach( le -> ids.add( le.getId() ) );
+        Assert.assertEquals( "Pages should cover the log and the archive", 8, ids.size() );
+        Assert.assertEquals( "No entry should be on two pages", 8, ids.stream().distinct().count() );
+    }
+
+    @Test
+    public void testFilteredSearchPagesThroughTies () {
+        // Entries share their times, so pages have to be told apart by ID
+        final ZonedDateTime recent = ZonedDateTime.now().minusDays( 1 ).truncatedTo( ChronoUnit.SECONDS );
+        final ZonedDateTime old = ZonedDateTime.now().minusYears( 2 ).truncatedTo( ChronoUnit.SECONDS );
+        final List<LogEntry> entries = new ArrayList<LogEntry>();
+        for ( int i = 0; i < 12; i++ ) {
+            final LogEntry le = new LogEntry( TransactionType.VIEW_USER, USER_1, null, "Entry " + i );
+            le.setTime( i < 6 ? recent : old );
+            entries.add( le );
+        }
+        service.saveAll( entries );
+        job.run();
+
+        // Two at a time, so the match from the log is several pages in, and
+        // the one from the archive several pages further
+        final Set<String> wanted = Set.of( "Entry 1", "Entry 10" );
+        final List<LogEntry> found = service.findRecentForUser( USER_1, 2, le -> wanted.contains( le.getMessage() ) );
+        Assert.assertEquals( 2, found.size() );
+        Assert.assertEquals( entries.get( 1 ).getId(), found.get( 0 ).getId() );
+        Assert.assertEquals( entries.get( 10 ).getId(), found.get( 1 ).getId() );
+    }
+
+    @Test
+    public void testExportIncludesArchive () throws Exception {
+        saveEntries( ZonedDateTime.now().minusDays( 1 ), 2 );
+        saveEntries( ZonedDateTime.now().minusYears( 2 ), 3 );
+
+        job.run();
+
+        final StringWriter out = new StringWriter();
+        final long written = service.export( ZonedDateTime.now().minusYears( 3 ), ZonedDateTime.now(), out );
+        Assert.assertEquals( "Archived and current entries should both be exported", 5, written );
+        Assert.assertEquals( 5, out.toString().split( "\n" ).length );
+    }
+
+    @Test
+    public void testRerunAfterInterruption () {
+        final List<LogEntry> old = saveEntries( ZonedDateTime.now().minusYears( 2 ), 4 );
+        final List<Long> ids = old.stream().map( LogEntry::getId ).collect( Collectors.toList() );
+
+        // A run that copied the entries, but was stopped before deleting them
+        new TransactionTemplate( transactionManager ).execute( status -> archiveRepository.copyFromLog( ids ) );
+        Assert.assertEquals( 4, archiveRepository.count() );
+        Assert.assertEquals( 4, repository.count() );
+        Assert.assertEquals( "An entry in both places should only be found once", 4,
+                service.findAllForUser( USER_1 ).size() );
+
+        job.run();
+
+        Assert.assertEquals( "The log should be emptied of old entries", 0, repository.count() );
+        Assert.assertEquals( "Entries already archived should not be archived again", 4, archiveRepository.count() );
+    }
+
+    @Test
+    public void testJobOnlyRunsOnNodeHoldingLease () {
+        saveEntries( ZonedDateTime.now().minusYears( 2 ), 2 );
+
+        lockRepository.createIfAbsent( LogEntryArchiveJob.LOCK );
+        final ZonedDateTime now = ZonedDateTime.now();
+        Assert.assertEquals( 1, lockRepository.acquire( LogEntryArchiveJob.LOCK, "another-node",
+                now.plus( Duration.ofMinutes( 10 ) ), now ) );
+
+        job.run();
+        Assert.assertEquals( "Nothing should be archived while another node holds the lease", 2,
+                repository.count() );
+
+        Assert.assertEquals( 1, lockRepository.acquire( LogEntryArchiveJob.LOCK, "another-node", now, now ) );
+        job.run();
+        Assert.assertEquals( "Entries should be archived once the lease runs out", 0, repository.count() );
+        Assert.assertNull( "The lease should be given up once the job is done",
+                lockRepository.findById( LogEntryArchiveJob.LOCK ).get().getOwner() );
+    }
+
+}
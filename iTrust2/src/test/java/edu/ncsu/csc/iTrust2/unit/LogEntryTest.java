@@ -1,9 +1,15 @@
 package edu.ncsu.csc.iTrust2.unit;
 
+import java.time.Clock;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -13,12 +19,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import edu.ncsu.csc.iTrust2.TestConfig;
 import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
 import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import edu.ncsu.csc.iTrust2.services.security.AuditLogWriter;
+import edu.ncsu.csc.iTrust2.services.security.HttpRequestCounter;
 import edu.ncsu.csc.iTrust2.services.security.LogEntryService;
+import edu.ncsu.csc.iTrust2.utils.LoggerUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @RunWith ( SpringRunner.class )
 @EnableAutoConfiguration
@@ -28,12 +39,24 @@ public class LogEntryTest {
     @Autowired
     private LogEntryService     service;
 
+    @Autowired
+    private LoggerUtil          loggerUtil;
+
+    @Autowired
+    private AuditLogWriter      writer;
+
+    @Autowired
+    private HttpRequestCounter  counter;
+
     private static final String USER_1 = "testUser123";
 
     private static final String USER_2 = "testUser1234";
 
+    private static final String USER_3 = "testUser12345";
+
     @Before
     public void setup () {
+        writer.flush();
         service.deleteAll();
     }
 
@@ -78,5 +101,164 @@ public class LogEntryTest {
                 "Creating a Log Entry with a secondary user should still find the Log Entry when querying by the primary user",
                 3, service.findAllForUser( USER_1 ).size() );
 
+        Assert.assertEquals( "Searching by date should only find entries for the user searched for", 3,
+                service.findByDateRange( USER_1, today, tomorrow ).size() );
+
+        Assert.assertEquals( "Searching by date should find entries where the user is the secondary user", 2,
+                service.findByDateRange( USER_2, today, tomorrow ).size() );
+
+        Assert.assertEquals( "Searching outside of the date range should find no entries", 0,
+                service.findByDateRange( USER_1, tomorrow, tomorrow.plusDays( 1 ) ).size() );
+
+    }
+
+    @Test
+    public void testLoggerUtilWritesInBackground () {
+        for ( int i = 0; i < 25; i++ ) {
+            loggerUtil.log( TransactionType.HTTP_REQUEST, USER_1, "Request " + i );
+        }
+        loggerUtil.log( TransactionType.LOGIN_SUCCESS, USER_2 );
+
+        writer.flush();
+
+        Assert.assertEquals( "Every queued entry should be written once the writer is flushed", 0,
+                writer.getQueueDepth() );
+        Assert.assertEquals( "Every entry logged through LoggerUtil should be saved", 25,
+                service.findAllForUser( USER_1 ).size() );
+        Assert.assertEquals( "Every entry logged through LoggerUtil should be saved", 1,
+                service.findAllForUser( USER_2 ).size() );
+    }
+
+    /**
+     * Tests that flushing while entries spill over from a full queue returns,
+     * rather than waiting on entries that were never queued
+     */
+    @Test
+    public void testFlushWhileSpilling () throws Exception {
+        // A writer of its own, with no background thread, so that its one-entry
+        // queue stays full until it is flushed
+        final AuditLogWriter spilling = new AuditLogWriter();
+        ReflectionTestUtils.setField( spilling, "service", service );
+        ReflectionTestUtils.setField( spilling, "meterRegistry", new SimpleMeterRegistry() );
+        ReflectionTestUtils.setField( spilling, "async", false );
+        ReflectionTestUtils.setField( spilling, "queueCapacity", 1 );
+        ReflectionTestUtils.setField( spilling, "batchSize", 10 );
+        ReflectionTestUtils.setField( spilling, "flushIntervalMs", 10L );
+        ReflectionTestUtils.setField( spilling, "overflow", AuditLogWriter.OverflowPolicy.SPILL );
+        spilling.afterPropertiesSet();
+        ReflectionTestUtils.setField( spilling, "async", true );
+
+        final int count = 200;
+        final ExecutorService pool = Executors.newFixedThreadPool( 3 );
+        try {
+            final List<Future< ? >> submitters = new ArrayList<Future< ? >>();
+            for ( int t = 0; t < 2; t++ ) {
+                submitters.add( pool.submit( () -> {
+                    for ( int i = 0; i < count / 2; i++ ) {
+                        spilling.submit( new LogEntry( TransactionType.HTTP_REQUEST, USER_1, null, "Spilled" ) );
+                    }
+                } ) );
+            }
+            while ( !submitters.stream().allMatch( Future::isDone ) ) {
+                pool.submit( spilling::flush ).get( 10, TimeUnit.SECONDS );
+            }
+            for ( final Future< ? > submitter : submitters ) {
+                submitter.get();
+            }
+            pool.submit( spilling::flush ).get( 10, TimeUnit.SECONDS );
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        Assert.assertEquals( 0, spilling.getQueueDepth() );
+        Assert.assertEquals( "Every entry should be saved, queued or spilled", count,
+                service.findAllForUser( USER_1 ).size() );
+    }
+
+    @Test
+    public void testLogAll () {
+        loggerUtil.logAll( TransactionType.APPOINTMENT_REQUEST_VIEWED, USER_1, Arrays.asList( USER_2, USER_3 ) );
+        writer.flush();
+
+        Assert.assertEquals( "One entry should be logged for each secondary user", 2,
+                service.findAllForUser( USER_1 ).size() );
+        Assert.assertEquals( "Each secondary user should have their own entry", 1,
+                service.findAllForUser( USER_3 ).size() );
+    }
+
+    @Test
+    public void testHttpRequestsAreCounted () {
+        // Fix the clock just before the end of a minute, so that every
+        // request is counted in the same one however long the test takes
+        final ZonedDateTime minute = ZonedDateTime.now().truncatedTo( ChronoUnit.MINUTES );
+        counter.setClock( Clock.fixed( minute.plusSeconds( 59 ).toInstant(), minute.getZone() ) );
+        try {
+            for ( int i = 0; i < 20; i++ ) {
+                counter.count( USER_1, "GET", "/api/v1/patients/{username}", 200 );
+            }
+            counter.count( USER_1, "GET", "/api/v1/patients/{username}", 404 );
+            counter.count( USER_1, "PUT", "/api/v1/patients/{username}", 200 );
+
+            counter.flush();
+        }
+        finally {
+            counter.setClock( Clock.systemDefaultZone() );
+        }
+        writer.flush();
+
+        final List<LogEntry> entries = service.findAllForUser( USER_1 );
+        Assert.assertEquals( "Requests should be written as one entry per endpoint and response code", 3,
+                entries.size() );
+        Assert.assertTrue( "Each entry should record how many requests it covers",
+                entries.stream().anyMatch( le -> le.getMessage()
+                        .equals( "Request GET /api/v1/patients/{username}, response code: 200, count: 20" ) ) );
+        Assert.assertTrue( "Entries should be timestamped at the start of their minute",
+                entries.stream().allMatch( le -> le.getTime().isEqual( minute ) ) );
+    }
+
+    @Test
+    @Transactional
+    public void testRecentActivity () {
+        final ZonedDateTime now = ZonedDateTime.now().truncatedTo( ChronoUnit.SECONDS );
+
+        final List<LogEntry> entries = new ArrayList<LogEntry>();
+        for ( int i = 0; i < 10; i++ ) {
+            final LogEntry le = new LogEntry( i % 2 == 0 ? TransactionType.LOGIN_SUCCESS : TransactionType.LOGOUT,
+                    USER_1, null, "Entry " + i );
+            le.setTime( now.minusMinutes( i ) );
+            entries.add( le );
+        }
+        final LogEntry secondary = new LogEntry( TransactionType.APPOINTMENT_REQUEST_SUBMITTED, USER_2, USER_1,
+                "An appointment was requested" );
+        secondary.setTime( now.minusSeconds( 30 ) );
+        entries.add( secondary );
+        service.saveAll( entries );
+
+        final List<LogEntry> top = loggerUtil.getTopForUser( USER_1, 3 );
+        Assert.assertEquals( "The number of entries requested should be returned", 3, top.size() );
+        Assert.assertEquals( "The newest entry should come first", "Entry 0", top.get( 0 ).getMessage() );
+        Assert.assertEquals( "Entries where the user is secondary should be included", "An appointment was requested",
+                top.get( 1 ).getMessage() );
+        Assert.assertEquals( "Entries should be ordered newest first", "Entry 1", top.get( 2 ).getMessage() );
+
+        Assert.assertEquals( "Asking for more entries than exist should return them all", 11,
+                loggerUtil.getTopForUser( USER_1, 50 ).size() );
+
+        final List<LogEntry> logouts = loggerUtil.getTopForUser( USER_1, 2,
+                le -> TransactionType.LOGOUT.equals( le.getLogCode() ) );
+        Assert.assertEquals( "The number of entries requested should be returned", 2, logouts.size() );
+        Assert.assertEquals( "Only matching entries should be returned, newest first", "Entry 1",
+                logouts.get( 0 ).getMessage() );
+        Assert.assertEquals( "Only matching entries should be returned, newest first", "Entry 3",
+                logouts.get( 1 ).getMessage() );
+
+        final List<LogEntry> oldest = loggerUtil.getTopForUser( USER_1, 1, le -> "Entry 9".equals( le.getMessage() ) );
+        Assert.assertEquals( "Pages should be read until a match is found", "Entry 9", oldest.get( 0 ).getMessage() );
+
+        Assert.assertTrue( "Asking for no entries should return none",
+                loggerUtil.getTopForUser( USER_1, 0 ).isEmpty() );
+        Assert.assertTrue( "Asking for no entries should return none",
+                loggerUtil.getTopForUser( USER_1, 0, le -> true ).isEmpty() );
     }
 }
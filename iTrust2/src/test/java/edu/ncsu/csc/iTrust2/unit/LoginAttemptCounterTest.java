@@ -0,0 +1,63 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.services.security.LoginAttemptCounter;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class LoginAttemptCounterTest {
+
+    private static final String ADDR = "10.0.0.43";
+
+    private static final String USER = "attemptCounterUser";
+
+    @Autowired
+    private LoginAttemptCounter loginAttempts;
+
+    @Before
+    public void setup () {
+        loginAttempts.clearIP( ADDR );
+        loginAttempts.clearUser( USER );
+    }
+
+    @Test
+    public void testCountsFailures () {
+        Assert.assertEquals( 0, loginAttempts.countByIP( ADDR ) );
+
+        for ( int i = 0; i < 3; i++ ) {
+            loginAttempts.recordIP( ADDR );
+        }
+        loginAttempts.recordUser( USER );
+
+        Assert.assertEquals( 3, loginAttempts.countByIP( ADDR ) );
+        Assert.assertEquals( 1, loginAttempts.countByUser( USER ) );
+        Assert.assertEquals( "Addresses and users should be counted separately", 0,
+                loginAttempts.countByUser( ADDR ) );
+
+        loginAttempts.clearIP( ADDR );
+        Assert.assertEquals( 0, loginAttempts.countByIP( ADDR ) );
+        Assert.assertEquals( "Clearing an address should not clear users", 1, loginAttempts.countByUser( USER ) );
+    }
+
+    @Test
+    public void testSnapshotKeepsFailures () {
+        loginAttempts.recordUser( USER );
+        loginAttempts.recordUser( USER );
+
+        loginAttempts.snapshot();
+
+        Assert.assertEquals( "Snapshotting should not drop failures still within the window", 2,
+                loginAttempts.countByUser( USER ) );
+    }
+
+}
@@ -0,0 +1,76 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.time.ZonedDateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.models.security.LoginLockout;
+import edu.ncsu.csc.iTrust2.services.security.LoginLockoutService;
+import edu.ncsu.csc.iTrust2.services.security.SecurityRecordPurger;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class LoginLockoutServiceTest {
+
+    private static final String  ADDR = "10.0.0.44";
+
+    @Autowired
+    private LoginLockoutService  loginLockoutService;
+
+    @Autowired
+    private SecurityRecordPurger purger;
+
+    @Before
+    public void setup () {
+        loginLockoutService.clearIP( ADDR );
+    }
+
+    private void lockout ( final ZonedDateTime time ) {
+        final LoginLockout lockout = new LoginLockout();
+        lockout.setIp( ADDR );
+        lockout.setTime( time );
+        loginLockoutService.save( lockout );
+    }
+
+    @Test
+    public void testRecentLockouts () {
+        lockout( ZonedDateTime.now().minusHours( 30 ) );
+        lockout( ZonedDateTime.now().minusHours( 5 ) );
+        Assert.assertFalse( loginLockoutService.isIPLocked( ADDR ) );
+        Assert.assertEquals( "Only lockouts from the past day should count", 1,
+                loginLockoutService.getRecentIPLockouts( ADDR ) );
+
+        lockout( ZonedDateTime.now().minusMinutes( 5 ) );
+        Assert.assertTrue( loginLockoutService.isIPLocked( ADDR ) );
+        Assert.assertEquals( 2, loginLockoutService.getRecentIPLockouts( ADDR ) );
+    }
+
+    @Test
+    public void testPurge () {
+        lockout( ZonedDateTime.now().minusHours( 30 ) );
+        lockout( ZonedDateTime.now().minusHours( 26 ) );
+        lockout( ZonedDateTime.now().minusHours( 5 ) );
+
+        // Chunks smaller than the number of expired lockouts
+        final ZonedDateTime cutoff = ZonedDateTime.now().minusHours( 24 );
+        while ( loginLockoutService.purgeBefore( cutoff, 1 ) > 0 ) {
+            // keep going
+        }
+        Assert.assertEquals( 1, loginLockoutService.getRecentIPLockouts( ADDR ) );
+
+        lockout( ZonedDateTime.now().minusHours( 48 ) );
+        purger.purge();
+        Assert.assertEquals( "Only recent lockouts should survive the purge", 1,
+                loginLockoutService.clearIP( ADDR ) );
+    }
+
+}
@@ -11,8 +11,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Vector;
 
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.Transactional;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -23,7 +26,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.forms.DiagnosisForm;
+import edu.ncsu.csc.iTrust2.forms.OfficeVisitForm;
 import edu.ncsu.csc.iTrust2.forms.OphthalmologyVisitForm;
+import edu.ncsu.csc.iTrust2.forms.PrescriptionForm;
 import edu.ncsu.csc.iTrust2.forms.UserForm;
 import edu.ncsu.csc.iTrust2.models.BasicHealthMetrics;
 import edu.ncsu.csc.iTrust2.models.Diagnosis;
@@ -45,6 +51,7 @@ import edu.ncsu.csc.iTrust2.services.HospitalService;
 import edu.ncsu.csc.iTrust2.services.ICDCodeService;
 import edu.ncsu.csc.iTrust2.services.OfficeVisitService;
 import edu.ncsu.csc.iTrust2.services.PrescriptionService;
+import edu.ncsu.csc.iTrust2.services.ReferenceCaches;
 import edu.ncsu.csc.iTrust2.services.UserService;
 
 @RunWith ( SpringRunner.class )
@@ -73,6 +80,12 @@ public class OfficeVisitTest {
     @Autowired
     private PrescriptionService       prescriptionService;
 
+    @Autowired
+    private ReferenceCaches           referenceCaches;
+
+    @Autowired
+    private EntityManagerFactory      entityManagerFactory;
+
     @Before
     public void setup () {
         officeVisitService.deleteAll();
@@ -355,4 +368,91 @@ public class OfficeVisitTest {
         assertEquals( 20, retrieved.getOphthalmologyMetrics().getVisualAcuityLeft().intValue() );
 
     }
+
+    /**
+     * Builds a visit with `count` diagnoses and prescriptions, saving the
+     * codes and drugs they refer to if an earlier run hasn't, and returns the
+     * number of statements the build ran. The cached codes, drugs and hospital
+     * are cleared first, so every build has to look them up.
+     */
+    private long statementsToBuild ( final int count ) {
+        if ( null == hospitalService.findByName( "Build Hospital" ) ) {
+            hospitalService.save( new Hospital( "Build Hospital", "123 Main St", "12345", "NC" ) );
+        }
+
+        final OfficeVisitForm form = new OfficeVisitForm();
+        form.setPatient( "AliceThirteen" );
+        form.setHcp( "hcp" );
+        form.setDate( "2048-04-16T09:45:00.000-04:00" );
+        form.setType( AppointmentType.GENERAL_CHECKUP.toString() );
+        form.setHospital( "Build Hospital" );
+        form.setHdl( 75 );
+        form.setHeight( 75f );
+        form.setHouseSmokingStatus( HouseholdSmokingStatus.NONSMOKING );
+
+        final List<DiagnosisForm> diagnoses = new ArrayList<DiagnosisForm>();
+        final List<PrescriptionForm> prescriptions = new ArrayList<PrescriptionForm>();
+        for ( int i = 0; i < count; i++ ) {
+            final String icd = "B2" + i;
+            if ( null == icdCodeService.findByCode( icd ) ) {
+                final ICDCode code = new ICDCode();
+                code.setCode( icd );
+                code.setDescription( "Built " + i );
+                icdCodeService.save( code );
+            }
+            final DiagnosisForm diagnosis = new DiagnosisForm();
+            diagnosis.setCode( icd );
+            diagnosis.setNote( "Diagnosis " + i );
+            diagnoses.add( diagnosis );
+
+            final String ndc = "4321-1234-0" + i;
+            if ( null == drugService.findByCode( ndc ) ) {
+                final Drug drug = new Drug();
+                drug.setCode( ndc );
+                drug.setName( "Built " + i );
+                drug.setDescription( "Prescribed while building" );
+                drugService.save( drug );
+            }
+            final PrescriptionForm prescription = new PrescriptionForm();
+            prescription.setDrug( ndc );
+            prescription.setDosage( 100 );
+            prescription.setRenewals( 1 );
+            prescription.setPatient( "AliceThirteen" );
+            prescription.setStartDate( "2048-04-16" );
+            prescription.setEndDate( "2048-05-16" );
+            prescriptions.add( prescription );
+        }
+        form.setDiagnoses( diagnoses );
+        form.setPrescriptions( prescriptions );
+
+        referenceCaches.get( ICDCode.class ).invalidate();
+        referenceCaches.get( Drug.class ).invalidate();
+        referenceCaches.get( Hospital.class ).invalidate();
+
+        final Statistics statistics = entityManagerFactory.unwrap( SessionFactory.class ).getStatistics();
+        statistics.setStatisticsEnabled( true );
+        statistics.clear();
+        final OfficeVisit visit = officeVisitService.build( form );
+        final long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled( false );
+
+        assertEquals( count, visit.getDiagnoses().size() );
+        assertEquals( count, visit.getPrescriptions().size() );
+        for ( final Diagnosis d : visit.getDiagnoses() ) {
+            Assert.assertSame( "Diagnoses should belong to the visit being built", visit, d.getVisit() );
+            assertNotNull( d.getCode() );
+        }
+        for ( final Prescription p : visit.getPrescriptions() ) {
+            assertNotNull( p.getDrug() );
+            assertNotNull( p.getPatient() );
+        }
+        return statements;
+    }
+
+    @Test
+    public void testBuildLooksUpEachTypeOnce () {
+        final long one = statementsToBuild( 1 );
+        Assert.assertEquals( "Building a visit should take the same number of statements however much is in it",
+                one, statementsToBuild( 5 ) );
+    }
 }
@@ -0,0 +1,53 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.adapters.PooledIdGenerator;
+import edu.ncsu.csc.iTrust2.models.security.SecurityEvent;
+import edu.ncsu.csc.iTrust2.services.security.SecurityEventService;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class PooledIdGeneratorTest {
+
+    @Autowired
+    private SecurityEventService securityEventService;
+
+    @Autowired
+    private DataSource           dataSource;
+
+    @Test
+    public void testIdsComeFromReservedBlock () throws Exception {
+        Assert.assertEquals( PooledIdGenerator.class.getName(), PooledIdGenerator.STRATEGY );
+
+        final SecurityEvent first = securityEventService.publish( SecurityEvent.Type.IP_CLEARED, "10.0.0.45", null );
+        final SecurityEvent second = securityEventService.publish( SecurityEvent.Type.IP_CLEARED, "10.0.0.45", null );
+        Assert.assertTrue( second.getId() > first.getId() );
+
+        // Both came out of a block that was reserved ahead of them
+        try ( Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement(
+                        "SELECT next_val FROM " + PooledIdGenerator.TABLE_NAME + " WHERE sequence_name = ?" ) ) {
+            ps.setString( 1, "security_event" );
+            try ( ResultSet rs = ps.executeQuery() ) {
+                Assert.assertTrue( rs.next() );
+                Assert.assertTrue( rs.getLong( 1 ) > second.getId() );
+            }
+        }
+    }
+
+}
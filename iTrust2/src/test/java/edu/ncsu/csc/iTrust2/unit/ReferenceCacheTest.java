@@ -0,0 +1,138 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.forms.DrugForm;
+import edu.ncsu.csc.iTrust2.models.Drug;
+import edu.ncsu.csc.iTrust2.models.Hospital;
+import edu.ncsu.csc.iTrust2.services.DrugService;
+import edu.ncsu.csc.iTrust2.services.HospitalService;
+import edu.ncsu.csc.iTrust2.services.ReferenceCache;
+import edu.ncsu.csc.iTrust2.services.ReferenceCaches;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class ReferenceCacheTest {
+
+    private static final String CODE = "9876-5432-10";
+
+    @Autowired
+    private DrugService         drugService;
+
+    @Autowired
+    private HospitalService     hospitalService;
+
+    @Autowired
+    private ReferenceCaches     referenceCaches;
+
+    @Before
+    public void setup () {
+        final Drug existing = drugService.findByCode( CODE );
+        if ( null != existing ) {
+            drugService.delete( existing );
+        }
+    }
+
+    @Test
+    public void testLookupsAreCachedUntilSave () {
+        Assert.assertNull( drugService.findByCode( CODE ) );
+
+        final DrugForm form = new DrugForm();
+        form.setCode( CODE );
+        form.setName( "Cached" );
+        form.setDescription( "Looked up from memory" );
+        final Drug drug = new Drug( form );
+        drugService.save( drug );
+
+        // The save cleared the cached miss
+        final Drug found = drugService.findByCode( CODE );
+        Assert.assertNotNull( found );
+        Assert.assertSame( found, drugService.findByCode( CODE ) );
+        Assert.assertSame( drugService.findById( found.getId() ), drugService.findById( found.getId() ) );
+        Assert.assertTrue( referenceCaches.get( Drug.class ).size() > 0 );
+
+        drugService.delete( found );
+        Assert.assertNull( drugService.findByCode( CODE ) );
+        Assert.assertNull( drugService.findById( found.getId() ) );
+    }
+
+    @Test
+    public void testUpdatesDontChangeCachedCopy () {
+        final String name = "Cached Hospital";
+        final Hospital existing = hospitalService.findByNameForUpdate( name );
+        if ( null != existing ) {
+            hospitalService.delete( existing );
+        }
+        hospitalService.save( new Hospital( name, "1 Main St", "27606", "NC" ) );
+
+        final Hospital cached = hospitalService.findByName( name );
+        final Hospital forUpdate = hospitalService.findByNameForUpdate( name );
+        Assert.assertNotSame( "Updates should get a copy of their own", cached, forUpdate );
+
+        forUpdate.setAddress( "2 Main St" );
+        Assert.assertEquals( "Changing the copy shouldn't change what other readers see", "1 Main St",
+                hospitalService.findByName( name ).getAddress() );
+
+        hospitalService.save( forUpdate );
+        Assert.assertEquals( "2 Main St", hospitalService.findByName( name ).getAddress() );
+        hospitalService.delete( forUpdate );
+    }
+
+    @Test
+    public void testExpiryAndSize () {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final ReferenceCache<String> cache = new ReferenceCache<String>( "test", 0, 2, registry );
+        Assert.assertEquals( "a", cache.get( "code", 1, () -> "a" ) );
+        Assert.assertEquals( "Expired entries should be looked up again", "b", cache.get( "code", 1, () -> "b" ) );
+
+        final ReferenceCache<String> bounded = new ReferenceCache<String>( "bounded", 60, 2, registry );
+        bounded.get( "code", 1, () -> "a" );
+        bounded.get( "code", 2, () -> "b" );
+        bounded.get( "code", 3, () -> "c" );
+        Assert.assertEquals( 2, bounded.size() );
+        Assert.assertEquals( "c", bounded.get( "code", 3, () -> "x" ) );
+        Assert.assertEquals( 1.0, registry.get( "itrust2.reference.cache.hits" ).tag( "cache", "bounded" ).counter()
+                .count(), 0.0 );
+    }
+
+    @Test
+    public void testGetAllOnlyLoadsMisses () {
+        final ReferenceCache<String> cache = new ReferenceCache<String>( "batch", 60, 10, new SimpleMeterRegistry() );
+        cache.get( "code", "a", () -> "A" );
+
+        final List<Set<String>> loads = new ArrayList<Set<String>>();
+        final Map<String, String> found = cache.getAll( "code", List.of( "a", "b", "c" ), missed -> {
+            loads.add( missed );
+            return Map.of( "b", "B" );
+        } );
+        Assert.assertEquals( 1, loads.size() );
+        Assert.assertEquals( Set.of( "b", "c" ), loads.get( 0 ) );
+        Assert.assertEquals( "A", found.get( "a" ) );
+        Assert.assertEquals( "B", found.get( "b" ) );
+        Assert.assertTrue( found.containsKey( "c" ) );
+        Assert.assertNull( found.get( "c" ) );
+
+        // Everything, including the miss, is now cached
+        cache.getAll( "code", List.of( "a", "b", "c" ), missed -> {
+            loads.add( missed );
+            return Map.of();
+        } );
+        Assert.assertEquals( 1, loads.size() );
+    }
+
+}
@@ -0,0 +1,148 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.config.SchemaValidateIntegrator;
+import edu.ncsu.csc.iTrust2.forms.UserForm;
+import edu.ncsu.csc.iTrust2.models.Patient;
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+import edu.ncsu.csc.iTrust2.models.enums.TransactionType;
+import edu.ncsu.csc.iTrust2.models.security.LogEntry;
+import edu.ncsu.csc.iTrust2.models.security.SecurityEvent;
+import edu.ncsu.csc.iTrust2.repositories.JobLockRepository;
+import edu.ncsu.csc.iTrust2.repositories.security.ArchivedLogEntryRepository;
+import edu.ncsu.csc.iTrust2.repositories.security.LogEntryRepository;
+import edu.ncsu.csc.iTrust2.services.UserService;
+import edu.ncsu.csc.iTrust2.services.security.LogEntryArchiveJob;
+import edu.ncsu.csc.iTrust2.services.security.SecurityEventService;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class SchemaMigrationsTest {
+
+    private static final String        USER = "migrationPatient";
+
+    @Autowired
+    private SchemaValidateIntegrator   integrator;
+
+    @Autowired
+    private DataSource                 dataSource;
+
+    @Autowired
+    private UserService<User>          userService;
+
+    @Autowired
+    private LogEntryRepository         logRepository;
+
+    @Autowired
+    private ArchivedLogEntryRepository archiveRepository;
+
+    @Autowired
+    private JobLockRepository          lockRepository;
+
+    @Autowired
+    private SecurityEventService       securityEventService;
+
+    private LogEntry                   entry;
+
+    @Before
+    public void setup () {
+        userService.save( new Patient( new UserForm( USER, "123456", Role.ROLE_PATIENT, 1 ) ) );
+        entry = new LogEntry( TransactionType.VIEW_USER, USER, null, "Kept through the migration" );
+        entry.setTime( ZonedDateTime.now() );
+        logRepository.save( entry );
+    }
+
+    /**
+     * Drops tables, to put the database back to how it was before they were
+     * added
+     */
+    private void dropTables ( final List<String> tables ) throws Exception {
+        try ( Connection conn = dataSource.getConnection(); Statement st = conn.createStatement() ) {
+            for ( final String table : tables ) {
+                st.executeUpdate( "DROP TABLE IF EXISTS " + table );
+            }
+        }
+    }
+
+    /**
+     * Checks that the rows saved in setup are still there
+     */
+    private void assertRowsKept () {
+        Assert.assertNotNull( "Existing users should be kept", userService.findByName( USER ) );
+        Assert.assertTrue( "Existing log entries should be kept", logRepository.existsById( entry.getId() ) );
+    }
+
+    /**
+     * Tests that starting up on a database from before the audit log's archive
+     * and job leases creates their tables, rather than dropping the database
+     */
+    @Test
+    public void testArchiveTablesAreCreated () throws Exception {
+        dropTables( List.of( "archived_log_entry", "job_lock" ) );
+
+        integrator.migrateAndValidate();
+
+        assertRowsKept();
+        Assert.assertEquals( 0, archiveRepository.count() );
+        lockRepository.createIfAbsent( LogEntryArchiveJob.LOCK );
+        Assert.assertTrue( lockRepository.existsById( LogEntryArchiveJob.LOCK ) );
+    }
+
+    /**
+     * Tests that starting up on a database from before SecurityEvents creates
+     * their table, rather than dropping the database
+     */
+    @Test
+    public void testSecurityEventTableIsCreated () throws Exception {
+        dropTables( List.of( "security_event" ) );
+
+        integrator.migrateAndValidate();
+
+        assertRowsKept();
+        final ZonedDateTime before = ZonedDateTime.now().minusMinutes( 1 );
+        securityEventService.publishForUser( SecurityEvent.Type.USER_CLEARED, USER );
+        Assert.assertEquals( 1, securityEventService.findSince( before ).size() );
+    }
+
+    /**
+     * Tests that the SecurityEvents recorded before events had a username are
+     * kept when the column is added
+     */
+    @Test
+    public void testSecurityEventUsernameIsAdded () throws Exception {
+        dropTables( List.of( "security_event" ) );
+        try ( Connection conn = dataSource.getConnection(); Statement st = conn.createStatement() ) {
+            st.executeUpdate( "CREATE TABLE security_event (id BIGINT NOT NULL, type VARCHAR(255), "
+                    + "ip VARCHAR(255), locked_until DATETIME, time DATETIME, PRIMARY KEY (id))" );
+            st.executeUpdate( "INSERT INTO security_event (id, type, ip, time) "
+                    + "VALUES (-1, 'IP_BANNED', '10.0.0.1', NOW())" );
+        }
+
+        integrator.migrateAndValidate();
+
+        assertRowsKept();
+        final SecurityEvent old = securityEventService.findById( -1L );
+        Assert.assertNotNull( "Existing events should be kept", old );
+        Assert.assertEquals( "10.0.0.1", old.getIp() );
+        Assert.assertNull( old.getUsername() );
+    }
+
+}
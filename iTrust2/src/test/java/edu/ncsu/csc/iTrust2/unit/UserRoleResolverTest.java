@@ -0,0 +1,107 @@
+package edu.ncsu.csc.iTrust2.unit;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.forms.UserForm;
+import edu.ncsu.csc.iTrust2.models.Personnel;
+import edu.ncsu.csc.iTrust2.models.User;
+import edu.ncsu.csc.iTrust2.models.enums.Role;
+import edu.ncsu.csc.iTrust2.repositories.UserRepository;
+import edu.ncsu.csc.iTrust2.services.UserRoleResolver;
+import edu.ncsu.csc.iTrust2.services.UserService;
+
+@RunWith ( SpringRunner.class )
+@EnableAutoConfiguration
+@SpringBootTest ( classes = TestConfig.class )
+public class UserRoleResolverTest {
+
+    private static final String  HCP     = "roleResolverHcp";
+
+    private static final String  UNKNOWN = "roleResolverNobody";
+
+    @Autowired
+    private UserRoleResolver     resolver;
+
+    @Autowired
+    private UserService<User>    service;
+
+    @Autowired
+    private UserRepository<User> repository;
+
+    @Before
+    public void setup () {
+        service.deleteAll();
+        resolver.evict( HCP );
+        resolver.evict( UNKNOWN );
+        service.save( new Personnel( new UserForm( HCP, "123456", Role.ROLE_HCP, 1 ) ) );
+    }
+
+    @Test
+    public void testResolve () {
+        final Map<String, Set<Role>> roles = resolver.resolve( Arrays.asList( HCP, UNKNOWN, null ) );
+        Assert.assertEquals( Set.of( Role.ROLE_HCP ), roles.get( HCP ) );
+        Assert.assertFalse( "Usernames with no User should be left out", roles.containsKey( UNKNOWN ) );
+
+        // Cached, so a change that isn't evicted isn't seen
+        changeToOphthalmologist();
+        Assert.assertEquals( Set.of( Role.ROLE_HCP ), resolver.resolve( Set.of( HCP ) ).get( HCP ) );
+
+        resolver.evict( HCP );
+        Assert.assertEquals( Set.of( Role.ROLE_OPH ), resolver.resolve( Set.of( HCP ) ).get( HCP ) );
+    }
+
+    @SuppressWarnings ( "unchecked" )
+    @Test
+    public void testEvictDuringLookup () {
+        // Change the roles and evict just after the lookup has read the old
+        // ones, as a concurrent update would
+        final UserRepository<User> racing = (UserRepository<User>) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class< ? >[] { UserRepository.class },
+                ( proxy, method, args ) -> {
+                    try {
+                        final Object result = method.invoke( repository, args );
+                        if ( "findRolesByUsernameIn".equals( method.getName() ) ) {
+                            changeToOphthalmologist();
+                            resolver.evict( HCP );
+                        }
+                        return result;
+                    }
+                    catch ( final InvocationTargetException ite ) {
+                        throw ite.getCause();
+                    }
+                } );
+
+        ReflectionTestUtils.setField( resolver, "repository", racing );
+        try {
+            Assert.assertEquals( "The lookup should return what it read", Set.of( Role.ROLE_HCP ),
+                    resolver.resolve( Set.of( HCP ) ).get( HCP ) );
+        }
+        finally {
+            ReflectionTestUtils.setField( resolver, "repository", repository );
+        }
+        Assert.assertEquals( "What the lookup read should not have been cached over the eviction",
+                Set.of( Role.ROLE_OPH ), resolver.resolve( Set.of( HCP ) ).get( HCP ) );
+    }
+
+    private void changeToOphthalmologist () {
+        final User hcp = service.findByName( HCP );
+        hcp.setRoles( Set.of( Role.ROLE_OPH ) );
+        service.save( hcp );
+    }
+
+}
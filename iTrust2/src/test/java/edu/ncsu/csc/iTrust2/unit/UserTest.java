@@ -1,7 +1,12 @@
 package edu.ncsu.csc.iTrust2.unit;
 
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.EnumSet;
 import java.util.List;
 
+import javax.sql.DataSource;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +18,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 import edu.ncsu.csc.iTrust2.TestConfig;
+import edu.ncsu.csc.iTrust2.config.SchemaMigrations;
 import edu.ncsu.csc.iTrust2.forms.UserForm;
 import edu.ncsu.csc.iTrust2.models.Patient;
 import edu.ncsu.csc.iTrust2.models.Personnel;
@@ -32,6 +38,9 @@ public class UserTest {
     @Autowired
     private UserService<User>   service;
 
+    @Autowired
+    private DataSource          dataSource;
+
     private static final String USER_1 = "testUser1";
 
     private static final String USER_2 = "testUser2";
@@ -90,6 +99,30 @@ public class UserTest {
 
     }
 
+    /**
+     * Tests that roles are stored as a bitmask and read back intact
+     */
+    @Test
+    public void testRoleMask () {
+        Assert.assertEquals( EnumSet.of( Role.ROLE_HCP, Role.ROLE_OPH ),
+                Role.fromMask( Role.toMask( List.of( Role.ROLE_HCP, Role.ROLE_OPH ) ) ) );
+        Assert.assertEquals( 0, Role.toMask( EnumSet.noneOf( Role.class ) ) );
+        Assert.assertEquals( "Every role should have a bit of its own", Role.values().length,
+                Integer.bitCount( Role.toMask( EnumSet.allOf( Role.class ) ) ) );
+
+        final User user1 = new Personnel( new UserForm( USER_1, PW, Role.ROLE_HCP, 1 ) );
+        user1.addRole( Role.ROLE_OD );
+        service.save( user1 );
+        Assert.assertEquals( EnumSet.of( Role.ROLE_HCP, Role.ROLE_OD ), service.findByName( USER_1 ).getRoles() );
+
+        final User found = service.findByName( USER_1 );
+        found.addRole( Role.ROLE_VIROLOGIST );
+        service.save( found );
+        Assert.assertEquals( "Adding a role to a saved user should be saved",
+                EnumSet.of( Role.ROLE_HCP, Role.ROLE_OD, Role.ROLE_VIROLOGIST ),
+                service.findByName( USER_1 ).getRoles() );
+    }
+
     /**
      * Tests illegal role combinations (ie. admin and any other role)
      */
@@ -135,4 +168,31 @@ public class UserTest {
             // expected
         }
     }
+    /**
+     * Tests that a user whose roles were migrated from the old `user_roles`
+     * table can still be deleted
+     */
+    @Test
+    public void testDeleteAfterRoleMaskMigration () throws Exception {
+        service.save( new Personnel( new UserForm( USER_1, PW, Role.ROLE_HCP, 1 ) ) );
+
+        // Put the database back the way it was before roles were a bitmask
+        try ( Connection conn = dataSource.getConnection(); Statement st = conn.createStatement() ) {
+            st.executeUpdate( "ALTER TABLE user DROP COLUMN role_mask" );
+            st.executeUpdate( "CREATE TABLE user_roles (user_username VARCHAR(255) NOT NULL, roles VARCHAR(255), "
+                    + "FOREIGN KEY (user_username) REFERENCES user (username))" );
+            st.executeUpdate( "INSERT INTO user_roles VALUES ('" + USER_1 + "', 'ROLE_HCP'), ('" + USER_1
+                    + "', 'ROLE_ER')" );
+
+            new SchemaMigrations( conn, null ).migrateRoleMask();
+        }
+
+        final User migrated = service.findByName( USER_1 );
+        Assert.assertEquals( "Roles should be migrated into the bitmask", EnumSet.of( Role.ROLE_HCP, Role.ROLE_ER ),
+                EnumSet.copyOf( migrated.getRoles() ) );
+
+        service.delete( migrated );
+        Assert.assertNull( "A migrated user should be deleted", service.findByName( USER_1 ) );
+    }
+
 }